@@ -20,6 +20,12 @@ package com.github.retrooper.packetevents.event;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.exception.InvalidHandshakeException;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -52,6 +58,22 @@ public class EventManager {
     //Since reads greatly outnumber writes, create an array for the best possible iteration time
     //Updated as a whole on writes, no index modifications are allowed
     private volatile PacketListenerCommon[] listeners = new PacketListenerCommon[0];
+    //Per packet type dispatch arrays, indexed by [side][connection state][packet type ordinal]
+    //Only contains the listeners interested in the packet type, see PacketListenerCommon#getPacketTypes
+    private volatile PacketListenerCommon[][][][] typedListeners = createTypedListeners(new PacketListenerCommon[0]);
+    //Whether any listener is interested in a packet id, indexed by [side][connection state][client version][packet id]
+    //Filled lazily per client version and reset whenever the listeners change
+    private volatile boolean[][][][] interestedPacketIds = createInterestedPacketIds();
+    //All packet types, indexed the same way as the dispatch arrays
+    private static final PacketTypeCommon[][][] PACKET_TYPES = new PacketTypeCommon[PacketSide.values().length][ConnectionState.values().length][];
+
+    static {
+        for (PacketSide side : PacketSide.values()) {
+            for (ConnectionState state : ConnectionState.values()) {
+                PACKET_TYPES[side.ordinal()][state.ordinal()] = PacketType.getPacketTypes(side, state);
+            }
+        }
+    }
 
 
     /**
@@ -79,6 +101,26 @@ public class EventManager {
      * @param postCallListenerAction The action to be ran after all the listeners have finished processing
      */
     public void callEvent(PacketEvent event, @Nullable Runnable postCallListenerAction) {
+        this.callEvent(event, postCallListenerAction, null, -1);
+    }
+
+    /**
+     * Call the ProtocolPacketEvent.
+     * Works like {@link #callEvent(PacketEvent, Runnable)}, but resets the reader index of the packet buffer
+     * after each listener without requiring a post call action to be allocated.
+     *
+     * @param event       {@link ProtocolPacketEvent}
+     * @param buffer      The buffer whose reader index is reset after each listener
+     * @param readerIndex The reader index to reset to
+     */
+    public void callEvent(ProtocolPacketEvent event, Object buffer, int readerIndex) {
+        this.callEvent(event, null, buffer, readerIndex);
+    }
+
+    private void callEvent(PacketEvent event, @Nullable Runnable postCallListenerAction,
+                           @Nullable Object buffer, int readerIndex) {
+        PacketListenerCommon[] listeners = event instanceof ProtocolPacketEvent
+                ? this.getListeners((ProtocolPacketEvent) event) : this.listeners;
         for (PacketListenerCommon listener : listeners) {
             try {
                 event.call(listener);
@@ -91,6 +133,9 @@ public class EventManager {
             if (postCallListenerAction != null) {
                 postCallListenerAction.run();
             }
+            if (buffer != null) {
+                ByteBufHelper.readerIndex(buffer, readerIndex);
+            }
         }
         // For performance reasons, we don't want to re-encode the packet if it's not needed.
         if (event instanceof ProtocolPacketEvent && !((ProtocolPacketEvent) event).needsReEncode()) {
@@ -98,6 +143,90 @@ public class EventManager {
         }
     }
 
+    /**
+     * Get the listeners which will process packets of the given type, sorted by priority.
+     *
+     * @param side       The side sending the packet
+     * @param state      The connection state of the packet
+     * @param packetType The packet type
+     * @return Listeners interested in the packet type
+     */
+    public PacketListenerCommon[] getListeners(PacketSide side, ConnectionState state, PacketTypeCommon packetType) {
+        if (packetType instanceof Enum<?>) {
+            int ordinal = ((Enum<?>) packetType).ordinal();
+            PacketTypeCommon[] types = PACKET_TYPES[side.ordinal()][state.ordinal()];
+            //Make sure the packet type actually belongs to this side and state
+            if (ordinal < types.length && types[ordinal] == packetType) {
+                return this.typedListeners[side.ordinal()][state.ordinal()][ordinal];
+            }
+        }
+        return this.listeners;
+    }
+
+    /**
+     * Whether any registered listener is interested in packets of the given type.
+     *
+     * @param side       The side sending the packet
+     * @param state      The connection state of the packet
+     * @param packetType The packet type
+     * @return true if at least one listener would process the packet type
+     */
+    public boolean hasListeners(PacketSide side, ConnectionState state, PacketTypeCommon packetType) {
+        return this.getListeners(side, state, packetType).length != 0;
+    }
+
+    /**
+     * Whether any registered listener is interested in the packet with the given id.
+     * Unlike {@link #hasListeners(PacketSide, ConnectionState, PacketTypeCommon)}, this doesn't require
+     * the packet type to be resolved, so it can be used before any event is created.
+     *
+     * @param side     The side sending the packet
+     * @param state    The connection state of the packet
+     * @param version  The protocol version the packet id belongs to
+     * @param packetId The packet id
+     * @return true if at least one listener would process the packet, or if the packet id is unknown
+     */
+    public boolean hasListeners(PacketSide side, ConnectionState state, ClientVersion version, int packetId) {
+        boolean[][] byVersion = this.interestedPacketIds[side.ordinal()][state.ordinal()];
+        boolean[] interested = byVersion[version.ordinal()];
+        if (interested == null) {
+            //Benign race, concurrent callers compute the same table
+            interested = this.createInterestedPacketIds(side, state, version);
+            byVersion[version.ordinal()] = interested;
+        }
+        //Unknown packet ids still have to go through the event, so they are reported the same way as before
+        return packetId < 0 || packetId >= interested.length || interested[packetId];
+    }
+
+    private boolean[] createInterestedPacketIds(PacketSide side, ConnectionState state, ClientVersion version) {
+        int maxId = -1;
+        for (PacketTypeCommon packetType : PACKET_TYPES[side.ordinal()][state.ordinal()]) {
+            maxId = Math.max(maxId, packetType.getId(version));
+        }
+        boolean[] interested = new boolean[maxId + 1];
+        for (int packetId = 0; packetId <= maxId; packetId++) {
+            PacketTypeCommon packetType = PacketType.getById(side, state, version, packetId);
+            interested[packetId] = packetType == null || this.hasListeners(side, state, packetType);
+        }
+        return interested;
+    }
+
+    private static boolean[][][][] createInterestedPacketIds() {
+        boolean[][][][] interestedPacketIds = new boolean[PACKET_TYPES.length][][][];
+        for (int side = 0; side < PACKET_TYPES.length; side++) {
+            interestedPacketIds[side] = new boolean[PACKET_TYPES[side].length][ClientVersion.values().length][];
+        }
+        return interestedPacketIds;
+    }
+
+    private PacketListenerCommon[] getListeners(ProtocolPacketEvent event) {
+        PacketTypeCommon packetType = event.getPacketType();
+        if (packetType == null) {
+            return this.listeners;
+        }
+        return this.getListeners(packetType.getSide(), event.getConnectionState(), packetType);
+    }
+
     /**
      * Register the dynamic packet event listener.
      *
@@ -153,6 +282,8 @@ public class EventManager {
         this.listenersMap.clear();
         synchronized (this) {//like booky10 said, the synchronization is necessary here
             this.listeners = new PacketListenerCommon[0];
+            this.typedListeners = createTypedListeners(this.listeners);
+            this.interestedPacketIds = createInterestedPacketIds();
         }
     }
 
@@ -166,17 +297,73 @@ public class EventManager {
                 Set<PacketListenerCommon> set = this.listenersMap.get(priority);
                 if (set != null) list.addAll(set);
             }
-            this.listeners = list.toArray(new PacketListenerCommon[0]);
+            PacketListenerCommon[] listeners = list.toArray(new PacketListenerCommon[0]);
+            this.listeners = listeners;
+            this.typedListeners = createTypedListeners(listeners);
+            //Must be reset after the dispatch arrays, the lazily filled tables are derived from them
+            this.interestedPacketIds = createInterestedPacketIds();
         }
     }
 
+    //Precomputes which listeners are interested in each packet type, so calling an event doesn't have to filter
+    private static PacketListenerCommon[][][][] createTypedListeners(PacketListenerCommon[] listeners) {
+        PacketListenerCommon[][][][] typedListeners = new PacketListenerCommon[PACKET_TYPES.length][][][];
+        for (int side = 0; side < PACKET_TYPES.length; side++) {
+            typedListeners[side] = new PacketListenerCommon[PACKET_TYPES[side].length][][];
+            for (int state = 0; state < PACKET_TYPES[side].length; state++) {
+                PacketTypeCommon[] types = PACKET_TYPES[side][state];
+                PacketListenerCommon[][] byType = new PacketListenerCommon[types.length][];
+                for (int i = 0; i < types.length; i++) {
+                    List<PacketListenerCommon> interested = new ArrayList<>(listeners.length);
+                    for (PacketListenerCommon listener : listeners) {
+                        Set<PacketTypeCommon> filter = listener.packetTypeFilter;
+                        if (filter == null || filter.contains(types[i])) {
+                            interested.add(listener);
+                        }
+                    }
+                    //Share the complete array if nobody filters this packet type out
+                    byType[i] = interested.size() == listeners.length ? listeners
+                            : interested.toArray(new PacketListenerCommon[0]);
+                }
+                typedListeners[side][state] = byType;
+            }
+        }
+        return typedListeners;
+    }
+
     //Internal registration methods, specifically separated for lesser overhead when registering an array of Listeners
 
     private void registerListenerNoRecalculation(PacketListenerCommon listener) {
+        listener.packetTypeFilter = resolvePacketTypeFilter(listener);
         Set<PacketListenerCommon> listenerSet = this.listenersMap.computeIfAbsent(listener.getPriority(), p -> new CopyOnWriteArraySet<>());
         listenerSet.add(listener);
     }
 
+    private static @Nullable Set<PacketTypeCommon> resolvePacketTypeFilter(PacketListenerCommon listener) {
+        Collection<PacketTypeCommon> packetTypes = listener.getPacketTypes();
+        if (packetTypes == null) {
+            return null;
+        }
+        if (packetTypes.isEmpty()) {
+            throw new IllegalArgumentException("The listener " + listener.getClass().getName()
+                    + " declares an empty set of packet types, return null to listen to all packets instead");
+        }
+        Set<PacketTypeCommon> filter = Collections.newSetFromMap(new IdentityHashMap<>(packetTypes.size()));
+        for (PacketTypeCommon packetType : packetTypes) {
+            if (packetType == null) {
+                throw new IllegalArgumentException("The listener " + listener.getClass().getName()
+                        + " declares a null packet type");
+            }
+            if (!(packetType instanceof Enum<?>)) {
+                throw new IllegalArgumentException("The listener " + listener.getClass().getName()
+                        + " declares the unknown packet type " + packetType.getClass().getName()
+                        + ", only constants of " + PacketType.class.getName() + " are supported");
+            }
+            filter.add(packetType);
+        }
+        return filter;
+    }
+
     //Returns true if the listener was removed, so a modification occurred
     private boolean unregisterListenerNoRecalculation(PacketListenerCommon listener) {
         Set<PacketListenerCommon> listenerSet = this.listenersMap.get(listener.getPriority());
@@ -29,21 +29,28 @@ import com.github.retrooper.packetevents.util.TimeStampMode;
  * @since 1.2.6
  */
 public abstract class PacketEvent implements CallableEvent {
-    private final long timestamp;
+    private long timestamp;
 
     public PacketEvent() {
+        this.timestamp = createTimestamp();
+    }
+
+    //Only used when recycling events
+    void updateTimestamp() {
+        this.timestamp = createTimestamp();
+    }
+
+    private static long createTimestamp() {
         TimeStampMode timeStampMode = PacketEvents.getAPI().getSettings()
                 .getTimeStampMode();
         switch (timeStampMode) {
             case MILLIS:
-                timestamp = System.currentTimeMillis();
-                break;
+                return System.currentTimeMillis();
             case NANO:
-                timestamp = System.nanoTime();
-                break;
+                return System.nanoTime();
                 //AKA NONE:
             default:
-                timestamp = 0L;
+                return 0L;
         }
     }
 
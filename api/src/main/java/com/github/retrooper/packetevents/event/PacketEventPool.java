@@ -0,0 +1,83 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.event;
+
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.EventCreationUtil;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Recycles the packet events of a single connection, one instance per side and connection state.
+ * <p>
+ * A connection is always processed by the same netty event loop, so no synchronization is needed.
+ * If an event is requested while the pooled instance is still being processed (for example, a listener
+ * sending a packet while handling another one), a fresh event is created instead.
+ *
+ * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#reuseEvents(boolean)
+ */
+@ApiStatus.Internal
+public final class PacketEventPool {
+
+    private final PacketReceiveEvent[] receiveEvents = new PacketReceiveEvent[ConnectionState.values().length];
+    private final PacketSendEvent[] sendEvents = new PacketSendEvent[ConnectionState.values().length];
+
+    public PacketReceiveEvent acquireReceiveEvent(Object channel, User user, Object player, Object buffer,
+                                                  boolean autoProtocolTranslation) throws PacketProcessException {
+        int slot = user.getDecoderState().ordinal();
+        PacketReceiveEvent event = this.receiveEvents[slot];
+        if (event == null || event.inUse) {
+            event = EventCreationUtil.newReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+            if (this.receiveEvents[slot] == null) {
+                this.receiveEvents[slot] = event;
+            }
+        } else {
+            event.reuse(channel, user, player, buffer, autoProtocolTranslation);
+        }
+        event.inUse = true;
+        return event;
+    }
+
+    public PacketSendEvent acquireSendEvent(Object channel, User user, Object player, Object buffer,
+                                            boolean autoProtocolTranslation) throws PacketProcessException {
+        int slot = user.getEncoderState().ordinal();
+        PacketSendEvent event = this.sendEvents[slot];
+        if (event == null || event.inUse) {
+            event = EventCreationUtil.newSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+            if (this.sendEvents[slot] == null) {
+                this.sendEvents[slot] = event;
+            }
+        } else {
+            event.reuse(channel, user, player, buffer, autoProtocolTranslation);
+        }
+        event.inUse = true;
+        return event;
+    }
+
+    /**
+     * Marks the event as processed, allowing it to be recycled for the next packet.
+     * The event stays readable until the next packet of the same side and connection state is processed.
+     *
+     * @param event The event acquired from this pool
+     */
+    public void release(ProtocolPacketEvent event) {
+        event.inUse = false;
+    }
+}
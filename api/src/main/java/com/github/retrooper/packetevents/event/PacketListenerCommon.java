@@ -18,9 +18,14 @@
 
 package com.github.retrooper.packetevents.event;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.Nullable;
+
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Abstract packet listener.
@@ -30,6 +35,8 @@ import java.util.Map;
  */
 public abstract class PacketListenerCommon {
     private final PacketListenerPriority priority;
+    //Resolved by the EventManager on registration, null if this listener receives all packets
+    @Nullable Set<PacketTypeCommon> packetTypeFilter;
 
     public PacketListenerCommon(PacketListenerPriority priority) {
         this.priority = priority;
@@ -43,6 +50,18 @@ public abstract class PacketListenerCommon {
         return priority;
     }
 
+    /**
+     * The packet types this listener is interested in.
+     * If a set of packet types is declared, {@link #onPacketReceive(PacketReceiveEvent)} and
+     * {@link #onPacketSend(PacketSendEvent)} will only be invoked for those packet types.
+     * This method is only queried once, when the listener is registered.
+     *
+     * @return Packet types this listener wants to process, or null to process all packets
+     */
+    public @Nullable Collection<PacketTypeCommon> getPacketTypes() {
+        return null;
+    }
+
     public void onUserConnect(UserConnectEvent event) {
     }
 
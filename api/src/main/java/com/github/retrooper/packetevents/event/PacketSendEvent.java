@@ -46,6 +46,14 @@ public class PacketSendEvent extends ProtocolPacketEvent {
                 channel, user, player, byteBuf);
     }
 
+    @Override
+    void reuse(Object channel, User user, Object player, Object byteBuf,
+               boolean autoProtocolTranslation) throws PacketProcessException {
+        //Don't clear the old list, the tasks may still be pending on the previous packet's promise
+        this.tasksAfterSend = null;
+        super.reuse(channel, user, player, byteBuf, autoProtocolTranslation);
+    }
+
     @Override
     public void call(PacketListenerCommon listener) {
         listener.onPacketSend(this);
@@ -40,31 +40,79 @@ import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A packet being received from or sent to a connection.
+ * <p>
+ * Events are only valid while they are being processed by the listeners. If event reusing is enabled
+ * ({@link com.github.retrooper.packetevents.settings.PacketEventsSettings#reuseEvents(boolean)}),
+ * the same instance is recycled for following packets of the connection, so listeners which want to keep
+ * a reference to the event (for example to process it later or on another thread) must {@link #clone()} it.
+ */
 public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerEvent, CancellableEvent, UserEvent {
-    private final Object channel;
-    private final ConnectionState connectionState;
-    private final User user;
-    private final Object player;
+    private Object channel;
+    private ConnectionState connectionState;
+    private User user;
+    private Object player;
     private Object byteBuf;
-    private final int packetID;
-    private final PacketTypeCommon packetType;
+    private int packetID;
+    private PacketTypeCommon packetType;
     private ServerVersion serverVersion;
     private boolean cancel;
     private PacketWrapper<?> lastUsedWrapper;
     private List<Runnable> postTasks = null;
     private boolean cloned;
     private boolean needsReEncode = PacketEvents.getAPI().getSettings().reEncodeByDefault();
+    //Whether this pooled event is currently being processed, see PacketEventPool
+    boolean inUse;
 
     public ProtocolPacketEvent(PacketSide packetSide, Object channel,
                                User user, Object player, Object byteBuf,
                                boolean autoProtocolTranslation) throws PacketProcessException {
+        this.init(packetSide, channel, user, player, byteBuf, autoProtocolTranslation);
+    }
+
+    public ProtocolPacketEvent(int packetID, PacketTypeCommon packetType, ServerVersion serverVersion, Object channel,
+                               User user, Object player, Object byteBuf) {
+        this.channel = channel;
+        this.user = user;
+        this.player = player;
+        this.serverVersion = serverVersion;
+        this.byteBuf = byteBuf;
+        this.packetID = packetID;
+        this.packetType = packetType;
+
+        this.connectionState = (packetType != null && packetType.getSide() == PacketSide.SERVER)
+                ? user.getEncoderState() : user.getDecoderState();
+        cloned = true;
+    }
+
+    /**
+     * Re-initializes this event with the next packet of a connection, as if it was freshly constructed.
+     * Only used for pooled events, see {@link com.github.retrooper.packetevents.settings.PacketEventsSettings#reuseEvents(boolean)}.
+     */
+    void reuse(Object channel, User user, Object player, Object byteBuf,
+               boolean autoProtocolTranslation) throws PacketProcessException {
+        this.updateTimestamp();
+        this.cancel = false;
+        this.lastUsedWrapper = null;
+        //Don't clear the old list, someone may still be holding on to it
+        this.postTasks = null;
+        this.cloned = false;
+        this.needsReEncode = PacketEvents.getAPI().getSettings().reEncodeByDefault();
+        PacketSide packetSide = this instanceof PacketReceiveEvent ? PacketSide.CLIENT : PacketSide.SERVER;
+        this.init(packetSide, channel, user, player, byteBuf, autoProtocolTranslation);
+    }
+
+    private void init(PacketSide packetSide, Object channel,
+                      User user, Object player, Object byteBuf,
+                      boolean autoProtocolTranslation) throws PacketProcessException {
         this.channel = channel;
         this.user = user;
         this.player = player;
         if (autoProtocolTranslation || user.getClientVersion() == null) {
             this.serverVersion = PacketEvents.getAPI().getServerManager().getVersion();
         } else {
-            //TODO Optimize
+            //Resolved once per client version and cached on the constant, no lookup per packet
             this.serverVersion = user.getClientVersion().toServerVersion();
         }
 
@@ -92,21 +140,6 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         this.connectionState = state;
     }
 
-    public ProtocolPacketEvent(int packetID, PacketTypeCommon packetType, ServerVersion serverVersion, Object channel,
-                               User user, Object player, Object byteBuf) {
-        this.channel = channel;
-        this.user = user;
-        this.player = player;
-        this.serverVersion = serverVersion;
-        this.byteBuf = byteBuf;
-        this.packetID = packetID;
-        this.packetType = packetType;
-
-        this.connectionState = (packetType != null && packetType.getSide() == PacketSide.SERVER)
-                ? user.getEncoderState() : user.getDecoderState();
-        cloned = true;
-    }
-
     public void markForReEncode(boolean needsReEncode) {
         this.needsReEncode = needsReEncode;
     }
@@ -220,6 +253,12 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         return postTasks != null && !postTasks.isEmpty();
     }
 
+    /**
+     * Creates a copy of this event, which is never recycled and holds its own reference to the buffer.
+     * This must be used if the event escapes the listener call. Clones must be released with {@link #cleanUp()}.
+     *
+     * @return A copy of this event
+     */
     @Override
     public ProtocolPacketEvent clone() {
         return this instanceof PacketReceiveEvent ? ((PacketReceiveEvent) this).clone()
@@ -25,8 +25,10 @@ import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.ConnectionState;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.player.UserProfile;
@@ -38,109 +40,180 @@ import com.github.retrooper.packetevents.wrapper.login.server.WrapperLoginServer
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerJoinGame;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerRespawn;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the state of users, like their version and connection state.
+ * <p>
+ * Every packet type this listener processes has its own handler, only those packet types reach this listener at all.
+ * Platforms can replace or add handlers from the constructor of their own subclass.
+ */
 public class InternalPacketListener extends PacketListenerAbstract {
 
+    private final Map<PacketTypeCommon, Consumer<PacketSendEvent>> sendHandlers = new IdentityHashMap<>();
+    private final Map<PacketTypeCommon, Consumer<PacketReceiveEvent>> receiveHandlers = new IdentityHashMap<>();
+
     public InternalPacketListener() {
         this(PacketListenerPriority.LOWEST);
     }
 
     public InternalPacketListener(PacketListenerPriority priority) {
         super(priority);
+        this.registerSendHandler(PacketType.Login.Server.LOGIN_SUCCESS, this::handleLoginSuccess);
+        // The server sends dimension information in configuration phase, since 1.20.2
+        this.registerSendHandler(PacketType.Configuration.Server.REGISTRY_DATA, this::handleRegistryData);
+        // The server sends registry info in login packet for 1.16 to 1.20.1
+        this.registerSendHandler(PacketType.Play.Server.JOIN_GAME, this::handleJoinGame);
+        // Respawn is used to switch dimensions
+        this.registerSendHandler(PacketType.Play.Server.RESPAWN, this::handleRespawn);
+        this.registerSendHandler(PacketType.Play.Server.CONFIGURATION_START,
+                event -> event.getUser().setEncoderState(ConnectionState.CONFIGURATION));
+        this.registerSendHandler(PacketType.Configuration.Server.CONFIGURATION_END,
+                event -> event.getUser().setEncoderState(ConnectionState.PLAY));
+
+        this.registerReceiveHandler(PacketType.Handshaking.Client.HANDSHAKE, this::handleHandshake);
+        this.registerReceiveHandler(PacketType.Login.Client.LOGIN_SUCCESS_ACK,
+                event -> event.getUser().setDecoderState(ConnectionState.CONFIGURATION));
+        this.registerReceiveHandler(PacketType.Play.Client.CONFIGURATION_ACK,
+                event -> event.getUser().setDecoderState(ConnectionState.CONFIGURATION));
+        this.registerReceiveHandler(PacketType.Configuration.Client.CONFIGURATION_END_ACK,
+                event -> event.getUser().setDecoderState(ConnectionState.PLAY));
     }
 
-    @Override
-    public void onPacketSend(PacketSendEvent event) {
-        User user = event.getUser();
-        if (event.getPacketType() == PacketType.Login.Server.LOGIN_SUCCESS) {
-            Object channel = event.getChannel();
-            //Process outgoing login success packet
-            WrapperLoginServerLoginSuccess loginSuccess = new WrapperLoginServerLoginSuccess(event);
-            UserProfile profile = loginSuccess.getUserProfile();
-
-            //Update user profile
-            user.getProfile().setUUID(profile.getUUID());
-            user.getProfile().setName(profile.getName());
-            //Texture properties are passed in login success on 1.19
-            user.getProfile().setTextureProperties(profile.getTextureProperties());
-
-            //Map username with channel
-            synchronized (channel) {
-                ProtocolManager.CHANNELS.put(profile.getUUID(), channel);
-            }
+    /**
+     * Sets the handler for an outgoing packet type, replacing the previous handler of that type.
+     * Has to be called before this listener is registered, as its packet types are only queried once.
+     */
+    protected final void registerSendHandler(PacketTypeCommon packetType, Consumer<PacketSendEvent> handler) {
+        this.sendHandlers.put(packetType, handler);
+    }
 
-            PacketEvents.getAPI().getLogManager().debug("Mapped player UUID with their channel.");
+    /**
+     * Sets the handler for an incoming packet type, replacing the previous handler of that type.
+     * Has to be called before this listener is registered, as its packet types are only queried once.
+     */
+    protected final void registerReceiveHandler(PacketTypeCommon packetType, Consumer<PacketReceiveEvent> handler) {
+        this.receiveHandlers.put(packetType, handler);
+    }
 
-            // Switch the user's connection state to new state, but the variable event.getConnectionState() remains LOGIN
-            // We switch user state immediately to remain in sync with vanilla, allowing you to encode packets immediately
-            boolean proxy = PacketEvents.getAPI().getInjector().isProxy();
-            if (proxy ? event.getUser().getClientVersion().isNewerThanOrEquals(ClientVersion.V_1_20_2)
-                    : event.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_20_2)) {
-                user.setEncoderState(ConnectionState.CONFIGURATION);
-            } else {
-                user.setConnectionState(ConnectionState.PLAY);
-            }
+    @Override
+    public Collection<PacketTypeCommon> getPacketTypes() {
+        Set<PacketTypeCommon> packetTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        packetTypes.addAll(this.sendHandlers.keySet());
+        packetTypes.addAll(this.receiveHandlers.keySet());
+        return Collections.unmodifiableSet(packetTypes);
+    }
+
+    @Override
+    public void onPacketSend(PacketSendEvent event) {
+        Consumer<PacketSendEvent> handler = this.sendHandlers.get(event.getPacketType());
+        if (handler != null) {
+            handler.accept(event);
         }
+    }
 
-        // The server sends dimension information in configuration phase, since 1.20.2
-        else if (event.getPacketType() == PacketType.Configuration.Server.REGISTRY_DATA) {
-            WrapperConfigServerRegistryData packet = new WrapperConfigServerRegistryData(event);
+    @Override
+    public void onPacketReceive(PacketReceiveEvent event) {
+        Consumer<PacketReceiveEvent> handler = this.receiveHandlers.get(event.getPacketType());
+        if (handler != null) {
+            handler.accept(event);
+        }
+    }
 
-            if (packet.getElements() != null) { // 1.20.2 to 1.20.5
-                SynchronizedRegistriesHandler.handleRegistry(user, packet.getServerVersion().toClientVersion(),
-                        packet.getRegistryKey(), packet.getElements());
-            }
-            if (packet.getRegistryData() != null) { // since 1.20.5
-                SynchronizedRegistriesHandler.handleLegacyRegistries(user, packet.getServerVersion()
-                        .toClientVersion(), packet.getRegistryData());
-            }
+    private void handleLoginSuccess(PacketSendEvent event) {
+        User user = event.getUser();
+        Object channel = event.getChannel();
+        //Process outgoing login success packet
+        WrapperLoginServerLoginSuccess loginSuccess = new WrapperLoginServerLoginSuccess(event);
+        UserProfile profile = loginSuccess.getUserProfile();
+
+        //Update user profile
+        user.getProfile().setUUID(profile.getUUID());
+        user.getProfile().setName(profile.getName());
+        //Texture properties are passed in login success on 1.19
+        user.getProfile().setTextureProperties(profile.getTextureProperties());
+
+        //Map username with channel
+        synchronized (channel) {
+            ProtocolManager.CHANNELS.put(profile.getUUID(), channel);
         }
 
-        // The server sends registry info in login packet for 1.16 to 1.20.1
-        else if (event.getPacketType() == PacketType.Play.Server.JOIN_GAME) {
-            WrapperPlayServerJoinGame joinGame = new WrapperPlayServerJoinGame(event);
-            user.setEntityId(joinGame.getEntityId());
+        PacketEvents.getAPI().getLogManager().debug("Mapped player UUID with their channel.");
 
-            if (joinGame.getDimensionCodec() != null) { // 1.16 to 1.20.1
-                SynchronizedRegistriesHandler.handleLegacyRegistries(user, joinGame.getServerVersion().toClientVersion(),
-                        joinGame.getDimensionCodec());
-            }
+        // Switch the user's connection state to new state, but the variable event.getConnectionState() remains LOGIN
+        // We switch user state immediately to remain in sync with vanilla, allowing you to encode packets immediately
+        boolean proxy = PacketEvents.getAPI().getInjector().isProxy();
+        if (proxy ? event.getUser().getClientVersion().isNewerThanOrEquals(ClientVersion.V_1_20_2)
+                : event.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_20_2)) {
+            user.setEncoderState(ConnectionState.CONFIGURATION);
+        } else {
+            user.setConnectionState(ConnectionState.PLAY);
+        }
+    }
 
-            user.setDimensionType(joinGame.getDimensionType());
+    private void handleRegistryData(PacketSendEvent event) {
+        User user = event.getUser();
+        ClientVersion version = event.getServerVersion().toClientVersion();
+        // Most players receive exactly the same registries, skip decoding them if we've seen this packet before
+        byte[] payload = event.getLastUsedWrapper() == null ? ByteBufHelper.copyBytes(event.getByteBuf()) : null;
+        if (payload != null && SynchronizedRegistriesHandler.handleCachedPayload(user, version, payload)) {
+            return;
         }
+        WrapperConfigServerRegistryData packet = new WrapperConfigServerRegistryData(event);
 
-        // Respawn is used to switch dimensions
-        else if (event.getPacketType() == PacketType.Play.Server.RESPAWN) {
-            WrapperPlayServerRespawn packet = new WrapperPlayServerRespawn(event);
-            user.setDimensionType(packet.getDimensionType());
-        } else if (event.getPacketType() == PacketType.Play.Server.CONFIGURATION_START) {
-            user.setEncoderState(ConnectionState.CONFIGURATION);
-        } else if (event.getPacketType() == PacketType.Configuration.Server.CONFIGURATION_END) {
-            user.setEncoderState(ConnectionState.PLAY);
+        if (packet.getElements() != null) { // since 1.20.5
+            SynchronizedRegistriesHandler.handleRegistryPayload(user, version, payload,
+                    packet.getRegistryKey(), packet.getElements());
+        }
+        if (packet.getRegistryData() != null) { // 1.20.2 to 1.20.5
+            SynchronizedRegistriesHandler.handleLegacyRegistryPayload(user, version, payload,
+                    packet.getRegistryData());
         }
     }
 
-    @Override
-    public void onPacketReceive(PacketReceiveEvent event) {
+    private void handleJoinGame(PacketSendEvent event) {
         User user = event.getUser();
-        if (event.getPacketType() == PacketType.Handshaking.Client.HANDSHAKE) {
-            WrapperHandshakingClientHandshake packet = new WrapperHandshakingClientHandshake(event);
-            ClientVersion clientVersion = packet.getClientVersion();
-            ConnectionState state = packet.getNextConnectionState();
-
-            LogManager logger = PacketEvents.getAPI().getLogManager();
-            if (logger.isDebug()) {
-                logger.debug("Processed handshake for " + event.getAddress() + ": "
-                        + state.name() + " / " + packet.getClientVersion().getReleaseName());
+        WrapperPlayServerJoinGame joinGame = new WrapperPlayServerJoinGame(event);
+        user.setEntityId(joinGame.getEntityId());
+
+        ClientVersion version = joinGame.getServerVersion().toClientVersion();
+        // Only available with lazy decoding, the codec is already decoded otherwise
+        byte[] encodedCodec = joinGame.getEncodedDimensionCodec();
+        if (encodedCodec != null) { // 1.16 to 1.20.1
+            if (!SynchronizedRegistriesHandler.handleCachedPayload(user, version, encodedCodec)) {
+                SynchronizedRegistriesHandler.handleLegacyRegistryPayload(user, version, encodedCodec,
+                        joinGame.getDimensionCodec());
             }
+        } else if (joinGame.getDimensionCodec() != null) { // 1.16 to 1.20.1
+            SynchronizedRegistriesHandler.handleLegacyRegistries(user, version, joinGame.getDimensionCodec());
+        }
 
-            user.setClientVersion(clientVersion);
-            user.setConnectionState(state);
-        } else if (event.getPacketType() == PacketType.Login.Client.LOGIN_SUCCESS_ACK) {
-            user.setDecoderState(ConnectionState.CONFIGURATION);
-        } else if (event.getPacketType() == PacketType.Play.Client.CONFIGURATION_ACK) {
-            user.setDecoderState(ConnectionState.CONFIGURATION);
-        } else if (event.getPacketType() == PacketType.Configuration.Client.CONFIGURATION_END_ACK) {
-            user.setDecoderState(ConnectionState.PLAY);
+        user.setDimensionType(joinGame.getDimensionType());
+    }
+
+    private void handleRespawn(PacketSendEvent event) {
+        WrapperPlayServerRespawn packet = new WrapperPlayServerRespawn(event);
+        event.getUser().setDimensionType(packet.getDimensionType());
+    }
+
+    private void handleHandshake(PacketReceiveEvent event) {
+        User user = event.getUser();
+        WrapperHandshakingClientHandshake packet = new WrapperHandshakingClientHandshake(event);
+        ClientVersion clientVersion = packet.getClientVersion();
+        ConnectionState state = packet.getNextConnectionState();
+
+        LogManager logger = PacketEvents.getAPI().getLogManager();
+        if (logger.isDebug()) {
+            logger.debug("Processed handshake for " + event.getAddress() + ": "
+                    + state.name() + " / " + packet.getClientVersion().getReleaseName());
         }
+
+        user.setClientVersion(clientVersion);
+        user.setConnectionState(state);
     }
 }
@@ -25,6 +25,10 @@ import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public interface PlayerManager {
     int getPing(@NotNull Object player);
 
@@ -69,6 +73,31 @@ public interface PlayerManager {
         PacketEvents.getAPI().getProtocolManager().writePacketSilently(getChannel(player), wrapper);
     }
 
+    /**
+     * Send the same packet to multiple players, see {@link com.github.retrooper.packetevents.manager.protocol.ProtocolManager#broadcastPacket(Collection, PacketWrapper)}.
+     *
+     * @param players The players to send the packet to
+     * @param wrapper The packet
+     */
+    default void broadcastPacket(@NotNull Collection<?> players, @NotNull PacketWrapper<?> wrapper) {
+        PacketEvents.getAPI().getProtocolManager().broadcastPacket(getChannels(players), wrapper);
+    }
+
+    default void broadcastPacketSilently(@NotNull Collection<?> players, @NotNull PacketWrapper<?> wrapper) {
+        PacketEvents.getAPI().getProtocolManager().broadcastPacketSilently(getChannels(players), wrapper);
+    }
+
+    default List<Object> getChannels(@NotNull Collection<?> players) {
+        List<Object> channels = new ArrayList<>(players.size());
+        for (Object player : players) {
+            Object channel = getChannel(player);
+            if (channel != null) {
+                channels.add(channel);
+            }
+        }
+        return channels;
+    }
+
     default void receivePacket(Object player, Object byteBuf) {
         PacketEvents.getAPI().getProtocolManager().receivePacket(getChannel(player), byteBuf);
     }
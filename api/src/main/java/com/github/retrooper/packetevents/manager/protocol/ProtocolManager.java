@@ -23,6 +23,8 @@ import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.ProtocolVersion;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.EncodedPacketCache;
+import com.github.retrooper.packetevents.util.PacketBroadcastUtil;
 import com.github.retrooper.packetevents.util.PacketTransformationUtil;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.ApiStatus;
@@ -31,11 +33,14 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public interface ProtocolManager {
     Map<UUID, Object> CHANNELS = new ConcurrentHashMap<>();
     // Use SocketAddress because ProtocolLib wraps Channels with NettyChannelProxy class
     Map<Object, User> USERS = new ConcurrentHashMap<>();
+    @ApiStatus.Internal
+    EncodedPacketCache ENCODED_PACKETS = new EncodedPacketCache(EncodedPacketCache.DEFAULT_MAX_ENTRIES);
 
     default Collection<User> getUsers() {
         return USERS.values();
@@ -135,6 +140,68 @@ public interface ProtocolManager {
         writePacketsSilently(channel, transformed);
     }
 
+    /**
+     * Send the same packet to multiple channels.
+     * The wrapper is only serialized once per distinct protocol of the recipients and
+     * every channel is flushed once after all packets have been written.
+     * The wrapper's content must not depend on the recipient.
+     *
+     * @param channels The channels to send the packet to
+     * @param wrapper  The packet
+     */
+    default void broadcastPacket(Collection<?> channels, PacketWrapper<?> wrapper) {
+        PacketBroadcastUtil.broadcast(this, channels, wrapper, false);
+    }
+
+    /**
+     * Send the same packet to multiple channels, without our packet listeners processing it.
+     * The serialized packet is shared between all recipients of the same protocol.
+     *
+     * @param channels The channels to send the packet to
+     * @param wrapper  The packet
+     * @see #broadcastPacket(Collection, PacketWrapper)
+     */
+    default void broadcastPacketSilently(Collection<?> channels, PacketWrapper<?> wrapper) {
+        PacketBroadcastUtil.broadcast(this, channels, wrapper, true);
+    }
+
+    /**
+     * Send a packet which is resent often with the same content, like a static scoreboard or NPC spawn data.
+     * The packet is only serialized once per distinct protocol and kept until it is evicted or invalidated.
+     * The key has to identify the content of the packet, so two packets with equal keys must be identical
+     * and must not depend on the recipient.
+     *
+     * @param channel The channel to send the packet to
+     * @param key     Identifies the content of the packet
+     * @param wrapper Creates the packet, only called if it isn't cached yet
+     * @see #invalidateCachedPacket(Object)
+     */
+    default void sendCachedPacket(Object channel, Object key, Supplier<? extends PacketWrapper<?>> wrapper) {
+        ENCODED_PACKETS.send(this, channel, key, wrapper, false);
+    }
+
+    /**
+     * Send a cached packet without our packet listeners processing it.
+     * The serialized packet is shared, not copied.
+     *
+     * @param channel The channel to send the packet to
+     * @param key     Identifies the content of the packet
+     * @param wrapper Creates the packet, only called if it isn't cached yet
+     * @see #sendCachedPacket(Object, Object, Supplier)
+     */
+    default void sendCachedPacketSilently(Object channel, Object key, Supplier<? extends PacketWrapper<?>> wrapper) {
+        ENCODED_PACKETS.send(this, channel, key, wrapper, true);
+    }
+
+    /**
+     * Drops all serialized versions of a cached packet, has to be called once its content changes.
+     *
+     * @param key Identifies the content of the packet
+     */
+    default void invalidateCachedPacket(Object key) {
+        ENCODED_PACKETS.invalidate(key);
+    }
+
     default void receivePacket(Object channel, PacketWrapper<?> wrapper) {
         Object[] transformed = transformWrappers(wrapper, channel, false);
         receivePackets(channel, transformed);
@@ -146,11 +213,17 @@ public interface ProtocolManager {
     }
 
     default User getUser(Object channel) {
+        // Fast path, the user is usually attached to the channel itself
+        User user = ChannelHelper.getAttachedUser(channel);
+        if (user != null) {
+            return user;
+        }
         Object pipeline = ChannelHelper.getPipeline(channel);
         return USERS.get(pipeline);
     }
 
     default User removeUser(Object channel) {
+        ChannelHelper.attachUser(channel, null);
         Object pipeline = ChannelHelper.getPipeline(channel);
         return USERS.remove(pipeline);
     }
@@ -159,6 +232,7 @@ public interface ProtocolManager {
         synchronized (channel) {
             Object pipeline = ChannelHelper.getPipeline(channel);
             USERS.put(pipeline, user);
+            ChannelHelper.attachUser(channel, user);
         }
         PacketEvents.getAPI().getInjector().updateUser(channel, user);
     }
@@ -19,6 +19,8 @@
 package com.github.retrooper.packetevents.netty.channel;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.protocol.player.User;
 
 import java.net.SocketAddress;
 import java.util.Arrays;
@@ -100,4 +102,25 @@ public class ChannelHelper {
     public static void runInEventLoop(Object channel, Runnable runnable) {
         PacketEvents.getAPI().getNettyManager().getChannelOperator().runInEventLoop(channel, runnable);
     }
+
+    public static User getAttachedUser(Object channel) {
+        return PacketEvents.getAPI().getNettyManager().getChannelOperator().getAttachedUser(channel);
+    }
+
+    public static void attachUser(Object channel, User user) {
+        PacketEvents.getAPI().getNettyManager().getChannelOperator().attachUser(channel, user);
+    }
+
+    /**
+     * Detaches the users of all connections from their channels,
+     * as channels outliving this instance would keep its classes loaded.
+     */
+    public static void detachUsers() {
+        for (User user : ProtocolManager.USERS.values()) {
+            Object channel = user.getChannel();
+            if (channel != null) {
+                attachUser(channel, null);
+            }
+        }
+    }
 }
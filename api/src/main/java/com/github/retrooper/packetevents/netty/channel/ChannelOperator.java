@@ -18,6 +18,9 @@
 
 package com.github.retrooper.packetevents.netty.channel;
 
+import com.github.retrooper.packetevents.protocol.player.User;
+import org.jetbrains.annotations.Nullable;
+
 import java.net.SocketAddress;
 import java.util.List;
 
@@ -57,4 +60,20 @@ public interface ChannelOperator {
     void runInEventLoop(Object channel, Runnable runnable);
 
     Object pooledByteBuf(Object channel);
+
+    /**
+     * Reads the user stored directly on the channel.
+     *
+     * @return the attached user, or null if none is attached or the platform can't store one on the channel
+     */
+    default @Nullable User getAttachedUser(Object channel) {
+        return null;
+    }
+
+    /**
+     * Stores the user directly on the channel, so it can be resolved without a map lookup.
+     * Passing null detaches the current user.
+     */
+    default void attachUser(Object channel, @Nullable User user) {
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.component;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Compact map of component patches, backed by two parallel arrays.
+ * <p>
+ * Items rarely patch more than a handful of components, so a linear scan over the component types
+ * is faster than hashing and no entry object is kept per patch.
+ * Iteration follows insertion order, just like the patches are read from the wire.
+ */
+public class ComponentPatchMap extends AbstractMap<ComponentType<?>, Optional<?>> {
+
+    private static final ComponentType<?>[] EMPTY_TYPES = new ComponentType<?>[0];
+    private static final Optional<?>[] EMPTY_VALUES = new Optional<?>[0];
+
+    private ComponentType<?>[] types;
+    private Optional<?>[] values;
+    private int size;
+
+    public ComponentPatchMap() {
+        this(0);
+    }
+
+    public ComponentPatchMap(int expectedSize) {
+        this.types = expectedSize == 0 ? EMPTY_TYPES : new ComponentType<?>[expectedSize];
+        this.values = expectedSize == 0 ? EMPTY_VALUES : new Optional<?>[expectedSize];
+    }
+
+    public ComponentPatchMap(Map<ComponentType<?>, Optional<?>> patches) {
+        this(patches.size());
+        this.putAll(patches);
+    }
+
+    private int indexOf(Object type) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.types[i] == type) {
+                return i;
+            }
+        }
+        // Component types are singletons, only fall back to equals if someone created their own
+        for (int i = 0; i < this.size; i++) {
+            if (this.types[i].equals(type)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.indexOf(key) != -1;
+    }
+
+    @Override
+    public Optional<?> get(Object key) {
+        int index = this.indexOf(key);
+        return index == -1 ? null : this.values[index];
+    }
+
+    @Override
+    public Optional<?> put(ComponentType<?> key, Optional<?> value) {
+        int index = this.indexOf(key);
+        if (index != -1) {
+            Optional<?> previous = this.values[index];
+            this.values[index] = value;
+            return previous;
+        }
+        if (this.size == this.types.length) {
+            int capacity = Math.max(4, this.size * 2);
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+        this.types[this.size] = key;
+        this.values[this.size] = value;
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public Optional<?> remove(Object key) {
+        int index = this.indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+        Optional<?> previous = this.values[index];
+        this.removeAt(index);
+        return previous;
+    }
+
+    private void removeAt(int index) {
+        int moved = this.size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(this.types, index + 1, this.types, index, moved);
+            System.arraycopy(this.values, index + 1, this.values, index, moved);
+        }
+        this.size--;
+        this.types[this.size] = null;
+        this.values[this.size] = null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.types, 0, this.size, null);
+        Arrays.fill(this.values, 0, this.size, null);
+        this.size = 0;
+    }
+
+    @Override
+    public Set<Entry<ComponentType<?>, Optional<?>>> entrySet() {
+        return new AbstractSet<Entry<ComponentType<?>, Optional<?>>>() {
+            @Override
+            public Iterator<Entry<ComponentType<?>, Optional<?>>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return ComponentPatchMap.this.size;
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<ComponentType<?>, Optional<?>>> {
+
+        private int next;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < ComponentPatchMap.this.size;
+        }
+
+        @Override
+        public Entry<ComponentType<?>, Optional<?>> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next++;
+            return new PatchEntry(this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+            ComponentPatchMap.this.removeAt(this.last);
+            this.next = this.last;
+            this.last = -1;
+        }
+    }
+
+    private final class PatchEntry extends SimpleEntry<ComponentType<?>, Optional<?>> {
+
+        private final int index;
+
+        private PatchEntry(int index) {
+            super(ComponentPatchMap.this.types[index], ComponentPatchMap.this.values[index]);
+            this.index = index;
+        }
+
+        @Override
+        public Optional<?> setValue(Optional<?> value) {
+            ComponentPatchMap.this.values[this.index] = value;
+            return super.setValue(value);
+        }
+    }
+}
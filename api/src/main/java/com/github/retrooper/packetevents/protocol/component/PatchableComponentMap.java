@@ -35,25 +35,34 @@ public class PatchableComponentMap implements IComponentMap {
     private final Map<ComponentType<?>, Optional<?>> patches;
 
     public PatchableComponentMap(StaticComponentMap base) {
-        this(base.getDelegate(), new HashMap<>());
+        this(base, new ComponentPatchMap());
     }
 
     public PatchableComponentMap(Map<ComponentType<?>, ?> base) {
-        this(base, new HashMap<>());
+        this(base, new ComponentPatchMap());
     }
 
     public PatchableComponentMap(
             StaticComponentMap base,
             Map<ComponentType<?>, Optional<?>> patches
     ) {
-        this(base.getDelegate(), patches);
+        // the delegate of a static map is immutable already, so it can be shared
+        this(base.getDelegate(), patches, false);
     }
 
     public PatchableComponentMap(
             Map<ComponentType<?>, ?> base,
             Map<ComponentType<?>, Optional<?>> patches
     ) {
-        this.base = Collections.unmodifiableMap(new HashMap<>(base));
+        this(base, patches, true);
+    }
+
+    private PatchableComponentMap(
+            Map<ComponentType<?>, ?> base,
+            Map<ComponentType<?>, Optional<?>> patches,
+            boolean copyBase
+    ) {
+        this.base = copyBase ? Collections.unmodifiableMap(new HashMap<>(base)) : base;
         this.patches = patches;
     }
 
@@ -85,7 +94,7 @@ public class PatchableComponentMap implements IComponentMap {
     }
 
     public PatchableComponentMap copy() {
-        return new PatchableComponentMap(this.base, new HashMap<>(this.patches));
+        return new PatchableComponentMap(this.base, new ComponentPatchMap(this.patches), false);
     }
 
     public Map<ComponentType<?>, ?> getBase() {
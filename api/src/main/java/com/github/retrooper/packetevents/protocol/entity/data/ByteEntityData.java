@@ -0,0 +1,75 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.entity.data;
+
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Entity data of the {@link EntityDataTypes#BYTE} type, which stores its value without boxing it.
+ */
+public class ByteEntityData extends EntityData {
+    private byte byteValue;
+    // Set once a value of another type is assigned, which is then stored boxed like in EntityData
+    private boolean boxed;
+
+    public ByteEntityData(int index, byte value) {
+        super(index, EntityDataTypes.BYTE, null);
+        this.byteValue = value;
+    }
+
+    @Override
+    public Object getValue() {
+        return this.boxed ? super.getValue() : this.byteValue;
+    }
+
+    @Override
+    public void setValue(Object value) {
+        if (value instanceof Byte) {
+            this.setByteValue((Byte) value);
+        } else {
+            this.boxed = true;
+            super.setValue(value);
+        }
+    }
+
+    @Override
+    public byte getByteValue() {
+        return this.boxed ? super.getByteValue() : this.byteValue;
+    }
+
+    public void setByteValue(byte value) {
+        this.byteValue = value;
+        if (this.boxed) {
+            this.boxed = false;
+            super.setValue(null);
+        }
+    }
+
+    @ApiStatus.Internal
+    @Override
+    public void writeValue(PacketWrapper<?> wrapper) {
+        if (this.boxed || this.getType() != EntityDataTypes.BYTE) {
+            // The type or value has been changed, let the type handle the value
+            super.writeValue(wrapper);
+            return;
+        }
+        wrapper.writeByte(this.byteValue);
+    }
+}
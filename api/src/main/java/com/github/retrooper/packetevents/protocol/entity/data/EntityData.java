@@ -18,6 +18,10 @@
 
 package com.github.retrooper.packetevents.protocol.entity.data;
 
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
+
 public class EntityData {
     private int index;
     private EntityDataType<?> type;
@@ -52,4 +56,38 @@ public class EntityData {
     public void setValue(Object value) {
         this.value = value;
     }
+
+    public byte getByteValue() {
+        return ((Number) this.getValue()).byteValue();
+    }
+
+    public int getIntValue() {
+        return ((Number) this.getValue()).intValue();
+    }
+
+    public float getFloatValue() {
+        return ((Number) this.getValue()).floatValue();
+    }
+
+    @ApiStatus.Internal
+    public void writeValue(PacketWrapper<?> wrapper) {
+        this.type.getDataSerializer().accept(wrapper, this.getValue());
+    }
+
+    /**
+     * Reads the value of an entry.
+     * Values of the byte, int and float types are stored without boxing them.
+     */
+    @ApiStatus.Internal
+    public static EntityData read(int index, EntityDataType<?> type, PacketWrapper<?> wrapper) {
+        if (type == EntityDataTypes.BYTE) {
+            return new ByteEntityData(index, wrapper.readByte());
+        } else if (type == EntityDataTypes.INT) {
+            return new IntEntityData(index, wrapper.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_9)
+                    ? wrapper.readVarInt() : wrapper.readInt());
+        } else if (type == EntityDataTypes.FLOAT) {
+            return new FloatEntityData(index, wrapper.readFloat());
+        }
+        return new EntityData(index, type, type.getDataDeserializer().apply(wrapper));
+    }
 }
\ No newline at end of file
@@ -20,8 +20,10 @@ package com.github.retrooper.packetevents.protocol.entity.data;
 
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class EntityDataType<T> {
@@ -29,12 +31,19 @@ public class EntityDataType<T> {
     private final int[] ids;
     private final Function<PacketWrapper<?>, T> dataDeserializer;
     private final BiConsumer<PacketWrapper<?>, Object> dataSerializer;
+    private final @Nullable Consumer<PacketWrapper<?>> dataSkipper;
 
     public EntityDataType(String name, int[] ids, Function<PacketWrapper<?>, T> dataDeserializer, BiConsumer<PacketWrapper<?>, Object> dataSerializer) {
+        this(name, ids, dataDeserializer, dataSerializer, null);
+    }
+
+    public EntityDataType(String name, int[] ids, Function<PacketWrapper<?>, T> dataDeserializer,
+                          BiConsumer<PacketWrapper<?>, Object> dataSerializer, @Nullable Consumer<PacketWrapper<?>> dataSkipper) {
         this.name = name;
         this.ids = ids;
         this.dataDeserializer = dataDeserializer;
         this.dataSerializer = dataSerializer;
+        this.dataSkipper = dataSkipper;
     }
 
     public String getName() {
@@ -53,4 +62,18 @@ public class EntityDataType<T> {
     public BiConsumer<PacketWrapper<?>, Object> getDataSerializer() {
         return dataSerializer;
     }
+
+    /**
+     * Moves the reader index past a value of this type.
+     * Types without a dedicated skip routine are decoded and the result is discarded.
+     *
+     * @param wrapper The wrapper to read from
+     */
+    public void skip(PacketWrapper<?> wrapper) {
+        if (this.dataSkipper != null) {
+            this.dataSkipper.accept(wrapper);
+        } else {
+            this.dataDeserializer.apply(wrapper);
+        }
+    }
 }
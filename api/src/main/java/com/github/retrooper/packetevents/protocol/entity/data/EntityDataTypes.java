@@ -38,9 +38,11 @@ import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class EntityDataTypes {
@@ -53,9 +55,11 @@ public class EntityDataTypes {
     private static final Map<Byte, Map<Integer, EntityDataType<?>>> ENTITY_DATA_TYPE_ID_MAP = new HashMap<>();
     protected static final TypesBuilder TYPES_BUILDER = new TypesBuilder("entity/entity_data_type_mappings");
 
-    public static final EntityDataType<Byte> BYTE = define("byte", PacketWrapper::readByte, PacketWrapper::writeByte);
+    public static final EntityDataType<Byte> BYTE = define("byte", PacketWrapper::readByte, PacketWrapper::writeByte,
+            skipBytes(1));
 
-    public static final EntityDataType<Short> SHORT = define("short", PacketWrapper::readShort, PacketWrapper::writeShort);
+    public static final EntityDataType<Short> SHORT = define("short", PacketWrapper::readShort, PacketWrapper::writeShort,
+            skipBytes(2));
 
     public static final EntityDataType<Integer> INT = define("int", wrapper -> {
         if (wrapper.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_9)) {
@@ -69,21 +73,34 @@ public class EntityDataTypes {
         } else {
             wrapper.writeInt(value);
         }
+    }, wrapper -> {
+        if (wrapper.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            wrapper.readVarInt();
+        } else {
+            wrapper.skipBytes(4);
+        }
     });
 
-    public static final EntityDataType<Long> LONG = define("long", PacketWrapper::readVarLong, PacketWrapper::writeVarLong);
+    public static final EntityDataType<Long> LONG = define("long", PacketWrapper::readVarLong, PacketWrapper::writeVarLong,
+            PacketWrapper::readVarLong);
 
-    public static final EntityDataType<Float> FLOAT = define("float", PacketWrapper::readFloat, PacketWrapper::writeFloat);
+    public static final EntityDataType<Float> FLOAT = define("float", PacketWrapper::readFloat, PacketWrapper::writeFloat,
+            skipBytes(4));
 
-    public static final EntityDataType<String> STRING = define("string", PacketWrapper::readString, PacketWrapper::writeString);
+    public static final EntityDataType<String> STRING = define("string", PacketWrapper::readString, PacketWrapper::writeString,
+            PacketWrapper::skipString);
 
     @Deprecated
-    public static final EntityDataType<String> COMPONENT = define("component", PacketWrapper::readComponentJSON, PacketWrapper::writeComponentJSON);
-    public static final EntityDataType<Component> ADV_COMPONENT = define("component", PacketWrapper::readComponent, PacketWrapper::writeComponent);
+    public static final EntityDataType<String> COMPONENT = define("component", PacketWrapper::readComponentJSON, PacketWrapper::writeComponentJSON,
+            PacketWrapper::skipComponent);
+    public static final EntityDataType<Component> ADV_COMPONENT = define("component", PacketWrapper::readComponent, PacketWrapper::writeComponent,
+            PacketWrapper::skipComponent);
 
     @Deprecated
-    public static final EntityDataType<Optional<String>> OPTIONAL_COMPONENT = define("optional_component", readOptionalComponentJSONDeserializer(), writeOptionalComponentJSONSerializer());
-    public static final EntityDataType<Optional<Component>> OPTIONAL_ADV_COMPONENT = define("optional_component", readOptionalComponentDeserializer(), writeOptionalComponentSerializer());
+    public static final EntityDataType<Optional<String>> OPTIONAL_COMPONENT = define("optional_component", readOptionalComponentJSONDeserializer(), writeOptionalComponentJSONSerializer(),
+            skipOptionalComponent());
+    public static final EntityDataType<Optional<Component>> OPTIONAL_ADV_COMPONENT = define("optional_component", readOptionalComponentDeserializer(), writeOptionalComponentSerializer(),
+            skipOptionalComponent());
 
     public static final EntityDataType<ItemStack> ITEMSTACK = define("itemstack", PacketWrapper::readItemStack, PacketWrapper::writeItemStack);
 
@@ -91,7 +108,8 @@ public class EntityDataTypes {
             (PacketWrapper<?> wrapper) -> Optional.of(wrapper.readItemStack()),
             (PacketWrapper<?> wrapper, Optional<ItemStack> value) -> wrapper.writeItemStack(value.orElse(null)));
 
-    public static final EntityDataType<Boolean> BOOLEAN = define("boolean", PacketWrapper::readBoolean, PacketWrapper::writeBoolean);
+    public static final EntityDataType<Boolean> BOOLEAN = define("boolean", PacketWrapper::readBoolean, PacketWrapper::writeBoolean,
+            skipBytes(1));
 
     public static final EntityDataType<Vector3f> ROTATION = define("rotation",
             (PacketWrapper<?> wrapper) -> new Vector3f(wrapper.readFloat(), wrapper.readFloat(), wrapper.readFloat()),
@@ -99,7 +117,7 @@ public class EntityDataTypes {
                 wrapper.writeFloat(value.x);
                 wrapper.writeFloat(value.y);
                 wrapper.writeFloat(value.z);
-            });
+            }, skipBytes(12));
 
     public static final EntityDataType<Vector3i> BLOCK_POSITION = define("block_position", (PacketWrapper<?> wrapper) -> {
         if (wrapper.getServerVersion().isNewerThanOrEquals(ServerVersion.V_1_9)) {
@@ -135,9 +153,9 @@ public class EntityDataTypes {
                     wrapper.writeOptional(value.orElse(null), PacketWrapper::writeUUID));
 
     public static final EntityDataType<Integer> BLOCK_STATE = define("block_state",
-            readIntDeserializer(), writeIntSerializer());
+            readIntDeserializer(), writeIntSerializer(), skipInt());
 
-    public static final EntityDataType<Integer> OPTIONAL_BLOCK_STATE = define("optional_block_state", readIntDeserializer(), writeIntSerializer());
+    public static final EntityDataType<Integer> OPTIONAL_BLOCK_STATE = define("optional_block_state", readIntDeserializer(), writeIntSerializer(), skipInt());
 
     public static final EntityDataType<NBTCompound> NBT = define("nbt", PacketWrapper::readNBT, PacketWrapper::writeNBT);
 
@@ -157,9 +175,9 @@ public class EntityDataTypes {
         return EntityPose.getById(wrapper.getServerVersion().toClientVersion(), id);
     }, (PacketWrapper<?> wrapper, EntityPose value) -> wrapper.writeVarInt(value.getId(wrapper.getServerVersion().toClientVersion())));
 
-    public static final EntityDataType<Integer> CAT_VARIANT = define("cat_variant_type", readIntDeserializer(), writeIntSerializer());
+    public static final EntityDataType<Integer> CAT_VARIANT = define("cat_variant_type", readIntDeserializer(), writeIntSerializer(), skipInt());
 
-    public static final EntityDataType<Integer> FROG_VARIANT = define("frog_variant_type", readIntDeserializer(), writeIntSerializer());
+    public static final EntityDataType<Integer> FROG_VARIANT = define("frog_variant_type", readIntDeserializer(), writeIntSerializer(), skipInt());
 
     public static final EntityDataType<Optional<WorldBlockPosition>> OPTIONAL_GLOBAL_POSITION = define("optional_global_position",
             (PacketWrapper<?> wrapper) -> Optional.ofNullable(wrapper.readOptional(w -> new WorldBlockPosition(new ResourceLocation(w.readString(32767)), w.readBlockPosition()))),
@@ -168,7 +186,7 @@ public class EntityDataTypes {
                 w.writeBlockPosition(globalPos.getBlockPosition());
             }));
 
-    public static final EntityDataType<Integer> PAINTING_VARIANT_TYPE = define("painting_variant_type", readIntDeserializer(), writeIntSerializer());
+    public static final EntityDataType<Integer> PAINTING_VARIANT_TYPE = define("painting_variant_type", readIntDeserializer(), writeIntSerializer(), skipInt());
 
     public static final EntityDataType<SnifferState> SNIFFER_STATE = define("sniffer_state", (PacketWrapper<?> wrapper) -> {
         int id = wrapper.readVarInt();
@@ -181,7 +199,7 @@ public class EntityDataTypes {
                 wrapper.writeFloat(value.x);
                 wrapper.writeFloat(value.y);
                 wrapper.writeFloat(value.z);
-            });
+            }, skipBytes(12));
 
     public static final EntityDataType<Quaternion4f> QUATERNION = define("quaternion",
             (PacketWrapper<?> wrapper) -> new Quaternion4f(wrapper.readFloat(), wrapper.readFloat(), wrapper.readFloat(), wrapper.readFloat()),
@@ -190,7 +208,7 @@ public class EntityDataTypes {
                 wrapper.writeFloat(value.getY());
                 wrapper.writeFloat(value.getZ());
                 wrapper.writeFloat(value.getW());
-            });
+            }, skipBytes(16));
 
     // Added in 1.20.5
     public static final EntityDataType<ArmadilloState> ARMADILLO_STATE = define("armadillo_state",
@@ -204,7 +222,7 @@ public class EntityDataTypes {
     );
 
     public static final EntityDataType<Integer> WOLF_VARIANT =
-            define("wolf_variant_type", readIntDeserializer(), writeIntSerializer());
+            define("wolf_variant_type", readIntDeserializer(), writeIntSerializer(), skipInt());
 
     /**
      * Returns an immutable view of the entity-data types.
@@ -225,9 +243,14 @@ public class EntityDataTypes {
     }
 
     public static <T> EntityDataType<T> define(String name, Function<PacketWrapper<?>, T> deserializer, BiConsumer<PacketWrapper<?>, T> serializer) {
+        return define(name, deserializer, serializer, null);
+    }
+
+    public static <T> EntityDataType<T> define(String name, Function<PacketWrapper<?>, T> deserializer, BiConsumer<PacketWrapper<?>, T> serializer,
+                                               @Nullable Consumer<PacketWrapper<?>> skipper) {
         TypesBuilderData data = TYPES_BUILDER.define(name);
         EntityDataType<T> type = new EntityDataType<>(name, data.getData(), deserializer,
-                (BiConsumer<PacketWrapper<?>, Object>) serializer);
+                (BiConsumer<PacketWrapper<?>, Object>) serializer, skipper);
         ENTITY_DATA_TYPE_MAP.put(type.getName(), type);
         for (ClientVersion version : TYPES_BUILDER.getVersions()) {
             int index = TYPES_BUILDER.getDataIndex(version);
@@ -239,6 +262,26 @@ public class EntityDataTypes {
         return type;
     }
 
+    private static Consumer<PacketWrapper<?>> skipBytes(int length) {
+        return wrapper -> wrapper.skipBytes(length);
+    }
+
+    private static Consumer<PacketWrapper<?>> skipInt() {
+        if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            return PacketWrapper::readVarInt;
+        } else {
+            return skipBytes(4);
+        }
+    }
+
+    private static Consumer<PacketWrapper<?>> skipOptionalComponent() {
+        return wrapper -> {
+            if (wrapper.readBoolean()) {
+                wrapper.skipComponent();
+            }
+        };
+    }
+
     private static <T> Function<PacketWrapper<?>, T> readIntDeserializer() {
         if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_9)) {
             return (PacketWrapper<?> wrapper) -> (T) ((Object) wrapper.readVarInt());
@@ -18,6 +18,7 @@
 
 package com.github.retrooper.packetevents.protocol.item;
 
+import com.github.retrooper.packetevents.protocol.component.ComponentPatchMap;
 import com.github.retrooper.packetevents.protocol.component.ComponentType;
 import com.github.retrooper.packetevents.protocol.component.ComponentTypes;
 import com.github.retrooper.packetevents.protocol.component.PatchableComponentMap;
@@ -41,11 +42,14 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.github.retrooper.packetevents.protocol.component.ComponentTypes.DAMAGE;
 import static com.github.retrooper.packetevents.protocol.component.ComponentTypes.ENCHANTMENTS;
@@ -55,6 +59,9 @@ import static com.github.retrooper.packetevents.protocol.component.ComponentType
 
 public class ItemStack {
     public static final ItemStack EMPTY = new ItemStack(ItemTypes.AIR, 0, new NBTCompound(), 0);
+    // Vanilla doesn't allow stacks bigger than this
+    private static final int MAX_INTERNED_AMOUNT = 99;
+    private static final Map<ItemType, AtomicReferenceArray<ItemStack>> INTERNED = new ConcurrentHashMap<>();
     private final ItemType type;
     private int amount;
     @Nullable
@@ -64,6 +71,7 @@ public class ItemStack {
     private int legacyData = -1;
 
     private boolean cachedIsEmpty = false;
+    private boolean interned = false;
 
     private ItemStack(ItemType type, int amount, @Nullable NBTCompound nbt, int legacyData) {
         this(type, amount, nbt, null, legacyData);
@@ -84,6 +92,49 @@ public class ItemStack {
         updateCachedEmptyStatus();
     }
 
+    /**
+     * Returns a shared item stack without any component patches or nbt.
+     * Shared item stacks are immutable, modifying them throws an {@link UnsupportedOperationException}.
+     * Use {@link #copy()} to get a modifiable item stack.
+     *
+     * @param type   the item type
+     * @param amount the amount
+     * @return the shared item stack, or a new one if the amount is out of the vanilla bounds
+     */
+    public static ItemStack interned(ItemType type, int amount) {
+        if (amount <= 0 || type == ItemTypes.AIR) {
+            return EMPTY;
+        }
+        if (amount > MAX_INTERNED_AMOUNT) {
+            return builder().type(type).amount(amount).build();
+        }
+        AtomicReferenceArray<ItemStack> stacks = INTERNED.computeIfAbsent(type,
+                key -> new AtomicReferenceArray<>(MAX_INTERNED_AMOUNT + 1));
+        ItemStack stack = stacks.get(amount);
+        if (stack == null) {
+            stack = new ItemStack(type, amount, null, null, -1);
+            stack.interned = true;
+            if (!stacks.compareAndSet(amount, null, stack)) {
+                stack = stacks.get(amount);
+            }
+        }
+        return stack;
+    }
+
+    /**
+     * @return true if this item stack is shared and can't be modified
+     * @see #interned(ItemType, int)
+     */
+    public boolean isInterned() {
+        return this.interned;
+    }
+
+    private void checkMutable() {
+        if (this.interned) {
+            throw new UnsupportedOperationException("Interned item stacks can't be modified, copy them first");
+        }
+    }
+
     public static ItemStack decode(NBT nbt, ClientVersion version) {
         if (nbt instanceof NBTString) {
             ResourceLocation itemName = new ResourceLocation(((NBTString) nbt).getValue());
@@ -178,6 +229,7 @@ public class ItemStack {
 
     public NBTCompound getOrCreateTag() {
         if (this.nbt == null) {
+            this.checkMutable();
             this.nbt = new NBTCompound();
         }
 
@@ -205,6 +257,7 @@ public class ItemStack {
     }
 
     public void setAmount(int amount) {
+        this.checkMutable();
         this.amount = amount;
         updateCachedEmptyStatus();
     }
@@ -232,6 +285,7 @@ public class ItemStack {
     }
 
     public void setNBT(NBTCompound nbt) {
+        this.checkMutable();
         this.nbt = nbt;
     }
 
@@ -250,14 +304,17 @@ public class ItemStack {
     }
 
     public <T> void setComponent(ComponentType<T> type, T value) {
+        this.checkMutable();
         this.getComponents().set(type, value);
     }
 
     public <T> void unsetComponent(ComponentType<T> type) {
+        this.checkMutable();
         this.getComponents().unset(type);
     }
 
     public <T> void setComponent(ComponentType<T> type, Optional<T> value) {
+        this.checkMutable();
         this.getComponents().set(type, value);
     }
 
@@ -273,9 +330,13 @@ public class ItemStack {
     }
 
     public PatchableComponentMap getComponents() {
+        if (this.interned) {
+            // without any patches, which can't be added either
+            return new PatchableComponentMap(this.type.getComponents(), Collections.emptyMap());
+        }
         if (this.components == null) { // lazy load on access
             this.components = new PatchableComponentMap(
-                    this.type.getComponents(), new HashMap<>(4));
+                    this.type.getComponents(), new ComponentPatchMap(4));
         }
         return this.components;
     }
@@ -284,6 +345,7 @@ public class ItemStack {
      * @param components if set null will reset to components of {@link ItemType}
      */
     public void setComponents(@Nullable PatchableComponentMap components) {
+        this.checkMutable();
         this.components = components;
     }
 
@@ -292,6 +354,7 @@ public class ItemStack {
     }
 
     public void setLegacyData(int legacyData) {
+        this.checkMutable();
         this.legacyData = legacyData;
     }
 
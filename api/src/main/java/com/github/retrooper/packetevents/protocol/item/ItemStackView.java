@@ -0,0 +1,181 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.item;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.component.ComponentType;
+import com.github.retrooper.packetevents.protocol.component.ComponentTypes;
+import com.github.retrooper.packetevents.protocol.item.type.ItemType;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.util.mappings.IRegistryHolder;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable view of an item stack, which only knows its type and amount.
+ * <p>
+ * Views read from a packet keep the item exactly as it was encoded, without decoding its nbt or components.
+ * The full item stack is only decoded once {@link #decode()} is called,
+ * and views are written back byte-for-byte to packets of the same version.
+ * Components aren't length-prefixed, so they still have to be parsed on 1.20.5+ to find the end of the item,
+ * but their values are discarded right away.
+ */
+public final class ItemStackView {
+
+    public static final ItemStackView EMPTY = new ItemStackView(ItemStack.EMPTY);
+
+    private final ItemType type;
+    private final int amount;
+    // Set if this view was created from an item stack instead of being read
+    private final @Nullable ItemStack itemStack;
+    private final byte @Nullable [] encoded;
+    private final @Nullable ServerVersion version;
+    // Registries synchronized with the connection the item was read from, which ids may refer to
+    private final @Nullable IRegistryHolder registryHolder;
+
+    private ItemStackView(ItemStack itemStack) {
+        this.type = itemStack.getType();
+        this.amount = itemStack.getAmount();
+        this.itemStack = itemStack;
+        this.encoded = null;
+        this.version = null;
+        this.registryHolder = null;
+    }
+
+    private ItemStackView(ItemType type, int amount, byte[] encoded, ServerVersion version,
+                          IRegistryHolder registryHolder) {
+        this.type = type;
+        this.amount = amount;
+        this.itemStack = null;
+        this.encoded = encoded;
+        this.version = version;
+        this.registryHolder = registryHolder;
+    }
+
+    public static ItemStackView of(ItemStack itemStack) {
+        return itemStack.isEmpty() ? EMPTY : new ItemStackView(itemStack);
+    }
+
+    public static ItemStackView read(PacketWrapper<?> wrapper) {
+        int start = ByteBufHelper.readerIndex(wrapper.buffer);
+        ServerVersion version = wrapper.getServerVersion();
+        ItemType type;
+        int amount;
+        if (version.isNewerThanOrEquals(ServerVersion.V_1_20_5)) {
+            amount = wrapper.readVarInt();
+            if (amount <= 0) {
+                return EMPTY;
+            }
+            type = wrapper.readMappedEntity(ItemTypes.getRegistry());
+            int presentCount = wrapper.readVarInt();
+            int absentCount = wrapper.readVarInt();
+            for (int i = 0; i < presentCount; i++) {
+                ComponentType<?> componentType = wrapper.readMappedEntity(ComponentTypes.getRegistry());
+                componentType.read(wrapper);
+            }
+            for (int i = 0; i < absentCount; i++) {
+                wrapper.readVarInt();
+            }
+        } else {
+            boolean v1_13_2 = version.isNewerThanOrEquals(ServerVersion.V_1_13_2);
+            if (v1_13_2 && !wrapper.readBoolean()) {
+                return EMPTY;
+            }
+            int typeId = v1_13_2 ? wrapper.readVarInt() : wrapper.readShort();
+            if (typeId < 0 && !v1_13_2) {
+                return EMPTY;
+            }
+            type = ItemTypes.getById(version.toClientVersion(), typeId);
+            amount = wrapper.readByte();
+            if (!v1_13_2) {
+                wrapper.readShort(); // Legacy data
+            }
+            wrapper.skipNBT();
+        }
+        byte[] encoded = new byte[ByteBufHelper.readerIndex(wrapper.buffer) - start];
+        ByteBufHelper.getBytes(wrapper.buffer, start, encoded);
+        return new ItemStackView(type, amount, encoded, version, wrapper.getRegistryHolder());
+    }
+
+    public static void write(PacketWrapper<?> wrapper, ItemStackView view) {
+        // The encoding of items changes between versions
+        if (view.encoded != null && view.version == wrapper.getServerVersion()) {
+            wrapper.writeBytes(view.encoded);
+        } else {
+            wrapper.writeItemStack(view.decode());
+        }
+    }
+
+    /**
+     * Decodes the full item stack. Every call returns a new item stack,
+     * modifying it doesn't affect this view.
+     */
+    public ItemStack decode() {
+        if (this.itemStack != null) {
+            return this.itemStack.copy();
+        }
+        return new DecodingWrapper(this).readItemStack();
+    }
+
+    public ItemType getType() {
+        return this.type;
+    }
+
+    public int getAmount() {
+        return this.amount;
+    }
+
+    public boolean isEmpty() {
+        return this.amount <= 0 || this.type == ItemTypes.AIR;
+    }
+
+    /**
+     * @return false if this view has to be encoded again when it's written
+     */
+    public boolean isEncoded() {
+        return this.encoded != null;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemStackView[type=" + this.type.getName() + ", amount=" + this.amount + "]";
+    }
+
+    /**
+     * Reads the item with the registries of the wrapper it was read from.
+     */
+    private static final class DecodingWrapper extends PacketWrapper<DecodingWrapper> {
+
+        private final IRegistryHolder registryHolder;
+
+        private DecodingWrapper(ItemStackView view) {
+            super(ClientVersion.UNKNOWN, view.version, -2);
+            this.buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(view.encoded);
+            this.registryHolder = view.registryHolder;
+        }
+
+        @Override
+        public IRegistryHolder getRegistryHolder() {
+            return this.registryHolder;
+        }
+    }
+}
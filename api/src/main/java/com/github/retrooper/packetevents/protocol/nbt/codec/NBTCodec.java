@@ -22,6 +22,7 @@ import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
 import com.github.retrooper.packetevents.protocol.nbt.*;
 import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
 import com.google.gson.*;
@@ -183,6 +184,10 @@ public class NBTCodec {
         return null;
     }
 
+    public static NBT readNBTFromBytes(byte[] bytes, ServerVersion serverVersion) {
+        return readNBTFromBuffer(UnpooledByteBufAllocationHelper.wrappedBuffer(bytes), serverVersion);
+    }
+
     public static void writeNBTToBuffer(Object byteBuf, ServerVersion serverVersion, NBTCompound tag) {
         writeNBTToBuffer(byteBuf, serverVersion, (NBT) tag);
     }
@@ -0,0 +1,507 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Reads binary nbt directly from a buffer, without building the whole tag tree.
+ * Tags which aren't needed are skipped by moving the reader index of the buffer,
+ * only the tags which are actually requested get decoded.
+ */
+public final class ByteBufNBTReader {
+
+    // Type ids as they appear on the wire, see DefaultNBTSerializer
+    private static final int END = 0;
+    private static final int BYTE = 1;
+    private static final int SHORT = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int FLOAT = 5;
+    private static final int DOUBLE = 6;
+    private static final int BYTE_ARRAY = 7;
+    private static final int STRING = 8;
+    private static final int LIST = 9;
+    private static final int COMPOUND = 10;
+    private static final int INT_ARRAY = 11;
+    private static final int LONG_ARRAY = 12;
+
+    private ByteBufNBTReader() {
+    }
+
+    /**
+     * Skips a whole tag, including its type and name.
+     *
+     * @return the amount of bytes the tag took up
+     */
+    public static int skipTag(NBTLimiter limiter, Object buffer, boolean named) {
+        int start = ByteBufHelper.readerIndex(buffer);
+        int id = ByteBufHelper.readUnsignedByte(buffer);
+        if (id != END) {
+            if (named) {
+                skipName(buffer);
+            }
+            skipPayload(limiter, buffer, id);
+        }
+        return ByteBufHelper.readerIndex(buffer) - start;
+    }
+
+    /**
+     * Copies a whole tag, including its type and name, without decoding it.
+     */
+    public static byte[] readTagBytes(NBTLimiter limiter, Object buffer, boolean named) {
+        int start = ByteBufHelper.readerIndex(buffer);
+        byte[] bytes = new byte[skipTag(limiter, buffer, named)];
+        ByteBufHelper.getBytes(buffer, start, bytes);
+        return bytes;
+    }
+
+    /**
+     * Looks up a single entry of a compound tag.
+     * Only the requested entry is decoded, everything else is skipped.
+     * The reader index is left after the end of the compound.
+     *
+     * @return the entry or null if it doesn't exist or the tag isn't a compound
+     */
+    public static @Nullable NBT readTag(NBTLimiter limiter, Object buffer, boolean named, String key) {
+        int id = ByteBufHelper.readUnsignedByte(buffer);
+        if (id == END) {
+            return null;
+        }
+        if (named) {
+            skipName(buffer);
+        }
+        if (id != COMPOUND) {
+            skipPayload(limiter, buffer, id);
+            return null;
+        }
+
+        Compound compound = new Compound(limiter, buffer);
+        NBT found = null;
+        while (compound.next()) {
+            if (found == null && compound.isName(key)) {
+                found = compound.read();
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Starts reading a tag of any type, positioned at its value.
+     */
+    public static Cursor openTag(NBTLimiter limiter, Object buffer, boolean named) {
+        int id = ByteBufHelper.readUnsignedByte(buffer);
+        if (id != END && named) {
+            skipName(buffer);
+        }
+        return new Root(limiter, buffer, id);
+    }
+
+    /**
+     * Starts reading a compound tag entry by entry.
+     *
+     * @throws IllegalStateException if the tag isn't a compound
+     */
+    public static Compound readCompound(NBTLimiter limiter, Object buffer, boolean named) {
+        int id = ByteBufHelper.readUnsignedByte(buffer);
+        if (id != COMPOUND) {
+            throw new IllegalStateException("Expected compound tag, got type id " + id);
+        }
+        if (named) {
+            skipName(buffer);
+        }
+        return new Compound(limiter, buffer);
+    }
+
+    private static void skipName(Object buffer) {
+        ByteBufHelper.skipBytes(buffer, ByteBufHelper.readUnsignedShort(buffer));
+    }
+
+    private static void skipPayload(NBTLimiter limiter, Object buffer, int id) {
+        switch (id) {
+            case BYTE:
+                limiter.increment(9);
+                ByteBufHelper.skipBytes(buffer, Byte.BYTES);
+                break;
+            case SHORT:
+                limiter.increment(10);
+                ByteBufHelper.skipBytes(buffer, Short.BYTES);
+                break;
+            case INT:
+                limiter.increment(12);
+                ByteBufHelper.skipBytes(buffer, Integer.BYTES);
+                break;
+            case LONG:
+                limiter.increment(16);
+                ByteBufHelper.skipBytes(buffer, Long.BYTES);
+                break;
+            case FLOAT:
+                limiter.increment(12);
+                ByteBufHelper.skipBytes(buffer, Float.BYTES);
+                break;
+            case DOUBLE:
+                limiter.increment(16);
+                ByteBufHelper.skipBytes(buffer, Double.BYTES);
+                break;
+            case BYTE_ARRAY:
+                skipArray(limiter, buffer, Byte.BYTES);
+                break;
+            case STRING: {
+                limiter.increment(36);
+                int length = ByteBufHelper.readUnsignedShort(buffer);
+                limiter.increment(length * 2);
+                ByteBufHelper.skipBytes(buffer, length);
+                break;
+            }
+            case LIST: {
+                limiter.increment(37);
+                int elementId = ByteBufHelper.readUnsignedByte(buffer);
+                int length = ByteBufHelper.readInt(buffer);
+                limiter.increment(byteCount(length, 4));
+                int elementSize = fixedSize(elementId);
+                if (elementSize > 0) {
+                    // Fixed size elements can be skipped all at once
+                    int bytes = byteCount(length, elementSize);
+                    limiter.checkReadability(bytes);
+                    ByteBufHelper.skipBytes(buffer, bytes);
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        skipPayload(limiter, buffer, elementId);
+                    }
+                }
+                break;
+            }
+            case COMPOUND: {
+                limiter.increment(48);
+                int entryId;
+                while ((entryId = ByteBufHelper.readUnsignedByte(buffer)) != END) {
+                    skipName(buffer);
+                    limiter.increment(36);
+                    skipPayload(limiter, buffer, entryId);
+                }
+                break;
+            }
+            case INT_ARRAY:
+                skipArray(limiter, buffer, Integer.BYTES);
+                break;
+            case LONG_ARRAY:
+                skipArray(limiter, buffer, Long.BYTES);
+                break;
+            default:
+                throw new IllegalStateException("Unknown nbt type id " + id);
+        }
+    }
+
+    private static void skipArray(NBTLimiter limiter, Object buffer, int elementSize) {
+        limiter.increment(24);
+        int bytes = byteCount(ByteBufHelper.readInt(buffer), elementSize);
+
+        limiter.checkReadability(bytes);
+        limiter.increment(bytes);
+
+        ByteBufHelper.skipBytes(buffer, bytes);
+    }
+
+    // The size of an array or list read from the buffer, which can't be trusted
+    private static int byteCount(int length, int elementSize) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length: " + length);
+        }
+        long bytes = (long) length * elementSize;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Length is too large: " + length);
+        }
+        return (int) bytes;
+    }
+
+    private static int fixedSize(int id) {
+        switch (id) {
+            case BYTE:
+                return Byte.BYTES;
+            case SHORT:
+                return Short.BYTES;
+            case INT:
+            case FLOAT:
+                return Integer.BYTES;
+            case LONG:
+            case DOUBLE:
+                return Long.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    private static String readString(NBTLimiter limiter, ByteBufInputStream stream) {
+        limiter.increment(36);
+        try {
+            String string = stream.readUTF();
+            limiter.increment(string.length() * 2);
+            return string;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * A position in a tag, pointing at a single value which can be read or skipped.
+     */
+    public abstract static class Cursor {
+
+        final NBTLimiter limiter;
+        final Object buffer;
+        final ByteBufInputStream stream;
+        int valueId = -1;
+        boolean consumed = true;
+
+        private Cursor(NBTLimiter limiter, Object buffer) {
+            this.limiter = limiter;
+            this.buffer = buffer;
+            this.stream = new ByteBufInputStream(buffer);
+        }
+
+        public NBTType<?> getType() {
+            NBTType<?> type = DefaultNBTSerializer.INSTANCE.idToType.get(this.valueId);
+            if (type == null) {
+                throw new IllegalStateException("Unknown nbt type id " + this.valueId);
+            }
+            return type;
+        }
+
+        /**
+         * Decodes the current value.
+         */
+        public NBT read() {
+            this.consume();
+            try {
+                return DefaultNBTSerializer.INSTANCE.readTag(this.limiter, this.stream, this.getType());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Decodes the current value as a string, without creating a tag for it.
+         *
+         * @throws IllegalStateException if the value isn't a string
+         */
+        public String readString() {
+            this.consume(STRING);
+            return ByteBufNBTReader.readString(this.limiter, this.stream);
+        }
+
+        /**
+         * Starts reading the current value entry by entry.
+         * The returned compound has to be read until its end before this cursor can be used again.
+         *
+         * @throws IllegalStateException if the value isn't a compound
+         */
+        public Compound readCompound() {
+            this.consume(COMPOUND);
+            return new Compound(this.limiter, this.buffer);
+        }
+
+        /**
+         * Starts reading the current value element by element.
+         * The returned list has to be read until its end before this cursor can be used again.
+         *
+         * @throws IllegalStateException if the value isn't a list
+         */
+        public ListTag readList() {
+            this.consume(LIST);
+            return new ListTag(this.limiter, this.buffer);
+        }
+
+        /**
+         * Skips the current value.
+         */
+        public void skip() {
+            if (this.consumed) {
+                return;
+            }
+            this.consumed = true;
+            skipPayload(this.limiter, this.buffer, this.valueId);
+        }
+
+        private void consume() {
+            if (this.consumed) {
+                throw new IllegalStateException("Value has already been read");
+            }
+            this.consumed = true;
+        }
+
+        private void consume(int id) {
+            if (this.valueId != id) {
+                throw new IllegalStateException("Expected type id " + id + ", got " + this.valueId);
+            }
+            this.consume();
+        }
+    }
+
+    private static final class Root extends Cursor {
+
+        private Root(NBTLimiter limiter, Object buffer, int id) {
+            super(limiter, buffer);
+            this.valueId = id;
+            this.consumed = id == END;
+        }
+    }
+
+    /**
+     * A cursor over the entries of a compound tag.
+     * Entries which haven't been read when moving to the next one are skipped.
+     */
+    public static final class Compound extends Cursor {
+
+        private int nameIndex;
+        private int nameLength;
+
+        private Compound(NBTLimiter limiter, Object buffer) {
+            super(limiter, buffer);
+            limiter.increment(48);
+        }
+
+        /**
+         * Moves to the next entry, skipping the current one if it hasn't been read.
+         *
+         * @return false if the end of the compound has been reached
+         */
+        public boolean next() {
+            if (this.valueId == END) {
+                return false;
+            }
+            if (!this.consumed) {
+                this.skip();
+            }
+            this.valueId = ByteBufHelper.readUnsignedByte(this.buffer);
+            if (this.valueId == END) {
+                return false;
+            }
+            this.nameLength = ByteBufHelper.readUnsignedShort(this.buffer);
+            this.nameIndex = ByteBufHelper.readerIndex(this.buffer);
+            ByteBufHelper.skipBytes(this.buffer, this.nameLength);
+            this.limiter.increment(36);
+            this.consumed = false;
+            return true;
+        }
+
+        /**
+         * Compares the name of the current entry without decoding it.
+         */
+        public boolean isName(String name) {
+            int length = name.length();
+            // Every character takes up at least one byte in modified utf-8
+            if (length > this.nameLength) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                char c = name.charAt(i);
+                if (c == 0 || c >= 0x80) {
+                    // Not a single byte character, fall back to decoding
+                    return this.getName().equals(name);
+                }
+                if (ByteBufHelper.getUnsignedByte(this.buffer, this.nameIndex + i) != c) {
+                    return false;
+                }
+            }
+            return length == this.nameLength;
+        }
+
+        public String getName() {
+            int index = ByteBufHelper.readerIndex(this.buffer);
+            try {
+                ByteBufHelper.readerIndex(this.buffer, this.nameIndex - Short.BYTES);
+                return this.stream.readUTF();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                ByteBufHelper.readerIndex(this.buffer, index);
+            }
+        }
+
+        /**
+         * Skips all remaining entries, leaving the reader index after the end of the compound.
+         */
+        public void skipRemaining() {
+            while (this.next()) {
+                this.skip();
+            }
+        }
+    }
+
+    /**
+     * A cursor over the elements of a list tag.
+     * Elements which haven't been read when moving to the next one are skipped.
+     */
+    public static final class ListTag extends Cursor {
+
+        private final int elementId;
+        private final int size;
+        private int index = -1;
+
+        private ListTag(NBTLimiter limiter, Object buffer) {
+            super(limiter, buffer);
+            limiter.increment(37);
+            this.elementId = ByteBufHelper.readUnsignedByte(buffer);
+            this.size = ByteBufHelper.readInt(buffer);
+            if (this.elementId == END && this.size > 0) {
+                throw new IllegalStateException("Missing nbt list values tag type");
+            }
+            limiter.increment(byteCount(this.size, 4));
+            this.valueId = this.elementId;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Moves to the next element, skipping the current one if it hasn't been read.
+         *
+         * @return false if the end of the list has been reached
+         */
+        public boolean next() {
+            if (!this.consumed) {
+                this.skip();
+            }
+            if (this.index + 1 >= this.size) {
+                this.index = this.size;
+                return false;
+            }
+            this.index++;
+            this.consumed = false;
+            return true;
+        }
+
+        /**
+         * Skips all remaining elements, leaving the reader index after the end of the list.
+         */
+        public void skipRemaining() {
+            while (this.next()) {
+                this.skip();
+            }
+        }
+    }
+}
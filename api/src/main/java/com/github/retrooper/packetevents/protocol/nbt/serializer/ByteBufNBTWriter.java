@@ -0,0 +1,110 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+
+import java.io.IOException;
+
+/**
+ * Writes binary nbt directly into a buffer, without building the tag tree first.
+ * This is the counterpart of {@link ByteBufNBTReader}, the caller is responsible for
+ * writing a valid structure: every compound has to be closed with {@link #writeEnd()}
+ * and every list has to be followed by exactly as many payloads as announced.
+ */
+public final class ByteBufNBTWriter {
+
+    private final ByteBufOutputStream stream;
+
+    public ByteBufNBTWriter(Object buffer) {
+        this.stream = new ByteBufOutputStream(buffer);
+    }
+
+    public void writeType(NBTType<?> type) {
+        try {
+            DefaultNBTSerializer.INSTANCE.writeTagType(this.stream, type);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void writeName(String name) {
+        try {
+            this.stream.writeUTF(name);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Starts a compound entry, its payload has to be written next.
+     */
+    public void writeEntry(NBTType<?> type, String name) {
+        this.writeType(type);
+        this.writeName(name);
+    }
+
+    /**
+     * Closes the current compound.
+     */
+    public void writeEnd() {
+        this.writeType(NBTType.END);
+    }
+
+    public void writeString(String value) {
+        this.writeName(value); // same encoding
+    }
+
+    public void writeByte(int value) {
+        try {
+            this.stream.writeByte(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void writeInt(int value) {
+        try {
+            this.stream.writeInt(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Starts a list, the payloads of its elements have to be written next.
+     */
+    public void writeListHeader(NBTType<?> elementType, int size) {
+        this.writeType(elementType);
+        this.writeInt(size);
+    }
+
+    /**
+     * Writes the payload of a tag which has already been built.
+     */
+    public void writePayload(NBT tag) {
+        try {
+            DefaultNBTSerializer.INSTANCE.writeTag(this.stream, tag);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
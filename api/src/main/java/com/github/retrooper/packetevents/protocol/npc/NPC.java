@@ -24,6 +24,7 @@ import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.player.*;
 import com.github.retrooper.packetevents.protocol.world.Location;
+import com.github.retrooper.packetevents.util.PacketBatch;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.play.server.*;
 import net.kyori.adventure.text.Component;
@@ -31,6 +32,7 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NPC {
     private final int id;
@@ -49,7 +51,8 @@ public class NPC {
     private ItemStack chestPlate = null;
     private ItemStack leggings = null;
     private ItemStack boots = null;
-    private final Set<Object> channels = new HashSet<>();
+    // Modified by NPCRegistry on netty threads while updates are sent to the viewers
+    private final Set<Object> channels = ConcurrentHashMap.newKeySet();
 
     public NPC(UserProfile profile, int entityId, GameMode gamemode, @Nullable Component tabName, @Nullable NamedTextColor nameColor,
                @Nullable Component prefixName, @Nullable Component suffixName) {
@@ -127,75 +130,68 @@ public class NPC {
 
     public void teleport(Location to) {
         setLocation(to);
-        for (Object channel : channels) {
-            WrapperPlayServerEntityTeleport entityTeleport = new WrapperPlayServerEntityTeleport(getId(), to, true);
-            PacketEvents.getAPI().getProtocolManager().sendPacket(channel, entityTeleport);
-        }
+        sendToViewers(new WrapperPlayServerEntityTeleport(getId(), to, true));
     }
 
     public void updateLocation(Location to) {
         Location from = getLocation();
         setLocation(to);
-        double distXAbs = Math.abs(to.getPosition().getX() - from.getPosition().getX());
-        double distYAbs = Math.abs(to.getPosition().getY() - from.getPosition().getY());
-        double distZAbs = Math.abs(to.getPosition().getZ() - from.getPosition().getZ());
-        boolean shouldUseEntityTeleport = distXAbs > 8 ||
-                distYAbs > 8 ||
-                distZAbs > 8;
-        for (Object channel : channels) {
-            if (shouldUseEntityTeleport) {
-                WrapperPlayServerEntityTeleport entityTeleport =
-                        new WrapperPlayServerEntityTeleport(getId(), to, true);
-                PacketEvents.getAPI().getProtocolManager().sendPacket(channel, entityTeleport);
-            } else {
-                boolean rotationChanged =
-                        to.getYaw() != from.getYaw() || to.getPitch() != from.getPitch();
-                boolean positionChanged =
-                        to.getPosition().getX() != from.getPosition().getX() ||
-                                to.getPosition().getY() != from.getPosition().getY() ||
-                                to.getPosition().getZ() != from.getPosition().getZ();
-                double deltaX = positionChanged ? (to.getPosition().getX() - from.getPosition().getX()) : 0;
-                double deltaY = positionChanged ? (to.getPosition().getY() - from.getPosition().getY()) : 0;
-                double deltaZ = positionChanged ? (to.getPosition().getZ() - from.getPosition().getZ()) : 0;
-                if (positionChanged && rotationChanged) {
-                    WrapperPlayServerEntityRelativeMoveAndRotation entityRelativeMoveAndRotation =
-                            new WrapperPlayServerEntityRelativeMoveAndRotation(getId(), deltaX, deltaY, deltaZ,
-                                    to.getYaw(), to.getPitch(), true);
-                    PacketEvents.getAPI().getProtocolManager()
-                            .sendPacket(channel, entityRelativeMoveAndRotation);
-
-                    WrapperPlayServerEntityHeadLook headYaw =
-                            new WrapperPlayServerEntityHeadLook(getId(), to.getYaw());
-                    PacketEvents.getAPI().getProtocolManager().sendPacket(channel, headYaw);
-                } else if (positionChanged) {
-                    WrapperPlayServerEntityRelativeMove entityRelativeMove =
-                            new WrapperPlayServerEntityRelativeMove(getId(), deltaX, deltaY, deltaZ, true);
-                    PacketEvents.getAPI().getProtocolManager().sendPacket(channel, entityRelativeMove);
-                } else if (rotationChanged) {
-                    WrapperPlayServerEntityRotation entityRotation =
-                            new WrapperPlayServerEntityRotation(getId(), to.getYaw(), to.getPitch(), true);
-                    PacketEvents.getAPI().getProtocolManager().sendPacket(channel, entityRotation);
-
-                    WrapperPlayServerEntityHeadLook headYaw =
-                            new WrapperPlayServerEntityHeadLook(getId(), to.getYaw());
-                    PacketEvents.getAPI().getProtocolManager().sendPacket(channel, headYaw);
-                }
-            }
-        }
+        sendToViewers(createMovementPackets(from, to, false));
     }
 
     public void updateRotation(float yaw, float pitch) {
         getLocation().setYaw(yaw);
         getLocation().setPitch(pitch);
+        sendToViewers(new WrapperPlayServerEntityRotation(getId(), yaw, pitch, true),
+                new WrapperPlayServerEntityHeadLook(getId(), yaw));
+    }
+
+    // The packets are the same for every viewer, so each one is only encoded once and every viewer is flushed once
+    private void sendToViewers(PacketWrapper<?>... packets) {
+        if (packets.length == 0) return;
+        PacketBatch batch = new PacketBatch(PacketEvents.getAPI().getProtocolManager(), false);
         for (Object channel : channels) {
-            WrapperPlayServerEntityRotation entityRotation =
-                    new WrapperPlayServerEntityRotation(getId(), yaw, pitch, true);
-            PacketEvents.getAPI().getProtocolManager().sendPacket(channel, entityRotation);
+            for (PacketWrapper<?> packet : packets) {
+                batch.write(channel, packet);
+            }
+        }
+        batch.flush();
+    }
 
-            WrapperPlayServerEntityHeadLook headYaw =
-                    new WrapperPlayServerEntityHeadLook(getId(), yaw);
-            PacketEvents.getAPI().getProtocolManager().sendPacket(channel, headYaw);
+    PacketWrapper<?>[] createMovementPackets(Location from, Location to, boolean forceTeleport) {
+        double distXAbs = Math.abs(to.getPosition().getX() - from.getPosition().getX());
+        double distYAbs = Math.abs(to.getPosition().getY() - from.getPosition().getY());
+        double distZAbs = Math.abs(to.getPosition().getZ() - from.getPosition().getZ());
+        boolean shouldUseEntityTeleport = forceTeleport ||
+                distXAbs > 8 ||
+                distYAbs > 8 ||
+                distZAbs > 8;
+        if (shouldUseEntityTeleport) {
+            return new PacketWrapper<?>[]{new WrapperPlayServerEntityTeleport(getId(), to, true)};
+        }
+        boolean rotationChanged =
+                to.getYaw() != from.getYaw() || to.getPitch() != from.getPitch();
+        boolean positionChanged =
+                to.getPosition().getX() != from.getPosition().getX() ||
+                        to.getPosition().getY() != from.getPosition().getY() ||
+                        to.getPosition().getZ() != from.getPosition().getZ();
+        double deltaX = positionChanged ? (to.getPosition().getX() - from.getPosition().getX()) : 0;
+        double deltaY = positionChanged ? (to.getPosition().getY() - from.getPosition().getY()) : 0;
+        double deltaZ = positionChanged ? (to.getPosition().getZ() - from.getPosition().getZ()) : 0;
+        if (positionChanged && rotationChanged) {
+            return new PacketWrapper<?>[]{
+                    new WrapperPlayServerEntityRelativeMoveAndRotation(getId(), deltaX, deltaY, deltaZ,
+                            to.getYaw(), to.getPitch(), true),
+                    new WrapperPlayServerEntityHeadLook(getId(), to.getYaw())};
+        } else if (positionChanged) {
+            return new PacketWrapper<?>[]{
+                    new WrapperPlayServerEntityRelativeMove(getId(), deltaX, deltaY, deltaZ, true)};
+        } else if (rotationChanged) {
+            return new PacketWrapper<?>[]{
+                    new WrapperPlayServerEntityRotation(getId(), to.getYaw(), to.getPitch(), true),
+                    new WrapperPlayServerEntityHeadLook(getId(), to.getYaw())};
         }
+        return new PacketWrapper<?>[0];
     }
 
     public void updateTabPing(int ping) {
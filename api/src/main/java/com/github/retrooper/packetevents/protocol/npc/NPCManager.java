@@ -0,0 +1,159 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.npc;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.Location;
+import com.github.retrooper.packetevents.util.PacketBatch;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects movement updates of many NPCs and sends them all at once, usually once per tick.
+ * <p>
+ * Every movement packet is encoded once per distinct protocol of its viewers, and every viewer is flushed once.
+ * Viewers supporting bundles (1.19.4+) receive all updates of a flush inside a single bundle,
+ * so the client applies them in the same frame.
+ * Multiple updates of the same NPC before a flush are merged into a single movement.
+ * This class isn't thread-safe.
+ */
+public class NPCManager {
+    // The client disconnects if a bundle contains more packets
+    private static final int MAX_BUNDLE_SIZE = 4096;
+
+    private final boolean silently;
+    private final Map<NPC, PendingMovement> pending = new LinkedHashMap<>();
+
+    public NPCManager() {
+        this(false);
+    }
+
+    /**
+     * @param silently Whether the updates should be sent without our packet listeners processing them
+     */
+    public NPCManager(boolean silently) {
+        this.silently = silently;
+    }
+
+    public void updateLocation(NPC npc, Location to) {
+        this.queue(npc, to.clone(), false);
+    }
+
+    public void updateRotation(NPC npc, float yaw, float pitch) {
+        Location to = npc.getLocation().clone();
+        to.setYaw(yaw);
+        to.setPitch(pitch);
+        this.queue(npc, to, false);
+    }
+
+    public void teleport(NPC npc, Location to) {
+        this.queue(npc, to.clone(), true);
+    }
+
+    private void queue(NPC npc, Location to, boolean teleport) {
+        PendingMovement movement = this.pending.get(npc);
+        if (movement == null) {
+            this.pending.put(npc, new PendingMovement(npc.getLocation().clone(), teleport));
+        } else if (teleport) {
+            movement.teleport = true;
+        }
+        npc.setLocation(to);
+    }
+
+    public boolean hasPendingUpdates() {
+        return !this.pending.isEmpty();
+    }
+
+    /**
+     * Sends all pending updates to the viewers of their NPCs.
+     */
+    public void flush() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+        Map<Object, List<PacketWrapper<?>>> packetsByChannel = new HashMap<>();
+        for (Map.Entry<NPC, PendingMovement> entry : this.pending.entrySet()) {
+            NPC npc = entry.getKey();
+            PendingMovement movement = entry.getValue();
+            PacketWrapper<?>[] packets = npc.createMovementPackets(movement.from, npc.getLocation(), movement.teleport);
+            if (packets.length == 0) {
+                continue;
+            }
+            for (Object channel : npc.getChannels()) {
+                List<PacketWrapper<?>> channelPackets = packetsByChannel.computeIfAbsent(channel, k -> new ArrayList<>());
+                for (PacketWrapper<?> packet : packets) {
+                    channelPackets.add(packet);
+                }
+            }
+        }
+        this.pending.clear();
+
+        ProtocolManager protocolManager = PacketEvents.getAPI().getProtocolManager();
+        PacketBatch batch = new PacketBatch(protocolManager, this.silently);
+        // The delimiter carries no data, so one instance can be shared by all bundles
+        WrapperPlayServerBundle delimiter = new WrapperPlayServerBundle();
+        for (Map.Entry<Object, List<PacketWrapper<?>>> entry : packetsByChannel.entrySet()) {
+            Object channel = entry.getKey();
+            List<PacketWrapper<?>> packets = entry.getValue();
+            boolean bundle = packets.size() > 1 && supportsBundles(protocolManager.getUser(channel));
+            for (int i = 0; i < packets.size(); i++) {
+                if (bundle && i % MAX_BUNDLE_SIZE == 0) {
+                    if (i != 0) {
+                        batch.write(channel, delimiter);
+                    }
+                    batch.write(channel, delimiter);
+                }
+                batch.write(channel, packets.get(i));
+            }
+            if (bundle) {
+                batch.write(channel, delimiter);
+            }
+        }
+        batch.flush();
+    }
+
+    private static boolean supportsBundles(User user) {
+        return user != null
+                && user.getConnectionState() == ConnectionState.PLAY
+                && user.getClientVersion().isNewerThanOrEquals(ClientVersion.V_1_19_4)
+                && PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_19_4);
+    }
+
+    private static final class PendingMovement {
+        // Where the viewers last saw the NPC
+        private final Location from;
+        private boolean teleport;
+
+        private PendingMovement(Location from, boolean teleport) {
+            this.from = from;
+            this.teleport = teleport;
+        }
+    }
+}
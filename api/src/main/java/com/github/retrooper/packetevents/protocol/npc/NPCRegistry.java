@@ -0,0 +1,321 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.npc;
+
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.event.UserDisconnectEvent;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.world.Location;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerFlying;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shows NPCs only to the players near them.
+ * <p>
+ * NPCs and viewers are indexed by chunk. Only players added with {@link #addViewer(Object)} are viewers,
+ * their positions are tracked from the movement packets they send, and every NPC within the view distance
+ * (in chunks) of a viewer is spawned for them, while NPCs leaving it are despawned again.
+ * As NPCs only send updates to the channels they're spawned for,
+ * the cost of an update scales with the amount of nearby viewers instead of all players.
+ * <p>
+ * The registry has no notion of worlds, use one per world, {@link #addViewer(Object)} players entering it
+ * and {@link #removeViewer(Object)} players leaving it.
+ * NPCs added here must only be spawned, despawned and moved through the registry.
+ * The registry has to be registered as a packet listener.
+ */
+public class NPCRegistry extends PacketListenerAbstract {
+
+    private static final Collection<PacketTypeCommon> PACKET_TYPES = Collections.unmodifiableList(Arrays.asList(
+            PacketType.Play.Client.PLAYER_POSITION,
+            PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION,
+            PacketType.Play.Server.RESPAWN
+    ));
+
+    private final int viewDistance;
+    private final Map<Long, Set<NPC>> npcsByChunk = new HashMap<>();
+    private final Map<NPC, Long> npcChunks = new HashMap<>();
+    private final Map<Long, Set<Object>> viewersByChunk = new HashMap<>();
+    // Read without holding the lock, so movement packets of other players and within a chunk don't contend on it
+    private final Set<Object> viewers = ConcurrentHashMap.newKeySet();
+    private final Map<Object, Long> viewerChunks = new ConcurrentHashMap<>();
+
+    /**
+     * @param viewDistance The distance in chunks in which NPCs are shown to a player
+     */
+    public NPCRegistry(int viewDistance) {
+        this(viewDistance, PacketListenerPriority.MONITOR);
+    }
+
+    public NPCRegistry(int viewDistance, PacketListenerPriority priority) {
+        super(priority);
+        this.viewDistance = viewDistance;
+    }
+
+    @Override
+    public Collection<PacketTypeCommon> getPacketTypes() {
+        return PACKET_TYPES;
+    }
+
+    @Override
+    public void onPacketReceive(PacketReceiveEvent event) {
+        if (event.getPacketType() != PacketType.Play.Client.PLAYER_POSITION
+                && event.getPacketType() != PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION) {
+            return;
+        }
+        Object channel = event.getChannel();
+        if (!this.viewers.contains(channel)) {
+            return;
+        }
+        if (event.getLastUsedWrapper() instanceof WrapperPlayClientPlayerFlying) {
+            Vector3d position = ((WrapperPlayClientPlayerFlying) event.getLastUsedWrapper()).getLocation().getPosition();
+            this.updateViewer(channel, position.getX(), position.getZ());
+            return;
+        }
+        // Read the position directly, a wrapper on the event would make the packet be encoded again
+        Object buffer = event.getByteBuf();
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
+        double x = ByteBufHelper.readDouble(buffer);
+        // The y coordinate, followed by the stance on 1.7.10
+        ByteBufHelper.skipBytes(buffer, event.getServerVersion() == ServerVersion.V_1_7_10 ? 16 : 8);
+        double z = ByteBufHelper.readDouble(buffer);
+        ByteBufHelper.readerIndex(buffer, readerIndex);
+        this.updateViewer(channel, x, z);
+    }
+
+    @Override
+    public void onPacketSend(PacketSendEvent event) {
+        if (event.getPacketType() == PacketType.Play.Server.RESPAWN) {
+            // The client drops all entities, wait for its new position before spawning them again
+            this.forgetViewer(event.getChannel(), false);
+        }
+    }
+
+    @Override
+    public void onUserDisconnect(UserDisconnectEvent event) {
+        Object channel = event.getUser().getChannel();
+        if (channel != null && this.viewers.remove(channel)) {
+            this.forgetViewer(channel, false);
+        }
+    }
+
+    public synchronized void addNPC(NPC npc) {
+        if (this.npcChunks.containsKey(npc)) {
+            return;
+        }
+        long chunk = chunkKey(npc.getLocation());
+        this.npcChunks.put(npc, chunk);
+        this.npcsByChunk.computeIfAbsent(chunk, k -> new HashSet<>()).add(npc);
+        for (Object channel : this.viewersAround(chunk)) {
+            npc.spawn(channel);
+        }
+    }
+
+    public synchronized void removeNPC(NPC npc) {
+        Long chunk = this.npcChunks.remove(npc);
+        if (chunk == null) {
+            return;
+        }
+        removeFromChunk(this.npcsByChunk, chunk, npc);
+        npc.despawnAll();
+    }
+
+    public synchronized Collection<NPC> getNPCs() {
+        return new ArrayList<>(this.npcChunks.keySet());
+    }
+
+    /**
+     * Moves an NPC, sending the movement to its current viewers,
+     * then spawns or despawns it for the players it moved towards or away from.
+     */
+    public synchronized void updateLocation(NPC npc, Location to) {
+        npc.updateLocation(to);
+        this.relocate(npc);
+    }
+
+    public synchronized void teleport(NPC npc, Location to) {
+        npc.teleport(to);
+        this.relocate(npc);
+    }
+
+    /**
+     * Updates the viewers of an NPC after its location has been changed and sent elsewhere,
+     * for example by an {@link NPCManager}. This has to be called after the movement has been sent,
+     * as new viewers are spawned at the current location.
+     */
+    public synchronized void relocate(NPC npc) {
+        Long previous = this.npcChunks.get(npc);
+        long chunk = chunkKey(npc.getLocation());
+        if (previous == null || previous == chunk) {
+            return;
+        }
+        removeFromChunk(this.npcsByChunk, previous, npc);
+        this.npcsByChunk.computeIfAbsent(chunk, k -> new HashSet<>()).add(npc);
+        this.npcChunks.put(npc, chunk);
+
+        for (Object channel : new ArrayList<>(npc.getChannels())) {
+            Long viewerChunk = this.viewerChunks.get(channel);
+            if (viewerChunk == null || !this.isInRange(viewerChunk, chunk)) {
+                npc.despawn(channel);
+            }
+        }
+        for (Object channel : this.viewersAround(chunk)) {
+            npc.spawn(channel);
+        }
+    }
+
+    /**
+     * Shows the NPCs of this registry to a player, once their position is known from the next movement packet
+     * or {@link #updateViewer(Object, double, double)}.
+     */
+    public void addViewer(Object channel) {
+        this.viewers.add(channel);
+    }
+
+    public boolean isViewer(Object channel) {
+        return this.viewers.contains(channel);
+    }
+
+    /**
+     * Updates the position of a viewer, usually tracked from their movement packets.
+     * Players which haven't been added with {@link #addViewer(Object)} are ignored.
+     */
+    public void updateViewer(Object channel, double x, double z) {
+        if (!this.viewers.contains(channel)) {
+            return;
+        }
+        long chunk = PacketWrapper.getChunkKey((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4);
+        Long current = this.viewerChunks.get(channel);
+        if (current != null && current == chunk) {
+            // Most movements stay within a chunk, nothing changes for them
+            return;
+        }
+        this.moveViewer(channel, chunk);
+    }
+
+    private synchronized void moveViewer(Object channel, long chunk) {
+        if (!this.viewers.contains(channel)) {
+            // Removed in the meantime
+            return;
+        }
+        Long previous = this.viewerChunks.put(channel, chunk);
+        if (previous != null && previous == chunk) {
+            return;
+        }
+        if (previous != null) {
+            removeFromChunk(this.viewersByChunk, previous, channel);
+        }
+        this.viewersByChunk.computeIfAbsent(chunk, k -> new HashSet<>()).add(channel);
+
+        Set<NPC> nearby = this.npcsAround(chunk);
+        if (previous != null) {
+            for (NPC npc : this.npcsAround(previous)) {
+                if (!nearby.contains(npc)) {
+                    npc.despawn(channel);
+                }
+            }
+        }
+        for (NPC npc : nearby) {
+            npc.spawn(channel);
+        }
+    }
+
+    /**
+     * Stops tracking a viewer and despawns all NPCs they can see.
+     */
+    public synchronized void removeViewer(Object channel) {
+        if (this.viewers.remove(channel)) {
+            this.forgetViewer(channel, true);
+        }
+    }
+
+    private synchronized void forgetViewer(Object channel, boolean despawn) {
+        Long chunk = this.viewerChunks.remove(channel);
+        if (chunk == null) {
+            return;
+        }
+        removeFromChunk(this.viewersByChunk, chunk, channel);
+        for (NPC npc : this.npcsAround(chunk)) {
+            if (despawn) {
+                npc.despawn(channel);
+            } else {
+                npc.getChannels().remove(channel);
+            }
+        }
+    }
+
+    private Set<NPC> npcsAround(long chunk) {
+        return collectAround(this.npcsByChunk, chunk);
+    }
+
+    private List<Object> viewersAround(long chunk) {
+        return new ArrayList<>(collectAround(this.viewersByChunk, chunk));
+    }
+
+    private <T> Set<T> collectAround(Map<Long, Set<T>> grid, long chunk) {
+        Set<T> result = new HashSet<>();
+        if (grid.isEmpty()) {
+            return result;
+        }
+        int chunkX = PacketWrapper.getChunkX(chunk);
+        int chunkZ = PacketWrapper.getChunkZ(chunk);
+        for (int x = chunkX - this.viewDistance; x <= chunkX + this.viewDistance; x++) {
+            for (int z = chunkZ - this.viewDistance; z <= chunkZ + this.viewDistance; z++) {
+                Set<T> entries = grid.get(PacketWrapper.getChunkKey(x, z));
+                if (entries != null) {
+                    result.addAll(entries);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean isInRange(long first, long second) {
+        return Math.abs(PacketWrapper.getChunkX(first) - PacketWrapper.getChunkX(second)) <= this.viewDistance
+                && Math.abs(PacketWrapper.getChunkZ(first) - PacketWrapper.getChunkZ(second)) <= this.viewDistance;
+    }
+
+    private static <T> void removeFromChunk(Map<Long, Set<T>> grid, long chunk, T entry) {
+        Set<T> entries = grid.get(chunk);
+        if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+            grid.remove(chunk);
+        }
+    }
+
+    private static long chunkKey(Location location) {
+        return PacketWrapper.getChunkKey((int) Math.floor(location.getX()) >> 4, (int) Math.floor(location.getZ()) >> 4);
+    }
+}
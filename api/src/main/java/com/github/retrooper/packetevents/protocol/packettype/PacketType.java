@@ -76,8 +76,6 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 public final class PacketType {
 
@@ -193,6 +191,47 @@ public final class PacketType {
         }
     }
 
+    private static PacketTypeCommon[] createIdTable(PacketTypeConstant[] constants) {
+        int maxId = -1;
+        for (PacketTypeConstant constant : constants) {
+            maxId = Math.max(maxId, constant.getId());
+        }
+        PacketTypeCommon[] table = new PacketTypeCommon[maxId + 1];
+        for (PacketTypeConstant constant : constants) {
+            table[constant.getId()] = constant;
+        }
+        return table;
+    }
+
+    private static @Nullable PacketTypeCommon lookup(PacketTypeCommon[] table, int packetId) {
+        return packetId >= 0 && packetId < table.length ? table[packetId] : null;
+    }
+
+    /**
+     * Get all packet type constants of a side and connection state.
+     * The returned array is indexed by the constants' {@link Enum#ordinal()}.
+     *
+     * @param side  The side sending the packets
+     * @param state The connection state
+     * @return All packet types of the side and state
+     */
+    public static PacketTypeCommon[] getPacketTypes(PacketSide side, ConnectionState state) {
+        switch (state) {
+            case HANDSHAKING:
+                return side == PacketSide.CLIENT ? Handshaking.Client.values() : Handshaking.Server.values();
+            case STATUS:
+                return side == PacketSide.CLIENT ? Status.Client.values() : Status.Server.values();
+            case LOGIN:
+                return side == PacketSide.CLIENT ? Login.Client.values() : Login.Server.values();
+            case PLAY:
+                return side == PacketSide.CLIENT ? Play.Client.values() : Play.Server.values();
+            case CONFIGURATION:
+                return side == PacketSide.CLIENT ? Configuration.Client.values() : Configuration.Server.values();
+            default:
+                return new PacketTypeCommon[0];
+        }
+    }
+
     public static class Handshaking {
 
         public enum Client implements PacketTypeConstant, ServerBoundPacket {
@@ -210,15 +249,11 @@ public final class PacketType {
                 this.id = id;
             }
 
+            private static final PacketTypeCommon[] PACKET_TYPE_ID_TABLE = createIdTable(values());
+
             @Nullable
             public static PacketTypeCommon getById(int packetID) {
-                if (packetID == 0) {
-                    return HANDSHAKE;
-                } else if (packetID == 0xFE) {
-                    return LEGACY_SERVER_LIST_PING;
-                } else {
-                    return null;
-                }
+                return lookup(PACKET_TYPE_ID_TABLE, packetID);
             }
 
             public int getId() {
@@ -241,9 +276,11 @@ public final class PacketType {
                 this.id = id;
             }
 
+            private static final PacketTypeCommon[] PACKET_TYPE_ID_TABLE = createIdTable(values());
+
             @Nullable
             public static PacketTypeCommon getById(int packetID) {
-                return packetID == 0xFE ? LEGACY_SERVER_LIST_RESPONSE : null;
+                return lookup(PACKET_TYPE_ID_TABLE, packetID);
             }
 
             public int getId() {
@@ -270,15 +307,11 @@ public final class PacketType {
                 this.id = id;
             }
 
+            private static final PacketTypeCommon[] PACKET_TYPE_ID_TABLE = createIdTable(values());
+
             @Nullable
             public static PacketTypeCommon getById(int packetId) {
-                if (packetId == 0) {
-                    return REQUEST;
-                } else if (packetId == 1) {
-                    return PING;
-                } else {
-                    return null;
-                }
+                return lookup(PACKET_TYPE_ID_TABLE, packetId);
             }
 
             public int getId() {
@@ -302,15 +335,11 @@ public final class PacketType {
                 this.id = id;
             }
 
+            private static final PacketTypeCommon[] PACKET_TYPE_ID_TABLE = createIdTable(values());
+
             @Nullable
             public static PacketTypeCommon getById(int packetID) {
-                if (packetID == 0) {
-                    return RESPONSE;
-                } else if (packetID == 1) {
-                    return PONG;
-                } else {
-                    return null;
-                }
+                return lookup(PACKET_TYPE_ID_TABLE, packetID);
             }
 
             public int getId() {
@@ -346,22 +375,11 @@ public final class PacketType {
                 this.id = id;
             }
 
+            private static final PacketTypeCommon[] PACKET_TYPE_ID_TABLE = createIdTable(values());
+
             @Nullable
             public static PacketTypeCommon getById(int packetID) {
-                switch (packetID) {
-                    case 0x00:
-                        return LOGIN_START;
-                    case 0x01:
-                        return ENCRYPTION_RESPONSE;
-                    case 0x02:
-                        return LOGIN_PLUGIN_RESPONSE;
-                    case 0x03:
-                        return LOGIN_SUCCESS_ACK;
-                    case 0x04:
-                        return COOKIE_RESPONSE;
-                    default:
-                        return null;
-                }
+                return lookup(PACKET_TYPE_ID_TABLE, packetID);
             }
 
             public int getId() {
@@ -395,24 +413,11 @@ public final class PacketType {
                 this.id = id;
             }
 
+            private static final PacketTypeCommon[] PACKET_TYPE_ID_TABLE = createIdTable(values());
+
             @Nullable
             public static PacketTypeCommon getById(int packetID) {
-                switch (packetID) {
-                    case 0x00:
-                        return DISCONNECT;
-                    case 0x01:
-                        return ENCRYPTION_REQUEST;
-                    case 0x02:
-                        return LOGIN_SUCCESS;
-                    case 0x03:
-                        return SET_COMPRESSION;
-                    case 0x04:
-                        return LOGIN_PLUGIN_REQUEST;
-                    case 0x05:
-                        return COOKIE_REQUEST;
-                    default:
-                        return null;
-                }
+                return lookup(PACKET_TYPE_ID_TABLE, packetID);
             }
 
             public int getId() {
@@ -443,7 +448,7 @@ public final class PacketType {
             SELECT_KNOWN_PACKS;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[SERVERBOUND_CONFIG_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Client() {
@@ -460,13 +465,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Client value = Configuration.Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -478,9 +484,7 @@ public final class PacketType {
                 if (!PREPARED) {
                     PacketType.prepare();
                 }
-                int index = SERVERBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return lookup(PACKET_TYPE_ID_TABLE[SERVERBOUND_CONFIG_VERSION_MAPPER.getIndex(version)], packetId);
             }
 
             @Deprecated
@@ -530,7 +534,7 @@ public final class PacketType {
             SERVER_LINKS;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[CLIENTBOUND_CONFIG_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Server() {
@@ -549,13 +553,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Server value = Configuration.Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -567,9 +572,7 @@ public final class PacketType {
                 if (!PREPARED) {
                     PacketType.prepare();
                 }
-                int index = CLIENTBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return lookup(PACKET_TYPE_ID_TABLE[CLIENTBOUND_CONFIG_VERSION_MAPPER.getIndex(version)], packetId);
             }
 
             @Deprecated
@@ -733,7 +736,7 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[SERVERBOUND_PLAY_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Client() {
@@ -746,21 +749,19 @@ public final class PacketType {
                 if (!PREPARED) {
                     PacketType.prepare();
                 }
-                int index = SERVERBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                return packetIdMap.get(packetId);
+                return lookup(PACKET_TYPE_ID_TABLE[SERVERBOUND_PLAY_VERSION_MAPPER.getIndex(version)], packetId);
             }
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Client value = Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index,
-                            k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -983,7 +984,7 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE = new PacketTypeCommon[CLIENTBOUND_PLAY_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Server() {
@@ -1004,9 +1005,7 @@ public final class PacketType {
                 if (!PREPARED) {
                     PacketType.prepare();
                 }
-                int index = CLIENTBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return lookup(PACKET_TYPE_ID_TABLE[CLIENTBOUND_PLAY_VERSION_MAPPER.getIndex(version)], packetId);
             }
 
             @Override
@@ -1016,13 +1015,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Server value = Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -19,6 +19,7 @@
 package com.github.retrooper.packetevents.protocol.player;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketEventPool;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.ConnectionState;
@@ -64,6 +65,7 @@ public class User implements IRegistryHolder {
 
     private DimensionType dimensionType = DimensionTypes.OVERWORLD;
     private final Map<ResourceLocation, IRegistry<?>> registries = new HashMap<>();
+    private PacketEventPool eventPool;
 
     public User(Object channel,
                 ConnectionState connectionState, ClientVersion clientVersion,
@@ -75,6 +77,14 @@ public class User implements IRegistryHolder {
         this.profile = profile;
     }
 
+    @ApiStatus.Internal
+    public PacketEventPool getEventPool() {
+        if (this.eventPool == null) {
+            this.eventPool = new PacketEventPool();
+        }
+        return this.eventPool;
+    }
+
     @ApiStatus.Internal
     @Override
     public @Nullable IRegistry<?> getRegistry(ResourceLocation registryKey, ClientVersion version) {
@@ -24,7 +24,10 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk;
 
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.Arrays;
 
@@ -35,7 +38,10 @@ public class Column {
     private final BaseChunk[] chunks;
     private final TileEntity[] tileEntities;
     private final boolean hasHeightMaps;
-    private final NBTCompound heightMaps;
+    private NBTCompound heightMaps;
+    // The height maps exactly as they were received, until they are decoded
+    private byte[] encodedHeightMaps;
+    private ServerVersion encodedVersion;
     private final boolean hasBiomeData;
 
     private int[] biomeDataInts;
@@ -113,6 +119,17 @@ public class Column {
         this.biomeDataBytes = biomeDataBytes != null ? Arrays.copyOf(biomeDataBytes, biomeDataBytes.length) : null;
     }
 
+    /**
+     * Creates a column whose height maps are only decoded once they are accessed.
+     */
+    @ApiStatus.Internal
+    public static Column createWithEncodedHeightMaps(int x, int z, boolean fullChunk, BaseChunk[] chunks, TileEntity[] tileEntities, byte[] encodedHeightMaps, ServerVersion version) {
+        Column column = new Column(x, z, fullChunk, chunks, tileEntities, (NBTCompound) null);
+        column.encodedHeightMaps = encodedHeightMaps;
+        column.encodedVersion = version;
+        return column;
+    }
+
     public int getX() {
         return x;
     }
@@ -138,9 +155,28 @@ public class Column {
     }
 
     public NBTCompound getHeightMaps() {
+        if (encodedHeightMaps != null) {
+            // Not the server version, which differs from the version of the connection on proxies
+            heightMaps = (NBTCompound) NBTCodec.readNBTFromBytes(encodedHeightMaps, encodedVersion);
+            // The compound is mutable, so we can't tell if it will be modified
+            encodedHeightMaps = null;
+        }
         return heightMaps;
     }
 
+    /**
+     * @param version the version the height maps are about to be written with
+     * @return the height maps as they were received, or null if they have been decoded or have to be encoded differently
+     */
+    @ApiStatus.Internal
+    public byte[] getEncodedHeightMaps(ServerVersion version) {
+        if (encodedHeightMaps == null
+                || version.isOlderThan(ServerVersion.V_1_20_2) != encodedVersion.isOlderThan(ServerVersion.V_1_20_2)) {
+            return null;
+        }
+        return encodedHeightMaps;
+    }
+
     public boolean hasBiomeData() {
         return hasBiomeData;
     }
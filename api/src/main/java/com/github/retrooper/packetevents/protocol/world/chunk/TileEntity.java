@@ -22,6 +22,8 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import org.jetbrains.annotations.ApiStatus;
 
 public class TileEntity {
     // 1.18+
@@ -32,6 +34,10 @@ public class TileEntity {
     int type;
     // Exists on all versions
     NBTCompound data;
+    // The data exactly as it was received, until it is decoded
+    private byte[] encodedData;
+    // The version the data was received with, null if it wasn't read lazily
+    private ServerVersion version;
 
     // 1.18 format: ((blockX & 15) << 4) | (blockZ & 15)
     // Versions below this store height in the NBTCompound
@@ -46,48 +52,65 @@ public class TileEntity {
         this.data = data;
     }
 
+    /**
+     * Creates a tile entity whose data is only decoded once it is accessed.
+     */
+    @ApiStatus.Internal
+    public static TileEntity createEncoded(final byte packedByte, final short y, final int type,
+                                           final byte[] encodedData, final ServerVersion version) {
+        TileEntity tileEntity = new TileEntity(packedByte, y, type, null);
+        tileEntity.encodedData = encodedData;
+        tileEntity.version = version;
+        return tileEntity;
+    }
+
+    private ServerVersion getVersion() {
+        // On proxies, the server version isn't the version of the connection the data was read from
+        return this.version != null ? this.version : PacketEvents.getAPI().getServerManager().getVersion();
+    }
+
     public int getX() {
-        if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
+        if (this.getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
             return (this.packedByte & 0xF0) >> 4;
         }
-        return data.getTagOfTypeOrNull("x", NBTInt.class).getAsInt();
+        return getNBT().getTagOfTypeOrNull("x", NBTInt.class).getAsInt();
     }
 
     public int getZ() {
-        if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
+        if (this.getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
             return this.packedByte & 0xF;
         }
-        return data.getTagOfTypeOrNull("z", NBTInt.class).getAsInt();
+        return getNBT().getTagOfTypeOrNull("z", NBTInt.class).getAsInt();
     }
 
     public int getY() {
-        if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
+        if (this.getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
             return this.y;
         }
-        return data.getTagOfTypeOrNull("y", NBTInt.class).getAsInt();
+        return getNBT().getTagOfTypeOrNull("y", NBTInt.class).getAsInt();
     }
 
     public void setX(final int x) {
-        if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
+        if (this.getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
             this.packedByte = (byte) ((this.packedByte & 0xF) | ((x & 0xF) << 4));
         } else {
-            data.setTag("x", new NBTInt(x));
+            getNBT().setTag("x", new NBTInt(x));
         }
     }
 
     public void setY(final int y) {
-        if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
+        if (this.getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
             this.y = (short) y;
         } else {
-            data.setTag("y", new NBTInt(y));
+            getNBT().setTag("y", new NBTInt(y));
         }
     }
 
     public void setZ(final int z) {
-        if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
+        if (this.getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
             this.packedByte = (byte) ((this.packedByte & 0xF0) | (z & 0xF));
         } else {
-            data.setTag("z", new NBTInt(z));
+            getNBT().setTag("z", new NBTInt(z));
         }
     }
 
@@ -105,6 +128,24 @@ public class TileEntity {
     }
 
     public NBTCompound getNBT() {
+        if (this.encodedData != null) {
+            this.data = (NBTCompound) NBTCodec.readNBTFromBytes(this.encodedData, this.version);
+            // The compound is mutable, so we can't tell if it will be modified
+            this.encodedData = null;
+        }
         return this.data;
     }
+
+    /**
+     * @param version the version the data is about to be written with
+     * @return the data as it was received, or null if it has been decoded or has to be encoded differently
+     */
+    @ApiStatus.Internal
+    public byte[] getEncodedNBT(ServerVersion version) {
+        if (this.encodedData == null
+                || version.isOlderThan(ServerVersion.V_1_20_2) != this.version.isOlderThan(ServerVersion.V_1_20_2)) {
+            return null;
+        }
+        return this.encodedData;
+    }
 }
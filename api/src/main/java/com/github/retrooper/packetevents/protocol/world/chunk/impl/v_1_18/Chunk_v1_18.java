@@ -18,6 +18,8 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18;
 
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
@@ -25,16 +27,18 @@ import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
 import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
 import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.NotNull;
 
 public class Chunk_v1_18 implements BaseChunk {
     private static final int AIR = 0;
 
     private int blockCount;
-    private @NotNull
-    final DataPalette chunkData;
-    private @NotNull
-    final DataPalette biomeData;
+    // Both palettes are null until a lazily read section is accessed
+    private DataPalette chunkData;
+    private DataPalette biomeData;
+    // The section exactly as it was received, dropped as soon as the section may have been modified
+    private byte[] encoded;
 
     public Chunk_v1_18() {
         this(0, DataPalette.createForChunk(), DataPalette.createForBiome());
@@ -46,6 +50,11 @@ public class Chunk_v1_18 implements BaseChunk {
         this.biomeData = biomeData;
     }
 
+    private Chunk_v1_18(final int blockCount, final byte[] encoded) {
+        this.blockCount = blockCount;
+        this.encoded = encoded;
+    }
+
     public static Chunk_v1_18 read(NetStreamInput in)  {
         int blockCount = in.readShort();
 
@@ -54,19 +63,74 @@ public class Chunk_v1_18 implements BaseChunk {
         return new Chunk_v1_18(blockCount, chunkPalette, biomePalette);
     }
 
+    public static Chunk_v1_18 read(PacketWrapper<?> wrapper) {
+        int blockCount = wrapper.readShort();
+
+        DataPalette chunkPalette = DataPalette.read(wrapper, PaletteType.CHUNK);
+        DataPalette biomePalette = DataPalette.read(wrapper, PaletteType.BIOME);
+        return new Chunk_v1_18(blockCount, chunkPalette, biomePalette);
+    }
+
+    /**
+     * Reads a section without decoding its palettes.
+     * The section is decoded once its blocks are accessed, and written back byte-for-byte as long as
+     * it hasn't been modified.
+     */
+    public static Chunk_v1_18 readLazily(PacketWrapper<?> wrapper) {
+        int start = ByteBufHelper.readerIndex(wrapper.buffer);
+        int blockCount = wrapper.readShort();
+
+        DataPalette.skip(wrapper, PaletteType.CHUNK, true);
+        DataPalette.skip(wrapper, PaletteType.BIOME, true);
+
+        byte[] encoded = new byte[ByteBufHelper.readerIndex(wrapper.buffer) - start];
+        ByteBufHelper.getBytes(wrapper.buffer, start, encoded);
+        return new Chunk_v1_18(blockCount, encoded);
+    }
+
     public static void write(NetStreamOutput out, Chunk_v1_18 section)  {
+        if (section.encoded != null) {
+            // Untouched since it was read, no need to encode it again
+            out.writeBytes(section.encoded);
+            return;
+        }
         out.writeShort(section.blockCount);
         DataPalette.write(out, section.chunkData);
         DataPalette.write(out, section.biomeData);
     }
 
+    private void decode() {
+        if (this.chunkData != null) {
+            return;
+        }
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(
+                UnpooledByteBufAllocationHelper.wrappedBuffer(this.encoded));
+        wrapper.readShort(); // Block count, we already know it
+        this.chunkData = DataPalette.read(wrapper, PaletteType.CHUNK);
+        this.biomeData = DataPalette.read(wrapper, PaletteType.BIOME);
+    }
+
+    private void decodeForModification() {
+        this.decode();
+        this.encoded = null;
+    }
+
+    /**
+     * @return false if this section was read lazily and hasn't been decoded yet
+     */
+    public boolean isDecoded() {
+        return this.chunkData != null;
+    }
+
     @Override
     public int getBlockId(int x, int y, int z) {
+        this.decode();
         return this.chunkData.get(x, y, z);
     }
 
     @Override
     public void set(int x, int y, int z, int state) {
+        this.decodeForModification();
         int curr = this.chunkData.set(x, y, z, state);
         if (state != AIR && curr == AIR) {
             this.blockCount++;
@@ -85,14 +149,18 @@ public class Chunk_v1_18 implements BaseChunk {
     }
 
     public void setBlockCount(int blockCount) {
+        this.decodeForModification();
         this.blockCount = blockCount;
     }
 
     public @NotNull DataPalette getChunkData() {
+        // The palette is mutable, so we can't tell if it will be modified
+        this.decodeForModification();
         return chunkData;
     }
 
     public @NotNull DataPalette getBiomeData() {
+        this.decodeForModification();
         return biomeData;
     }
-}
\ No newline at end of file
+}
@@ -18,14 +18,18 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 import com.github.retrooper.packetevents.protocol.world.chunk.storage.BaseStorage;
 import com.github.retrooper.packetevents.protocol.world.chunk.storage.BitStorage;
 import com.github.retrooper.packetevents.protocol.world.chunk.storage.LegacyFlexibleStorage;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.IntUnaryOperator;
+
 public class DataPalette {
 
     // this is the amount of bits required to store the biggest state id number
@@ -73,6 +77,48 @@ public class DataPalette {
         return new DataPalette(palette, storage, paletteType);
     }
 
+    public static DataPalette read(PacketWrapper<?> wrapper, PaletteType paletteType) {
+        return read(wrapper, paletteType, true);
+    }
+
+    /**
+     * Reads a palette and its storage straight from the buffer of the given wrapper,
+     * without copying the section data into an intermediate byte array first.
+     */
+    public static DataPalette read(PacketWrapper<?> wrapper, PaletteType paletteType, boolean allowSingletonPalette) {
+        int bitsPerEntry = wrapper.readByte();
+        Palette palette = readPalette(paletteType, bitsPerEntry, wrapper, allowSingletonPalette);
+        BitStorage storage;
+        if (!(palette instanceof SingletonPalette)) {
+            storage = new BitStorage(bitsPerEntry, paletteType.getStorageSize(), wrapper.readLongArray());
+        } else {
+            wrapper.readVarInt();
+            storage = null;
+        }
+
+        return new DataPalette(palette, storage, paletteType);
+    }
+
+    /**
+     * Moves the reader index of the wrapper past a palette and its storage without decoding them.
+     */
+    public static void skip(PacketWrapper<?> wrapper, PaletteType paletteType, boolean allowSingletonPalette) {
+        int bitsPerEntry = wrapper.readByte();
+        if (bitsPerEntry == 0 && allowSingletonPalette) {
+            wrapper.readVarInt(); // State
+            wrapper.readVarInt(); // Data length
+            return;
+        }
+        if (bitsPerEntry <= paletteType.getMaxBitsPerEntry()) {
+            int paletteLength = wrapper.readVarInt();
+            for (int i = 0; i < paletteLength; i++) {
+                wrapper.readVarInt();
+            }
+        }
+        int length = wrapper.readVarInt();
+        ByteBufHelper.skipBytes(wrapper.buffer, length * Long.BYTES);
+    }
+
     public static void write(NetStreamOutput out, DataPalette palette) {
         if (palette.palette instanceof SingletonPalette) {
             out.writeByte(0); // Bits per entry
@@ -160,6 +206,25 @@ public class DataPalette {
         }
     }
 
+    private static Palette readPalette(
+            PaletteType paletteType,
+            int bitsPerEntry,
+            PacketWrapper<?> wrapper,
+            boolean allowSingletonPalette
+    ) {
+        if (bitsPerEntry > paletteType.getMaxBitsPerEntry()) {
+            return new GlobalPalette();
+        }
+        if (bitsPerEntry == 0 && allowSingletonPalette) {
+            return new SingletonPalette(wrapper);
+        }
+        if (bitsPerEntry <= paletteType.getMinBitsPerEntry()) {
+            return new ListPalette(bitsPerEntry, wrapper);
+        } else {
+            return new MapPalette(bitsPerEntry, wrapper);
+        }
+    }
+
     private int sanitizeBitsPerEntry(int bitsPerEntry) {
         if (bitsPerEntry <= this.paletteType.getMaxBitsPerEntry()) {
             return Math.max(this.paletteType.getMinBitsPerEntry(), bitsPerEntry);
@@ -168,6 +233,79 @@ public class DataPalette {
         }
     }
 
+    /**
+     * Sets every entry to the given state in one pass.
+     */
+    public void fill(int state) {
+        int bitsPerEntry = this.paletteType.getMinBitsPerEntry();
+        this.palette = createPalette(bitsPerEntry, this.paletteType);
+        this.storage = this.createStorage(bitsPerEntry);
+        // The fresh storage only contains zeroes, which is the id of the first state
+        this.palette.stateToId(state);
+    }
+
+    /**
+     * Replaces every occurrence of a state with another one.
+     */
+    public void replace(int oldState, int newState) {
+        if (oldState != newState) {
+            this.replaceAll(state -> state == oldState ? newState : state);
+        }
+    }
+
+    /**
+     * Maps every entry through the given function, rewriting the palette and storage in one pass.
+     * The function is applied once per palette entry rather than once per block, unless the
+     * global palette is in use.
+     */
+    public void replaceAll(IntUnaryOperator mapper) {
+        Palette oldPalette = this.palette;
+        BaseStorage oldData = this.storage;
+        int size = this.paletteType.getStorageSize();
+
+        if (oldPalette instanceof SingletonPalette) {
+            this.palette = new SingletonPalette(mapper.applyAsInt(oldPalette.idToState(0)));
+            return;
+        }
+
+        if (oldPalette instanceof GlobalPalette) {
+            int[] states = new int[size];
+            int maxState = 0;
+            for (int i = 0; i < size; i++) {
+                states[i] = mapper.applyAsInt(oldData.get(i));
+                maxState = Math.max(maxState, states[i]);
+            }
+            // The storage holds the states directly, so it has to grow if a state doesn't fit anymore
+            int bitsPerEntry = Math.max(oldData.getBitsPerEntry(), 32 - Integer.numberOfLeadingZeros(maxState));
+            if (bitsPerEntry != oldData.getBitsPerEntry()) {
+                this.storage = this.createStorage(bitsPerEntry);
+            }
+            for (int i = 0; i < size; i++) {
+                this.storage.set(i, states[i]);
+            }
+            return;
+        }
+
+        // Map the palette entries, the new palette can only shrink, so it can never run out of ids
+        int paletteSize = oldPalette.size();
+        Palette newPalette = createPalette(oldData.getBitsPerEntry(), this.paletteType);
+        int[] remap = new int[paletteSize];
+        boolean identity = true;
+        for (int id = 0; id < paletteSize; id++) {
+            remap[id] = newPalette.stateToId(mapper.applyAsInt(oldPalette.idToState(id)));
+            identity &= remap[id] == id;
+        }
+
+        this.palette = newPalette;
+        if (!identity) {
+            for (int i = 0; i < size; i++) {
+                int id = oldData.get(i);
+                // Unknown ids resolve to state 0, just like idToState does
+                oldData.set(i, id < paletteSize ? remap[id] : newPalette.stateToId(mapper.applyAsInt(0)));
+            }
+        }
+    }
+
     private void resize() {
         Palette oldPalette = this.palette;
         BaseStorage oldData = this.storage;
@@ -179,12 +317,26 @@ public class DataPalette {
         if (oldPalette instanceof SingletonPalette) {
             this.palette.stateToId(oldPalette.idToState(0));
         } else {
+            // Translate each palette id once, instead of looking up every single entry
+            int paletteSize = oldPalette.size();
+            int[] remap = new int[paletteSize];
+            for (int id = 0; id < paletteSize; id++) {
+                remap[id] = this.palette.stateToId(oldPalette.idToState(id));
+            }
             for (int i = 0; i < paletteType.getStorageSize(); i++) {
-                this.storage.set(i, this.palette.stateToId(oldPalette.idToState(oldData.get(i))));
+                int id = oldData.get(i);
+                this.storage.set(i, id < paletteSize ? remap[id] : this.palette.stateToId(0));
             }
         }
     }
 
+    private BaseStorage createStorage(int bitsPerEntry) {
+        if (this.storage instanceof LegacyFlexibleStorage) {
+            return new LegacyFlexibleStorage(bitsPerEntry, this.paletteType.getStorageSize());
+        }
+        return new BitStorage(bitsPerEntry, this.paletteType.getStorageSize());
+    }
+
     private static Palette createPalette(int bitsPerEntry, PaletteType paletteType) {
         if (bitsPerEntry <= paletteType.getMinBitsPerEntry()) {
             return new ListPalette(bitsPerEntry);
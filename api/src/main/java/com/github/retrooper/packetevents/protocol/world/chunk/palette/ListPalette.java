@@ -25,6 +25,7 @@
 package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
 /**
  * A palette backed by a List.
@@ -52,6 +53,16 @@ public class ListPalette implements Palette {
         this.nextId = paletteLength;
     }
 
+    public ListPalette(int bitsPerEntry, PacketWrapper<?> wrapper) {
+        this(bitsPerEntry);
+
+        int paletteLength = wrapper.readVarInt();
+        for (int i = 0; i < paletteLength; i++) {
+            this.data[i] = wrapper.readVarInt();
+        }
+        this.nextId = paletteLength;
+    }
+
     @Override
     public int size() {
         return this.nextId;
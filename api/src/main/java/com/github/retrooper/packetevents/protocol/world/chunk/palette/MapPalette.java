@@ -25,8 +25,7 @@
 package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
-
-import java.util.HashMap;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
 /**
  * A palette backed by a map.
@@ -35,14 +34,22 @@ public class MapPalette implements Palette {
     private final int maxId;
 
     private final int[] idToState;
-    // TODO: Can we use fastutils here?
-    private final HashMap<Object, Integer> stateToId = new HashMap<>();
+    // Open addressing table from state to id, using linear probing.
+    // A slot stores id + 1, so zero marks an empty slot and no boxing is needed.
+    private final int[] stateKeys;
+    private final int[] stateIds;
+    private final int mask;
     private int nextId = 0;
 
     public MapPalette(int bitsPerEntry) {
         this.maxId = (1 << bitsPerEntry) - 1;
 
         this.idToState = new int[this.maxId + 1];
+        // The id count is a power of two, doubling it keeps the load factor at or below 0.5
+        int capacity = (this.maxId + 1) << 1;
+        this.stateKeys = new int[capacity];
+        this.stateIds = new int[capacity];
+        this.mask = capacity - 1;
     }
 
     public MapPalette(int bitsPerEntry, NetStreamInput in) {
@@ -52,11 +59,44 @@ public class MapPalette implements Palette {
         for (int i = 0; i < paletteLength; i++) {
             int state = in.readVarInt();
             this.idToState[i] = state;
-            this.stateToId.putIfAbsent(state, i);
+            this.putIfAbsent(state, i);
+        }
+        this.nextId = paletteLength;
+    }
+
+    public MapPalette(int bitsPerEntry, PacketWrapper<?> wrapper) {
+        this(bitsPerEntry);
+
+        int paletteLength = wrapper.readVarInt();
+        for (int i = 0; i < paletteLength; i++) {
+            int state = wrapper.readVarInt();
+            this.idToState[i] = state;
+            this.putIfAbsent(state, i);
         }
         this.nextId = paletteLength;
     }
 
+    private static int hash(int state) {
+        int h = state * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int slot(int state) {
+        int slot = hash(state) & this.mask;
+        while (this.stateIds[slot] != 0 && this.stateKeys[slot] != state) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    private void putIfAbsent(int state, int id) {
+        int slot = this.slot(state);
+        if (this.stateIds[slot] == 0) {
+            this.stateKeys[slot] = state;
+            this.stateIds[slot] = id + 1;
+        }
+    }
+
     @Override
     public int size() {
         return this.nextId;
@@ -64,18 +104,19 @@ public class MapPalette implements Palette {
 
     @Override
     public int stateToId(int state) {
-        Integer id = this.stateToId.get(state);
-        if (id == null && this.size() < this.maxId + 1) {
-            id = this.nextId++;
-            this.idToState[id] = state;
-            this.stateToId.put(state, id);
+        int slot = this.slot(state);
+        if (this.stateIds[slot] != 0) {
+            return this.stateIds[slot] - 1;
         }
 
-        if (id != null) {
+        if (this.size() < this.maxId + 1) {
+            int id = this.nextId++;
+            this.idToState[id] = state;
+            this.stateKeys[slot] = state;
+            this.stateIds[slot] = id + 1;
             return id;
-        } else {
-            return -1;
         }
+        return -1;
     }
 
     @Override
@@ -23,6 +23,7 @@ import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
 import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.ChunkReader;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionType;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
 import java.util.BitSet;
 
@@ -37,4 +38,28 @@ public class ChunkReader_v1_18 implements ChunkReader {
 
         return chunks;
     }
+
+    /**
+     * Reads the sections directly from the buffer of the given wrapper.
+     * The reader index of the wrapper is expected to point at the first section.
+     */
+    public BaseChunk[] read(PacketWrapper<?> wrapper, int chunkSize) {
+        return read(wrapper, chunkSize, false);
+    }
+
+    /**
+     * Reads the sections directly from the buffer of the given wrapper.
+     * If lazy is set, sections are only decoded once they are accessed.
+     *
+     * @see Chunk_v1_18#readLazily(PacketWrapper)
+     */
+    public BaseChunk[] read(PacketWrapper<?> wrapper, int chunkSize, boolean lazy) {
+        BaseChunk[] chunks = new BaseChunk[chunkSize];
+
+        for (int index = 0; index < chunkSize; ++index) {
+            chunks[index] = lazy ? Chunk_v1_18.readLazily(wrapper) : Chunk_v1_18.read(wrapper);
+        }
+
+        return chunks;
+    }
 }
@@ -23,7 +23,7 @@ public abstract class BaseStorage {
 
     public abstract int getBitsPerEntry();
 
-    abstract int getSize();
+    public abstract int getSize();
 
     public abstract int get(int index);
 
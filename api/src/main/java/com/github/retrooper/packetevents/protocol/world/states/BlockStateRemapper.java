@@ -0,0 +1,89 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.world.states;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.storage.BaseStorage;
+
+/**
+ * Translates global block state ids from one version to another using a precomputed table,
+ * without going through {@link WrappedBlockState} instances for every block.
+ * <p>
+ * The table is built from the loaded block mappings the first time a pair of versions is requested,
+ * creating more remappers for the same pair is cheap.
+ */
+public final class BlockStateRemapper {
+
+    private final ClientVersion from;
+    private final ClientVersion to;
+    private final int[] table;
+
+    private BlockStateRemapper(ClientVersion from, ClientVersion to, int[] table) {
+        this.from = from;
+        this.to = to;
+        this.table = table;
+    }
+
+    public static BlockStateRemapper create(ClientVersion from, ClientVersion to) {
+        return new BlockStateRemapper(from, to, WrappedBlockState.getTranslationTable(from, to));
+    }
+
+    public ClientVersion getFrom() {
+        return this.from;
+    }
+
+    public ClientVersion getTo() {
+        return this.to;
+    }
+
+    /**
+     * @return the global id on the target version, unknown ids are remapped to air
+     */
+    public int remap(int globalId) {
+        return globalId >= 0 && globalId < this.table.length ? this.table[globalId] : 0;
+    }
+
+    /**
+     * Remaps the given global ids in place.
+     */
+    public void remap(int[] globalIds) {
+        for (int i = 0; i < globalIds.length; i++) {
+            globalIds[i] = this.remap(globalIds[i]);
+        }
+    }
+
+    /**
+     * Remaps a storage which contains global ids directly, in place.
+     * The target ids have to fit into the bits per entry of the storage.
+     */
+    public void remap(BaseStorage storage) {
+        for (int i = 0, size = storage.getSize(); i < size; i++) {
+            storage.set(i, this.remap(storage.get(i)));
+        }
+    }
+
+    /**
+     * Remaps all states of a palette in place.
+     * Only the palette entries are remapped unless the global palette is in use.
+     */
+    public void remap(DataPalette palette) {
+        palette.replaceAll(this::remap);
+    }
+}
@@ -52,6 +52,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.github.retrooper.packetevents.util.adventure.AdventureIndexUtil.indexValueOrThrow;
 
@@ -70,6 +71,7 @@ public class WrappedBlockState {
 
     private static final byte[] MAPPING_INDEXES;
     private static final byte LEGACY_MAPPING_INDEX = 0;
+    private static final int MAPPING_INDEX_COUNT;
 
     static {
         // all versions where block state mappings were changed TODO UPDATE
@@ -91,11 +93,15 @@ public class WrappedBlockState {
             }
             MAPPING_INDEXES[version.ordinal()] = (byte) (LEGACY_MAPPING_INDEX + j);
         }
+        MAPPING_INDEX_COUNT = LEGACY_MAPPING_INDEX + mappingSteps.length + 1;
     }
 
     private static final WrappedBlockState AIR = new WrappedBlockState(StateTypes.AIR, new EnumMap<>(StateValue.class), 0, (byte) 0);
     private static final Map<Byte, Map<String, WrappedBlockState>> BY_STRING = new HashMap<>();
-    private static final Map<Byte, Map<Integer, WrappedBlockState>> BY_ID = new HashMap<>();
+    // Indexed by mappings index and then by global id, ids without a state are null
+    private static final WrappedBlockState[][] BY_ID = new WrappedBlockState[MAPPING_INDEX_COUNT][];
+    // Lazily built global id translation tables, indexed by source * MAPPING_INDEX_COUNT + target
+    private static final Map<Integer, int[]> TRANSLATIONS = new ConcurrentHashMap<>();
     private static final Map<Byte, Map<WrappedBlockState, String>> INTO_STRING = new HashMap<>();
     private static final Map<Byte, Map<WrappedBlockState, Integer>> INTO_ID = new HashMap<>();
     private static final Map<Byte, Map<StateType, WrappedBlockState>> DEFAULT_STATES = new HashMap<>();
@@ -129,6 +135,10 @@ public class WrappedBlockState {
     Map<StateValue, Object> data = new HashMap<>(0);
     boolean hasClonedData = false;
     byte mappingsIndex;
+    // The states loaded from the mappings, which are shared and can't be modified
+    private boolean interned;
+    // Only used by interned states, filled on demand by #with without locking
+    private volatile Map<StateValue, Map<Object, WrappedBlockState>> transitions;
 
     @Deprecated
     public WrappedBlockState(StateType type, String[] data, int globalID, byte mappingsIndex) {
@@ -241,8 +251,7 @@ public class WrappedBlockState {
     @NotNull
     public static WrappedBlockState getByGlobalId(ClientVersion version, int globalID, boolean clone) {
         if (globalID == 0) return AIR; // Hardcode for performance
-        byte mappingsIndex = getMappingsIndex(version);
-        final WrappedBlockState state = BY_ID.get(mappingsIndex).getOrDefault(globalID, AIR);
+        final WrappedBlockState state = getInterned(getMappingsIndex(version), globalID);
         return clone ? state.clone() : state;
     }
 
@@ -289,6 +298,73 @@ public class WrappedBlockState {
         return MAPPING_INDEXES[version.ordinal()];
     }
 
+    private static WrappedBlockState getInterned(byte mappingsIndex, int globalID) {
+        WrappedBlockState[] states = BY_ID[mappingsIndex];
+        if (globalID < 0 || globalID >= states.length) {
+            return AIR;
+        }
+        WrappedBlockState state = states[globalID];
+        return state != null ? state : AIR;
+    }
+
+    private static WrappedBlockState[] toIdArray(Map<Integer, WrappedBlockState> stateByIdMap) {
+        int maxId = 0;
+        for (int id : stateByIdMap.keySet()) {
+            maxId = Math.max(maxId, id);
+        }
+        WrappedBlockState[] states = new WrappedBlockState[maxId + 1];
+        for (Map.Entry<Integer, WrappedBlockState> entry : stateByIdMap.entrySet()) {
+            states[entry.getKey()] = entry.getValue();
+        }
+        return states;
+    }
+
+    /**
+     * Translates a global id from one version to another.
+     * States which don't exist on the target version are translated to the default state of
+     * their type, or to air if the type doesn't exist either.
+     */
+    public static int translateGlobalId(ClientVersion from, ClientVersion to, int globalID) {
+        int[] table = getTranslationTable(from, to);
+        return globalID >= 0 && globalID < table.length ? table[globalID] : 0;
+    }
+
+    /**
+     * Returns a table which maps every global id of the source version to the global id of the
+     * same state on the target version. The table is built once per pair of mapping versions and
+     * shared, so it must not be modified.
+     *
+     * @see #translateGlobalId(ClientVersion, ClientVersion, int)
+     */
+    @ApiStatus.Internal
+    public static int[] getTranslationTable(ClientVersion from, ClientVersion to) {
+        byte fromIndex = getMappingsIndex(from);
+        byte toIndex = getMappingsIndex(to);
+        return TRANSLATIONS.computeIfAbsent(fromIndex * MAPPING_INDEX_COUNT + toIndex,
+                key -> createTranslationTable(fromIndex, toIndex));
+    }
+
+    private static int[] createTranslationTable(byte fromIndex, byte toIndex) {
+        WrappedBlockState[] states = BY_ID[fromIndex];
+        Map<WrappedBlockState, Integer> targetIds = INTO_ID.get(toIndex);
+        Map<StateType, WrappedBlockState> targetDefaults = DEFAULT_STATES.get(toIndex);
+
+        int[] table = new int[states.length];
+        for (int id = 0; id < states.length; id++) {
+            WrappedBlockState state = states[id];
+            if (state == null) {
+                continue; // Unknown ids are air
+            }
+            Integer targetId = fromIndex == toIndex ? Integer.valueOf(id) : targetIds.get(state);
+            if (targetId == null) {
+                WrappedBlockState defaultState = targetDefaults.get(state.type);
+                targetId = defaultState != null ? defaultState.globalID : 0;
+            }
+            table[id] = targetId;
+        }
+        return table;
+    }
+
     private static void loadLegacy(Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache) {
         Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
         Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
@@ -365,6 +441,7 @@ public class WrappedBlockState {
 
                     String fullString = entry.getKey() + dataEntry.getValue();
                     WrappedBlockState state = new WrappedBlockState(type, dataEntry.getKey(), combinedID, (byte) 0);
+                    state.interned = true;
 
                     stateByIdMap.put(combinedID, state);
                     stateToStringMap.put(state, fullString);
@@ -380,7 +457,7 @@ public class WrappedBlockState {
                 }
             }
 
-            BY_ID.put(LEGACY_MAPPING_INDEX, stateByIdMap);
+            BY_ID[LEGACY_MAPPING_INDEX] = toIdArray(stateByIdMap);
             INTO_ID.put(LEGACY_MAPPING_INDEX, stateToIdMap);
             BY_STRING.put(LEGACY_MAPPING_INDEX, stateByStringMap);
             INTO_STRING.put(LEGACY_MAPPING_INDEX, stateToStringMap);
@@ -487,6 +564,7 @@ public class WrappedBlockState {
 
                         String fullString = typeString + dataEntry.getValue();
                         WrappedBlockState state = new WrappedBlockState(type, dataEntry.getKey(), id, mappingIndex);
+                        state.interned = true;
 
                         if (defaultIdx == index) {
                             stateTypeToBlockStateMap.put(type, state);
@@ -502,7 +580,7 @@ public class WrappedBlockState {
                     }
                 }
 
-                BY_ID.put(mappingIndex, stateByIdMap);
+                BY_ID[mappingIndex] = toIdArray(stateByIdMap);
                 INTO_ID.put(mappingIndex, stateToIdMap);
                 BY_STRING.put(mappingIndex, stateByStringMap);
                 INTO_STRING.put(mappingIndex, stateToStringMap);
@@ -1435,6 +1513,9 @@ public class WrappedBlockState {
      * Cloning on every wrapped block state is too expensive.
      */
     private void checkIfCloneNeeded() {
+        if (interned) {
+            throw new UnsupportedOperationException("Interned block states can't be modified, clone them first");
+        }
         if (!hasClonedData) {
             data = new HashMap<>(data);
             hasClonedData = true;
@@ -1451,7 +1532,7 @@ public class WrappedBlockState {
         int oldGlobalID = globalID;
         globalID = getGlobalIdNoCache();
         if (globalID == -1) { // -1 maps to no block as negative ID are impossible
-            WrappedBlockState blockState = BY_ID.get(mappingsIndex).getOrDefault(oldGlobalID, AIR).clone();
+            WrappedBlockState blockState = getInterned(mappingsIndex, oldGlobalID).clone();
             this.type = blockState.type;
             this.globalID = blockState.globalID;
             this.data = new HashMap<>(blockState.data);
@@ -1468,6 +1549,56 @@ public class WrappedBlockState {
         }
     }
 
+    /**
+     * Returns the state which only differs from this state in the given property.
+     * <p>
+     * Unlike the setters, this neither clones nor modifies anything. The returned state is
+     * interned, the same instance {@link #getByGlobalId(ClientVersion, int, boolean)} returns without
+     * cloning, and its setters throw an {@link UnsupportedOperationException}. Transitions are looked up once and then remembered.
+     * If the change doesn't result in a valid state, the interned version of this state is returned.
+     *
+     * @param property the property to change
+     * @param value    the new value of the property
+     * @return the interned state with the changed property
+     */
+    public WrappedBlockState with(StateValue property, Object value) {
+        return getInterned(this.mappingsIndex, this.globalID).transition(property, value);
+    }
+
+    private WrappedBlockState transition(StateValue property, Object value) {
+        // Transitions always resolve to the same state, so losing a racing lookup only costs a second lookup
+        Map<StateValue, Map<Object, WrappedBlockState>> transitions = this.transitions;
+        if (transitions == null) {
+            transitions = new ConcurrentHashMap<>(4);
+            this.transitions = transitions;
+        }
+        Map<Object, WrappedBlockState> byValue = transitions.get(property);
+        if (byValue == null) {
+            byValue = new ConcurrentHashMap<>(4);
+            Map<Object, WrappedBlockState> existing = transitions.putIfAbsent(property, byValue);
+            if (existing != null) {
+                byValue = existing;
+            }
+        }
+        WrappedBlockState target = byValue.get(value);
+        if (target == null) {
+            Map<StateValue, Object> data = new HashMap<>(this.data);
+            data.put(property, value);
+            Integer id = INTO_ID.get(this.mappingsIndex).get(new WrappedBlockState(this.type, data, 0, this.mappingsIndex));
+            target = id != null ? getInterned(this.mappingsIndex, id) : this;
+            byValue.put(value, target);
+        }
+        return target;
+    }
+
+    /**
+     * @return true if this state is shared and can't be modified
+     * @see #with(StateValue, Object)
+     */
+    public boolean isInterned() {
+        return interned;
+    }
+
     /**
      * This method is helpful if you want to check if a block can be
      * waterlogged, or has other properties.
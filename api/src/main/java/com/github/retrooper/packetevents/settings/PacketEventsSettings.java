@@ -40,6 +40,11 @@ public class PacketEventsSettings {
     private boolean fullStackTraceEnabled = false;
     private boolean kickOnPacketExceptionEnabled = true;
     private boolean kickIfTerminated = true;
+    private boolean reuseEvents = false;
+    private boolean lazyChunkDecoding = false;
+    private boolean skipUnhandledPackets = false;
+    private boolean lazyPacketDecoding = false;
+    private boolean internItemStacks = false;
     private Function<String, InputStream> resourceProvider = path -> PacketEventsSettings.class
             .getClassLoader()
             .getResourceAsStream(path);
@@ -152,6 +157,74 @@ public class PacketEventsSettings {
         return this;
     }
 
+    /**
+     * This decides if PacketEvents should recycle packet event instances per connection instead of
+     * allocating a new event for every packet.
+     * If enabled, listeners must {@link com.github.retrooper.packetevents.event.ProtocolPacketEvent#clone()}
+     * events they keep a reference to after processing them.
+     *
+     * @param reuseEvents Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings reuseEvents(boolean reuseEvents) {
+        this.reuseEvents = reuseEvents;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should only decode chunk sections (1.18+) once they are accessed.
+     * Sections which haven't been modified are written back without encoding them again.
+     *
+     * @param lazyChunkDecoding Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings lazyChunkDecoding(boolean lazyChunkDecoding) {
+        this.lazyChunkDecoding = lazyChunkDecoding;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should pass packets on without calling any event,
+     * if no registered listener is interested in their packet type.
+     * Only has an effect if listeners declare the packet types they process, see
+     * {@link com.github.retrooper.packetevents.event.PacketListenerCommon#getPacketTypes()}.
+     *
+     * @param skipUnhandledPackets Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings skipUnhandledPackets(boolean skipUnhandledPackets) {
+        this.skipUnhandledPackets = skipUnhandledPackets;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should keep expensive fields of some wrappers
+     * (like the registries of the join game packet, recipes or tags) encoded until they are accessed.
+     * Fields which haven't been accessed are written back without encoding them again.
+     *
+     * @param lazyPacketDecoding Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings lazyPacketDecoding(boolean lazyPacketDecoding) {
+        this.lazyPacketDecoding = lazyPacketDecoding;
+        return this;
+    }
+
+    /**
+     * This decides if PacketEvents should share the item stacks it reads from 1.20.5+ packets,
+     * as long as they don't patch any components. Shared item stacks are immutable,
+     * use {@link com.github.retrooper.packetevents.protocol.item.ItemStack#copy()} to modify them.
+     *
+     * @param internItemStacks Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings internItemStacks(boolean internItemStacks) {
+        this.internItemStacks = internItemStacks;
+        return this;
+    }
+
     /**
      * Some projects may want to implement a CDN with resources like asset mappings
      * By default, all resources are retrieved from the ClassLoader
@@ -241,6 +314,51 @@ public class PacketEventsSettings {
         return kickIfTerminated;
     }
 
+    /**
+     * Should packetevents recycle packet events?
+     *
+     * @return Getter for {@link #reuseEvents}
+     */
+    public boolean isReuseEvents() {
+        return reuseEvents;
+    }
+
+    /**
+     * Should packetevents decode chunk sections lazily?
+     *
+     * @return Getter for {@link #lazyChunkDecoding}
+     */
+    public boolean isLazyChunkDecoding() {
+        return lazyChunkDecoding;
+    }
+
+    /**
+     * Should packetevents skip packets no listener is interested in?
+     *
+     * @return Getter for {@link #skipUnhandledPackets}
+     */
+    public boolean isSkipUnhandledPackets() {
+        return skipUnhandledPackets;
+    }
+
+    /**
+     * Should packetevents decode expensive wrapper fields lazily?
+     *
+     * @return Getter for {@link #lazyPacketDecoding}
+     */
+    public boolean isLazyPacketDecoding() {
+        return lazyPacketDecoding;
+    }
+
+    /**
+     * Should packetevents share unpatched item stacks it reads?
+     *
+     * @return Getter for {@link #internItemStacks}
+     */
+    public boolean isInternItemStacks() {
+        return internItemStacks;
+    }
+
     /**
      * As described above, this method retrieves the function that acquires the InputStream
      * of a desired resource by its path.
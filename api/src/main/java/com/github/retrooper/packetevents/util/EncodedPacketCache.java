@@ -0,0 +1,173 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util;
+
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.util.PacketBroadcastUtil.ProtocolKey;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the encoded form of packets which are resent often with the same content,
+ * so they only have to be encoded once per distinct protocol of the recipients.
+ * <p>
+ * Entries are identified by a key describing the content of the packet, chosen by the caller.
+ * The least recently used entries are evicted once the cache is full.
+ * Cached buffers are never handed out directly: every send gets a retained duplicate if it's sent silently,
+ * or its own copy otherwise, as our own encoder may rewrite the buffer in place.
+ * Evicting an entry only releases the reference held by the cache.
+ */
+@ApiStatus.Internal
+public final class EncodedPacketCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 512;
+
+    private final int maxEntries;
+    private final Map<CacheKey, Object[]> entries;
+
+    public EncodedPacketCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true);
+    }
+
+    /**
+     * Writes a cached packet to a channel, encoding it first if it isn't cached yet.
+     *
+     * @param protocolManager The protocol manager used to write the packet
+     * @param channel         The channel
+     * @param key             Identifies the content of the packet
+     * @param wrapper         Creates the packet if it isn't cached
+     * @param silently        Whether our packet listeners should process the packet
+     */
+    public void send(ProtocolManager protocolManager, Object channel, Object key,
+                     Supplier<? extends PacketWrapper<?>> wrapper, boolean silently) {
+        ProtocolKey protocol = ProtocolKey.of(protocolManager, channel);
+        if (protocol == null) {
+            // Not injected (yet), nothing to share
+            protocolManager.sendPacket(channel, wrapper.get());
+            return;
+        }
+        CacheKey cacheKey = new CacheKey(key, protocol);
+        Object[] buffers = this.acquire(cacheKey, silently);
+        if (buffers == null) {
+            // Encoding may be slow, don't hold the lock in the meantime
+            Object[] encoded = protocolManager.transformWrappers(wrapper.get(), channel, true);
+            buffers = this.store(cacheKey, encoded, silently);
+        }
+        for (Object buffer : buffers) {
+            if (silently) {
+                protocolManager.sendPacketSilently(channel, buffer);
+            } else {
+                protocolManager.sendPacket(channel, buffer);
+            }
+        }
+    }
+
+    /**
+     * Removes all cached encodings of the packet with the given key,
+     * has to be called once the content described by the key changes.
+     */
+    public synchronized void invalidate(Object key) {
+        Iterator<Map.Entry<CacheKey, Object[]>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, Object[]> entry = iterator.next();
+            if (entry.getKey().key.equals(key)) {
+                release(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        for (Object[] buffers : this.entries.values()) {
+            release(buffers);
+        }
+        this.entries.clear();
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    // Hands out buffers the caller owns, while we still know the cached ones haven't been released
+    private synchronized Object[] acquire(CacheKey key, boolean silently) {
+        Object[] cached = this.entries.get(key);
+        return cached == null ? null : share(cached, silently);
+    }
+
+    private synchronized Object[] store(CacheKey key, Object[] encoded, boolean silently) {
+        Object[] previous = this.entries.put(key, encoded);
+        if (previous != null) {
+            // Someone else encoded the same packet concurrently
+            release(previous);
+        }
+        if (this.entries.size() > this.maxEntries) {
+            Iterator<Object[]> eldest = this.entries.values().iterator();
+            release(eldest.next());
+            eldest.remove();
+        }
+        return share(encoded, silently);
+    }
+
+    private static Object[] share(Object[] cached, boolean silently) {
+        Object[] shared = new Object[cached.length];
+        for (int i = 0; i < cached.length; i++) {
+            // Listeners may modify the packet, which is re-encoded into the same buffer
+            shared[i] = silently ? ByteBufHelper.retainedDuplicate(cached[i]) : ByteBufHelper.copy(cached[i]);
+        }
+        return shared;
+    }
+
+    private static void release(Object[] buffers) {
+        for (Object buffer : buffers) {
+            ByteBufHelper.release(buffer);
+        }
+    }
+
+    private static final class CacheKey {
+
+        private final Object key;
+        private final ProtocolKey protocol;
+
+        private CacheKey(Object key, ProtocolKey protocol) {
+            this.key = key;
+            this.protocol = protocol;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof CacheKey)) return false;
+            CacheKey that = (CacheKey) obj;
+            return this.key.equals(that.key) && this.protocol.equals(that.protocol);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.key, this.protocol);
+        }
+    }
+}
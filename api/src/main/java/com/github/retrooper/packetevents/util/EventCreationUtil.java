@@ -18,15 +18,50 @@
 
 package com.github.retrooper.packetevents.util;
 
+import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.event.simple.*;
 import com.github.retrooper.packetevents.exception.PacketProcessException;
 import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
 public class EventCreationUtil {
     public static PacketReceiveEvent createReceiveEvent(Object channel, User user, Object player, Object buffer,
                                                         boolean autoProtocolTranslation) throws PacketProcessException {
+        if (PacketEvents.getAPI().getSettings().isReuseEvents()) {
+            return user.getEventPool().acquireReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+        }
+        return newReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+    }
+
+    public static PacketSendEvent createSendEvent(Object channel, User user, Object player, Object buffer,
+                                                  boolean autoProtocolTranslation) throws PacketProcessException {
+        if (PacketEvents.getAPI().getSettings().isReuseEvents()) {
+            return user.getEventPool().acquireSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+        }
+        return newSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+    }
+
+    /**
+     * Hands a processed event back to the pool of its connection, if events are being reused.
+     *
+     * @param event The processed event
+     */
+    public static void releaseEvent(ProtocolPacketEvent event) {
+        // The buffer is passed on or released after this, wrappers kept by listeners mustn't copy from it anymore
+        PacketWrapper<?> wrapper = event.getLastUsedWrapper();
+        if (wrapper != null) {
+            wrapper.releaseRawFields();
+        }
+        if (!event.isClone() && PacketEvents.getAPI().getSettings().isReuseEvents()) {
+            event.getUser().getEventPool().release(event);
+        }
+    }
+
+    public static PacketReceiveEvent newReceiveEvent(Object channel, User user, Object player, Object buffer,
+                                                     boolean autoProtocolTranslation) throws PacketProcessException {
         switch (user.getDecoderState()) {
             case HANDSHAKING:
                 return new PacketHandshakeReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -42,8 +77,8 @@ public class EventCreationUtil {
         throw new RuntimeException("Unknown connection state " + user.getDecoderState() + "!");
     }
 
-    public static PacketSendEvent createSendEvent(Object channel, User user, Object player, Object buffer,
-                                                  boolean autoProtocolTranslation) throws PacketProcessException{
+    public static PacketSendEvent newSendEvent(Object channel, User user, Object player, Object buffer,
+                                               boolean autoProtocolTranslation) throws PacketProcessException {
         switch (user.getEncoderState()) {
             case HANDSHAKING:
                 return new PacketHandshakeSendEvent(channel, user, player, buffer, autoProtocolTranslation);
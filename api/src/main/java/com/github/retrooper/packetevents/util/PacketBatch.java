@@ -0,0 +1,96 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util;
+
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.util.PacketBroadcastUtil.ProtocolKey;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes packets to many channels without flushing them, then flushes every channel once.
+ * <p>
+ * Every wrapper is only encoded once per distinct protocol of the channels it's written to,
+ * so the same wrapper instance should be reused for all channels receiving the same packet.
+ * Just like {@link PacketBroadcastUtil}, silently written packets share the encoded buffer,
+ * while others get their own copy.
+ * A batch is meant to be used by a single thread and discarded after {@link #flush()}.
+ */
+@ApiStatus.Internal
+public final class PacketBatch {
+
+    private final ProtocolManager protocolManager;
+    private final boolean silently;
+    // Every channel we've written to, mapped to its protocol. Null if the channel isn't injected.
+    private final Map<Object, ProtocolKey> channels = new LinkedHashMap<>();
+    private final Map<PacketWrapper<?>, Map<ProtocolKey, Object[]>> encoded = new IdentityHashMap<>();
+
+    public PacketBatch(ProtocolManager protocolManager, boolean silently) {
+        this.protocolManager = protocolManager;
+        this.silently = silently;
+    }
+
+    public void write(Object channel, PacketWrapper<?> wrapper) {
+        ProtocolKey protocol = this.channels.computeIfAbsent(channel,
+                key -> ProtocolKey.of(this.protocolManager, key));
+        if (protocol == null) {
+            return;
+        }
+        Map<ProtocolKey, Object[]> encodings = this.encoded.computeIfAbsent(wrapper, key -> new HashMap<>(2));
+        Object[] buffers = encodings.get(protocol);
+        if (buffers == null) {
+            buffers = this.protocolManager.transformWrappers(wrapper, channel, true);
+            encodings.put(protocol, buffers);
+        }
+        for (Object buffer : buffers) {
+            if (this.silently) {
+                this.protocolManager.writePacketSilently(channel, ByteBufHelper.retainedDuplicate(buffer));
+            } else {
+                this.protocolManager.writePacket(channel, ByteBufHelper.copy(buffer));
+            }
+        }
+    }
+
+    /**
+     * Flushes every channel which has been written to and releases the encoded packets.
+     */
+    public void flush() {
+        for (Map<ProtocolKey, Object[]> encodings : this.encoded.values()) {
+            for (Object[] buffers : encodings.values()) {
+                for (Object buffer : buffers) {
+                    ByteBufHelper.release(buffer);
+                }
+            }
+        }
+        this.encoded.clear();
+        for (Object channel : this.channels.keySet()) {
+            if (ChannelHelper.isOpen(channel)) {
+                ChannelHelper.flush(channel);
+            }
+        }
+        this.channels.clear();
+    }
+}
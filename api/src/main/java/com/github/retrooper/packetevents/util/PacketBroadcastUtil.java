@@ -0,0 +1,139 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Sends one packet to many channels, encoding it once per distinct protocol instead of once per channel.
+ * <p>
+ * On servers, packets are always encoded with the server version, so a single encode is shared by all recipients.
+ * On proxies, recipients are grouped by their client version and connection state.
+ * Every recipient gets a retained duplicate of the shared buffer if the packet is sent silently.
+ * Otherwise, every recipient gets its own copy of the encoded bytes, as our own encoder may rewrite the
+ * buffer in place for that recipient's listeners.
+ * All packets are written first and every channel is flushed once at the end.
+ */
+@ApiStatus.Internal
+public final class PacketBroadcastUtil {
+
+    private PacketBroadcastUtil() {
+    }
+
+    public static void broadcast(ProtocolManager protocolManager, Collection<?> channels,
+                                 PacketWrapper<?> wrapper, boolean silently) {
+        if (channels.isEmpty()) {
+            return;
+        }
+        Map<ProtocolKey, List<Object>> groups = groupChannels(protocolManager, channels);
+        for (List<Object> group : groups.values()) {
+            Object[] buffers = protocolManager.transformWrappers(wrapper, group.get(0), true);
+            try {
+                for (Object channel : group) {
+                    for (Object buffer : buffers) {
+                        Object shared = silently ? ByteBufHelper.retainedDuplicate(buffer) : ByteBufHelper.copy(buffer);
+                        if (silently) {
+                            protocolManager.writePacketSilently(channel, shared);
+                        } else {
+                            protocolManager.writePacket(channel, shared);
+                        }
+                    }
+                }
+            } finally {
+                for (Object buffer : buffers) {
+                    ByteBufHelper.release(buffer);
+                }
+            }
+        }
+        for (List<Object> group : groups.values()) {
+            for (Object channel : group) {
+                if (ChannelHelper.isOpen(channel)) {
+                    ChannelHelper.flush(channel);
+                }
+            }
+        }
+    }
+
+    private static Map<ProtocolKey, List<Object>> groupChannels(ProtocolManager protocolManager, Collection<?> channels) {
+        Map<ProtocolKey, List<Object>> groups = new HashMap<>();
+        if (!PacketEvents.getAPI().getInjector().isProxy()) {
+            // Packets are encoded for the server version, regardless of the recipient
+            groups.put(ProtocolKey.SERVER, new ArrayList<>(channels));
+            return groups;
+        }
+        for (Object channel : channels) {
+            ProtocolKey key = ProtocolKey.of(protocolManager, channel);
+            if (key != null) {
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(channel);
+            }
+        }
+        return groups;
+    }
+
+    // Channels with the same key get the same encoded packets
+    static final class ProtocolKey {
+
+        static final ProtocolKey SERVER = new ProtocolKey(null, null);
+
+        private final ClientVersion version;
+        private final ConnectionState state;
+
+        private ProtocolKey(ClientVersion version, ConnectionState state) {
+            this.version = version;
+            this.state = state;
+        }
+
+        static @Nullable ProtocolKey of(ProtocolManager protocolManager, Object channel) {
+            if (!PacketEvents.getAPI().getInjector().isProxy()) {
+                return SERVER;
+            }
+            User user = protocolManager.getUser(channel);
+            return user == null ? null : new ProtocolKey(user.getClientVersion(), user.getConnectionState());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ProtocolKey)) return false;
+            ProtocolKey that = (ProtocolKey) obj;
+            return this.version == that.version && this.state == that.state;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.version, this.state);
+        }
+    }
+}
@@ -25,7 +25,9 @@ import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.event.UserDisconnectEvent;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
 import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import org.jetbrains.annotations.Nullable;
 
@@ -55,35 +57,17 @@ public final class PacketEventsImplHelper {
             return null;
         }
 
-        int preProcessIndex = ByteBufHelper.readerIndex(buffer);
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation);
-        int processIndex = ByteBufHelper.readerIndex(buffer);
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> {
-            ByteBufHelper.readerIndex(buffer, processIndex);
-        });
-        if (!packetSendEvent.isCancelled()) {
-            //Did they ever use a wrapper?
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                //Rewrite the buffer
-                ByteBufHelper.clear(buffer);
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
-            } else {
-                //If no wrappers were used, just pass on the original buffer.
-                //Correct the reader index, basically what the next handler is expecting.
-                ByteBufHelper.readerIndex(buffer, preProcessIndex);
-            }
-        } else {
-            //Make the buffer unreadable for the next handlers
-            ByteBufHelper.clear(buffer);
+        if (isUnhandled(user, buffer, PacketSide.SERVER, autoProtocolTranslation)) {
+            return null;
         }
 
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
-            }
+        int preProcessIndex = ByteBufHelper.readerIndex(buffer);
+        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+        try {
+            handleEvent(packetSendEvent, buffer, preProcessIndex);
+        } finally {
+            EventCreationUtil.releaseEvent(packetSendEvent);
         }
-
         return packetSendEvent;
     }
 
@@ -95,19 +79,67 @@ public final class PacketEventsImplHelper {
             return null;
         }
 
+        if (isUnhandled(user, buffer, PacketSide.CLIENT, autoProtocolTranslation)) {
+            return null;
+        }
+
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
         PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+        try {
+            handleEvent(packetReceiveEvent, buffer, preProcessIndex);
+        } finally {
+            EventCreationUtil.releaseEvent(packetReceiveEvent);
+        }
+        return packetReceiveEvent;
+    }
+
+    /**
+     * Checks if a packet can be passed on untouched, without creating an event for it.
+     * This is only the case if {@link com.github.retrooper.packetevents.settings.PacketEventsSettings#skipUnhandledPackets(boolean)}
+     * is enabled and no listener is interested in the packet. The reader index of the buffer is left unchanged.
+     *
+     * @param user                    The user of the connection
+     * @param buffer                  The packet buffer, starting with the packet id
+     * @param side                    The side sending the packet
+     * @param autoProtocolTranslation Whether the packet uses the server's protocol version
+     * @return true if no event has to be called for the packet
+     */
+    public static boolean isUnhandled(User user, Object buffer, PacketSide side, boolean autoProtocolTranslation) {
+        if (!PacketEvents.getAPI().getSettings().isSkipUnhandledPackets()) {
+            return false;
+        }
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
+        int packetId;
+        try {
+            packetId = ByteBufHelper.readVarInt(buffer);
+        } catch (Exception ex) {
+            // Let the event report the malformed packet
+            return false;
+        } finally {
+            ByteBufHelper.readerIndex(buffer, readerIndex);
+        }
+        // Resolve the version the same way ProtocolPacketEvent does
+        ClientVersion version;
+        if (autoProtocolTranslation || user.getClientVersion() == null) {
+            version = PacketEvents.getAPI().getServerManager().getVersion().toClientVersion();
+        } else {
+            version = user.getClientVersion().toServerVersion().toClientVersion();
+        }
+        ConnectionState state = side == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
+        return !PacketEvents.getAPI().getEventManager().hasListeners(side, state, version, packetId);
+    }
+
+    private static void handleEvent(ProtocolPacketEvent event, Object buffer, int preProcessIndex) {
         int processIndex = ByteBufHelper.readerIndex(buffer);
-        PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> {
-            ByteBufHelper.readerIndex(buffer, processIndex);
-        });
-        if (!packetReceiveEvent.isCancelled()) {
+        PacketEvents.getAPI().getEventManager().callEvent(event, buffer, processIndex);
+        if (!event.isCancelled()) {
             //Did they ever use a wrapper?
-            if (packetReceiveEvent.getLastUsedWrapper() != null) {
-                //Rewrite the buffer
+            if (event.getLastUsedWrapper() != null) {
+                //Rewrite the buffer, unmodified fields have to be copied from it first
+                event.getLastUsedWrapper().detachRawFields();
                 ByteBufHelper.clear(buffer);
-                packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
-                packetReceiveEvent.getLastUsedWrapper().write();
+                event.getLastUsedWrapper().writeVarInt(event.getPacketId());
+                event.getLastUsedWrapper().write();
             } else {
                 //If no wrappers were used, just pass on the original buffer.
                 //Correct the reader index, basically what the next handler is expecting.
@@ -117,12 +149,12 @@ public final class PacketEventsImplHelper {
             //Cancelling the packet, lets clear the buffer
             ByteBufHelper.clear(buffer);
         }
-        if (packetReceiveEvent.hasPostTasks()) {
-            for (Runnable task : packetReceiveEvent.getPostTasks()) {
+
+        if (event.hasPostTasks()) {
+            for (Runnable task : event.getPostTasks()) {
                 task.run();
             }
         }
-        return packetReceiveEvent;
     }
 
     public static void handleDisconnection(Object channel, @Nullable UUID uuid) {
@@ -23,6 +23,8 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 public class VersionMapper {
     private final ClientVersion[] versions;
     private final ClientVersion[] reversedVersions;
+    //Precomputed indices, indexed by the ClientVersion ordinal
+    private final int[] indices;
 
     public VersionMapper(ClientVersion... versions) {
         this.versions = versions;
@@ -32,6 +34,11 @@ public class VersionMapper {
             reversedVersions[index] = versions[i];
             index++;
         }
+        ClientVersion[] allVersions = ClientVersion.values();
+        indices = new int[allVersions.length];
+        for (ClientVersion version : allVersions) {
+            indices[version.ordinal()] = computeIndex(version);
+        }
     }
 
     public ClientVersion[] getVersions() {
@@ -43,6 +50,10 @@ public class VersionMapper {
     }
 
     public int getIndex(ClientVersion version) {
+        return indices[version.ordinal()];
+    }
+
+    private int computeIndex(ClientVersion version) {
         int index = reversedVersions.length - 1;
         for (ClientVersion v : reversedVersions) {
             if (version.isNewerThanOrEquals(v)) {
@@ -117,39 +117,7 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
 
         String translate = reader.readUTF("translate", Function.identity());
         String translateFallback = reader.readUTF("fallback", Function.identity());
-        List<? extends ComponentLike> translateWith;
-        if (BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
-            NBTType<?> type = reader.type("with");
-            if (type == NBTType.INT_ARRAY) {
-                translateWith = reader.readIntArray("with", params -> {
-                    List<TranslationArgument> args = new ArrayList<>(params.length);
-                    for (int param : params) {
-                        args.add(TranslationArgument.numeric(param));
-                    }
-                    return args;
-                });
-            } else if (type == NBTType.BYTE_ARRAY) {
-                translateWith = reader.readByteArray("with", params -> {
-                    List<TranslationArgument> args = new ArrayList<>(params.length);
-                    for (byte param : params) {
-                        args.add(TranslationArgument.bool(param != (byte) 0));
-                    }
-                    return args;
-                });
-            } else if (type == NBTType.LONG_ARRAY) {
-                translateWith = reader.readLongArray("with", params -> {
-                    List<TranslationArgument> args = new ArrayList<>(params.length);
-                    for (long param : params) {
-                        args.add(TranslationArgument.numeric(param));
-                    }
-                    return args;
-                });
-            } else {
-                translateWith = reader.readList("with", this::deserializeTranslationArgumentList);
-            }
-        } else {
-            translateWith = reader.readList("with", this::deserializeComponentList);
-        }
+        List<? extends ComponentLike> translateWith = reader.read("with", this::deserializeTranslationArguments);
         NBTReader score = reader.child("score");
         String selector = reader.readUTF("selector", Function.identity());
         String keybind = reader.readUTF("keybind", Function.identity());
@@ -491,7 +459,7 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
     // -------------------------------------------------
 
     // ------------------- TextColor -------------------
-    private @Nullable TextColor deserializeColor(final @NotNull String value) {
+    @Nullable TextColor deserializeColor(final @NotNull String value) {
         final TextColor color;
         if (value.startsWith(TextColor.HEX_PREFIX)) {
             color = TextColor.fromHexString(value);
@@ -505,7 +473,7 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
     }
 
     @SuppressWarnings("ConstantConditions")
-    private @NotNull String serializeColor(final @NotNull TextColor value) {
+    @NotNull String serializeColor(final @NotNull TextColor value) {
         if (value instanceof NamedTextColor) {
             return NamedTextColor.NAMES.key((NamedTextColor) value);
         } else if (this.downsampleColor) {
@@ -538,6 +506,37 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
     // -------------------------------------------------
 
     // ------------ TranslationArgument List ------------
+    // Translation arguments may be sent as any kind of list or array
+    @NotNull List<? extends ComponentLike> deserializeTranslationArguments(NBT input) {
+        if (!BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
+            return this.deserializeComponentList(requireType(input, NBTType.LIST).getTags());
+        }
+        NBTType<?> type = input.getType();
+        if (type == NBTType.INT_ARRAY) {
+            int[] params = ((NBTIntArray) input).getValue();
+            List<TranslationArgument> args = new ArrayList<>(params.length);
+            for (int param : params) {
+                args.add(TranslationArgument.numeric(param));
+            }
+            return args;
+        } else if (type == NBTType.BYTE_ARRAY) {
+            byte[] params = ((NBTByteArray) input).getValue();
+            List<TranslationArgument> args = new ArrayList<>(params.length);
+            for (byte param : params) {
+                args.add(TranslationArgument.bool(param != (byte) 0));
+            }
+            return args;
+        } else if (type == NBTType.LONG_ARRAY) {
+            long[] params = ((NBTLongArray) input).getValue();
+            List<TranslationArgument> args = new ArrayList<>(params.length);
+            for (long param : params) {
+                args.add(TranslationArgument.numeric(param));
+            }
+            return args;
+        }
+        return this.deserializeTranslationArgumentList(requireType(input, NBTType.LIST).getTags());
+    }
+
     private @NotNull List<TranslationArgument> deserializeTranslationArgumentList(List<?> value) {
         if (value.isEmpty()) return Collections.emptyList();
 
@@ -0,0 +1,525 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.adventure;
+
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTNumber;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTReader;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTWriter;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.BlockNBTComponent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentBuilder;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.EntityNBTComponent;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.NBTComponent;
+import net.kyori.adventure.text.ScoreComponent;
+import net.kyori.adventure.text.SelectorComponent;
+import net.kyori.adventure.text.StorageNBTComponent;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.TranslationArgument;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.ShadowColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.BackwardCompatUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads and writes components directly from and to their binary nbt encoding,
+ * without building an nbt tree in between.
+ * <p>
+ * The produced components and bytes are the same as with {@link AdventureNBTSerializer}, which stays the reference
+ * implementation. Rarely used parts, like item and entity hover events or translation arguments sent as arrays,
+ * are still handed over to it as nbt trees.
+ */
+public class AdventureNBTStreamCodec {
+
+    // Same order as the reference implementation writes them in
+    private static final TextDecoration[] DECORATIONS = TextDecoration.NAMES.values().toArray(new TextDecoration[0]);
+
+    private final AdventureNBTSerializer reference;
+
+    public AdventureNBTStreamCodec(AdventureNBTSerializer reference) {
+        this.reference = reference;
+    }
+
+    // -------------------- Reading --------------------
+    public @NotNull Component read(NBTLimiter limiter, Object buffer, boolean named) {
+        ByteBufNBTReader.Cursor tag = ByteBufNBTReader.openTag(limiter, buffer, named);
+        if (tag.getType() == NBTType.END) {
+            throw new IllegalStateException("Expected component but got " + NBTType.END);
+        }
+        return this.readComponent(tag);
+    }
+
+    private Component readComponent(ByteBufNBTReader.Cursor tag) {
+        NBTType<?> type = tag.getType();
+        if (type == NBTType.STRING) {
+            return Component.text(tag.readString());
+        }
+        if (type == NBTType.COMPOUND) {
+            return this.readComponentEntries(tag.readCompound());
+        }
+        // Serialized as boolean or number
+        return this.reference.deserialize(tag.read());
+    }
+
+    @SuppressWarnings("PatternValidation")
+    private Component readComponentEntries(ByteBufNBTReader.Compound compound) {
+        String text = null;
+        String unnamedText = null;
+        String translate = null;
+        String translateFallback = null;
+        List<? extends ComponentLike> translateWith = null;
+        boolean score = false;
+        String scoreName = null;
+        String scoreObjective = null;
+        String selector = null;
+        String keybind = null;
+        String nbt = null;
+        boolean nbtInterpret = false;
+        BlockNBTComponent.Pos nbtBlock = null;
+        String nbtEntity = null;
+        Key nbtStorage = null;
+        List<Component> extra = null;
+        Component separator = null;
+        Style.Builder style = Style.style();
+
+        while (compound.next()) {
+            if (compound.isName("text")) {
+                text = readText(compound);
+            } else if (compound.isName("")) {
+                unnamedText = readText(compound);
+            } else if (compound.isName("extra")) {
+                extra = this.readComponentList(compound);
+            } else if (compound.isName("color")) {
+                TextColor color = this.reference.deserializeColor(readString(compound));
+                if (color != null) style.color(color);
+            } else if (compound.isName("translate")) {
+                translate = readString(compound);
+            } else if (compound.isName("with")) {
+                translateWith = this.readTranslationArguments(compound);
+            } else if (compound.isName("fallback")) {
+                translateFallback = readString(compound);
+            } else if (compound.isName("font")) {
+                style.font(Key.key(readString(compound)));
+            } else if (compound.isName("insertion")) {
+                style.insertion(readString(compound));
+            } else if (compound.isName("clickEvent")) {
+                readClickEvent(compound, style);
+            } else if (compound.isName("hoverEvent")) {
+                this.readHoverEvent(compound, style);
+            } else if (BackwardCompatUtil.IS_4_18_0_OR_NEWER && compound.isName("shadow_color")) {
+                style.shadowColor(ShadowColor.shadowColor(readNumber(compound).intValue()));
+            } else if (compound.isName("score")) {
+                ByteBufNBTReader.Compound child = requireType(compound, NBTType.COMPOUND).readCompound();
+                score = true;
+                while (child.next()) {
+                    if (child.isName("name")) {
+                        scoreName = readString(child);
+                    } else if (child.isName("objective")) {
+                        scoreObjective = readString(child);
+                    }
+                }
+            } else if (compound.isName("selector")) {
+                selector = readString(compound);
+            } else if (compound.isName("keybind")) {
+                keybind = readString(compound);
+            } else if (compound.isName("nbt")) {
+                nbt = readString(compound);
+            } else if (compound.isName("interpret")) {
+                nbtInterpret = readNumber(compound).byteValue() != 0;
+            } else if (compound.isName("block")) {
+                nbtBlock = BlockNBTComponent.Pos.fromString(readString(compound));
+            } else if (compound.isName("entity")) {
+                nbtEntity = readString(compound);
+            } else if (compound.isName("storage")) {
+                nbtStorage = Key.key(readString(compound));
+            } else if (compound.isName("separator")) {
+                separator = this.readComponent(compound);
+            } else {
+                for (TextDecoration decoration : DECORATIONS) {
+                    if (compound.isName(decoration.toString())) {
+                        style.decoration(decoration,
+                                TextDecoration.State.byBoolean(readNumber(compound).byteValue() != 0));
+                        break;
+                    }
+                }
+            }
+        }
+        if (text == null) text = unnamedText;
+
+        // build component from read values, see AdventureNBTSerializer#deserialize
+        ComponentBuilder<?, ?> builder;
+        if (text != null) {
+            builder = Component.text().content(text);
+        } else if (translate != null) {
+            TranslatableComponent.Builder i18nBuilder;
+            builder = i18nBuilder = Component.translatable().key(translate);
+            if (translateWith != null) {
+                if (BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
+                    i18nBuilder.arguments(translateWith);
+                } else {
+                    i18nBuilder.args(translateWith);
+                }
+            }
+            if (BackwardCompatUtil.IS_4_13_0_OR_NEWER) {
+                i18nBuilder.fallback(translateFallback);
+            }
+        } else if (score) {
+            builder = Component.score().name(scoreName).objective(scoreObjective);
+        } else if (selector != null) {
+            builder = Component.selector().pattern(selector).separator(separator);
+        } else if (keybind != null) {
+            builder = Component.keybind().keybind(keybind);
+        } else if (nbt != null) {
+            if (nbtBlock != null) {
+                builder = Component.blockNBT()
+                        .nbtPath(nbt).interpret(nbtInterpret).separator(separator)
+                        .pos(nbtBlock);
+            } else if (nbtEntity != null) {
+                builder = Component.entityNBT()
+                        .nbtPath(nbt).interpret(nbtInterpret).separator(separator)
+                        .selector(nbtEntity);
+            } else if (nbtStorage != null) {
+                builder = Component.storageNBT()
+                        .nbtPath(nbt).interpret(nbtInterpret).separator(separator)
+                        .storage(nbtStorage);
+            } else {
+                throw new IllegalStateException("Illegal nbt component, block/entity/storage is missing");
+            }
+        } else {
+            throw new IllegalStateException("Illegal nbt component, component type could not be determined");
+        }
+
+        builder.style(style.build());
+
+        if (extra != null) {
+            builder.append(extra);
+        }
+
+        return builder.build();
+    }
+
+    private List<Component> readComponentList(ByteBufNBTReader.Cursor tag) {
+        ByteBufNBTReader.ListTag list = requireType(tag, NBTType.LIST).readList();
+        if (list.size() == 0) {
+            list.skipRemaining();
+            return Collections.emptyList();
+        }
+        List<Component> components = new ArrayList<>(list.size());
+        while (list.next()) {
+            components.add(this.readComponent(list));
+        }
+        return components;
+    }
+
+    private List<? extends ComponentLike> readTranslationArguments(ByteBufNBTReader.Cursor tag) {
+        if (!BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
+            return this.readComponentList(tag);
+        }
+        if (tag.getType() != NBTType.LIST) {
+            // Sent as an array of numbers or booleans
+            return this.reference.deserializeTranslationArguments(tag.read());
+        }
+        ByteBufNBTReader.ListTag list = tag.readList();
+        if (list.size() == 0) {
+            list.skipRemaining();
+            return Collections.emptyList();
+        }
+        List<TranslationArgument> arguments = new ArrayList<>(list.size());
+        while (list.next()) {
+            NBTType<?> type = list.getType();
+            if (type == NBTType.COMPOUND) {
+                arguments.add(TranslationArgument.component(this.readComponentEntries(list.readCompound())));
+            } else if (type == NBTType.STRING) {
+                arguments.add(TranslationArgument.component(Component.text(list.readString())));
+            } else {
+                NBT argument = list.read();
+                if (argument instanceof NBTByte) {
+                    arguments.add(TranslationArgument.bool(((NBTByte) argument).getAsByte() != (byte) 0));
+                } else if (argument instanceof NBTNumber) {
+                    arguments.add(TranslationArgument.numeric(((NBTNumber) argument).getAsInt()));
+                } else {
+                    throw new IllegalArgumentException("Expected " + NBTType.COMPOUND + " but got " + type);
+                }
+            }
+        }
+        return arguments;
+    }
+
+    private static void readClickEvent(ByteBufNBTReader.Cursor tag, Style.Builder style) {
+        ByteBufNBTReader.Compound clickEvent = requireType(tag, NBTType.COMPOUND).readCompound();
+        String action = null;
+        String value = null;
+        while (clickEvent.next()) {
+            if (clickEvent.isName("action")) {
+                action = readString(clickEvent);
+            } else if (clickEvent.isName("value")) {
+                value = readString(clickEvent);
+            }
+        }
+        style.clickEvent(ClickEvent.clickEvent(
+                action == null ? null : ClickEvent.Action.NAMES.value(action), value));
+    }
+
+    private void readHoverEvent(ByteBufNBTReader.Cursor tag, Style.Builder style) {
+        ByteBufNBTReader.Compound hoverEvent = requireType(tag, NBTType.COMPOUND).readCompound();
+        String action = null;
+        Component text = null;
+        NBT contents = null;
+        while (hoverEvent.next()) {
+            if (hoverEvent.isName("action")) {
+                action = readString(hoverEvent);
+            } else if (hoverEvent.isName("contents")) {
+                // The action is written first, so text hover events can be read directly
+                if ("show_text".equals(action)) {
+                    text = this.readComponent(hoverEvent);
+                } else {
+                    contents = hoverEvent.read();
+                }
+            }
+        }
+        if (text != null) {
+            style.hoverEvent(HoverEvent.showText(text));
+            return;
+        }
+
+        // Everything else is left to the reference implementation
+        NBTCompound hoverTag = new NBTCompound();
+        if (action != null) hoverTag.setTag("action", new NBTString(action));
+        if (contents != null) hoverTag.setTag("contents", contents);
+        NBTCompound styleTag = new NBTCompound();
+        styleTag.setTag("hoverEvent", hoverTag);
+        style.hoverEvent(this.reference.deserializeStyle(styleTag).hoverEvent());
+    }
+
+    private static String readText(ByteBufNBTReader.Cursor tag) {
+        if (tag.getType() == NBTType.STRING) {
+            return tag.readString();
+        }
+        NBT nbt = tag.read();
+        if (nbt.getType() == NBTType.BYTE && ((NBTByte) nbt).getAsByte() < 2) {
+            return String.valueOf(((NBTByte) nbt).getAsByte() == 1);
+        } else if (nbt instanceof NBTNumber) {
+            return String.valueOf(((NBTNumber) nbt).getAsInt());
+        } else {
+            throw new IllegalStateException("Don't know how to deserialize " + nbt.getType() + " to text");
+        }
+    }
+
+    private static String readString(ByteBufNBTReader.Cursor tag) {
+        return requireType(tag, NBTType.STRING).readString();
+    }
+
+    private static Number readNumber(ByteBufNBTReader.Cursor tag) {
+        NBT nbt = tag.read();
+        if (nbt instanceof NBTNumber) {
+            return ((NBTNumber) nbt).getAsNumber();
+        }
+        throw new IllegalArgumentException("Expected number but got " + nbt.getType());
+    }
+
+    private static <C extends ByteBufNBTReader.Cursor> C requireType(C tag, NBTType<?> required) {
+        if (tag.getType() != required) {
+            throw new IllegalArgumentException("Expected " + required + " but got " + tag.getType());
+        }
+        return tag;
+    }
+    // -------------------------------------------------
+
+    // -------------------- Writing --------------------
+    public void write(Object buffer, Component component, boolean named) {
+        ByteBufNBTWriter writer = new ByteBufNBTWriter(buffer);
+        if (isPlainText(component)) {
+            writer.writeType(NBTType.STRING);
+            if (named) writer.writeName("");
+            writer.writeString(((TextComponent) component).content());
+        } else {
+            writer.writeType(NBTType.COMPOUND);
+            if (named) writer.writeName("");
+            this.writeComponent(writer, component);
+        }
+    }
+
+    // Same as AdventureNBTSerializer#serialize, for compound entries
+    private void writeComponent(ByteBufNBTWriter writer, String name, Component component) {
+        if (isPlainText(component)) {
+            writer.writeEntry(NBTType.STRING, name);
+            writer.writeString(((TextComponent) component).content());
+        } else {
+            writer.writeEntry(NBTType.COMPOUND, name);
+            this.writeComponent(writer, component);
+        }
+    }
+
+    // Same as AdventureNBTSerializer#serializeComponent, writes the payload of the compound
+    private void writeComponent(ByteBufNBTWriter writer, Component component) {
+        // component parts
+        if (component instanceof TextComponent) {
+            writeString(writer, "text", ((TextComponent) component).content());
+        } else if (component instanceof TranslatableComponent) {
+            TranslatableComponent translatable = (TranslatableComponent) component;
+            writeString(writer, "translate", translatable.key());
+
+            if (BackwardCompatUtil.IS_4_13_0_OR_NEWER) {
+                String fallback = translatable.fallback();
+                if (fallback != null) {
+                    writeString(writer, "fallback", fallback);
+                }
+            }
+
+            List<Component> args = translatable.args();
+            if (!args.isEmpty()) {
+                writer.writeEntry(NBTType.LIST, "with");
+                writer.writeListHeader(NBTType.COMPOUND, args.size());
+                if (BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
+                    for (TranslationArgument argument : translatable.arguments()) {
+                        this.writeComponent(writer, argument.asComponent());
+                    }
+                } else {
+                    for (Component argument : args) {
+                        this.writeComponent(writer, argument);
+                    }
+                }
+            }
+        } else if (component instanceof ScoreComponent) {
+            writer.writeEntry(NBTType.COMPOUND, "score");
+            writeString(writer, "name", ((ScoreComponent) component).name());
+            writeString(writer, "objective", ((ScoreComponent) component).objective());
+            writer.writeEnd();
+        } else if (component instanceof SelectorComponent) {
+            writeString(writer, "selector", ((SelectorComponent) component).pattern());
+
+            Component separator = ((SelectorComponent) component).separator();
+            if (separator != null) this.writeComponent(writer, "separator", separator);
+        } else if (component instanceof KeybindComponent) {
+            writeString(writer, "keybind", ((KeybindComponent) component).keybind());
+        } else if (component instanceof NBTComponent<?, ?>) {
+            NBTComponent<?, ?> nbtComponent = (NBTComponent<?, ?>) component;
+            writeString(writer, "nbt", nbtComponent.nbtPath());
+
+            if (nbtComponent.interpret()) {
+                writer.writeEntry(NBTType.BYTE, "interpret");
+                writer.writeByte(1);
+            }
+
+            Component separator = nbtComponent.separator();
+            if (separator != null) this.writeComponent(writer, "separator", separator);
+
+            if (component instanceof BlockNBTComponent) {
+                writeString(writer, "block", ((BlockNBTComponent) component).pos().asString());
+            } else if (component instanceof EntityNBTComponent) {
+                writeString(writer, "entity", ((EntityNBTComponent) component).selector());
+            } else if (component instanceof StorageNBTComponent) {
+                writeString(writer, "storage", ((StorageNBTComponent) component).storage().asString());
+            }
+        }
+
+        if (component.hasStyling()) {
+            this.writeStyle(writer, component.style());
+        }
+
+        List<Component> children = component.children();
+        if (!children.isEmpty()) {
+            writer.writeEntry(NBTType.LIST, "extra");
+            writer.writeListHeader(NBTType.COMPOUND, children.size());
+            for (Component child : children) {
+                this.writeComponent(writer, child);
+            }
+        }
+
+        writer.writeEnd();
+    }
+
+    // Same as AdventureNBTSerializer#serializeStyle, writes the style entries into the current compound
+    private void writeStyle(ByteBufNBTWriter writer, Style style) {
+        Key font = style.font();
+        if (font != null) writeString(writer, "font", font.asString());
+
+        TextColor color = style.color();
+        if (color != null) writeString(writer, "color", this.reference.serializeColor(color));
+
+        if (BackwardCompatUtil.IS_4_18_0_OR_NEWER) {
+            ShadowColor shadowColor = style.shadowColor();
+            if (shadowColor != null) {
+                writer.writeEntry(NBTType.INT, "shadow_color");
+                writer.writeInt(shadowColor.value());
+            }
+        }
+
+        for (TextDecoration decoration : DECORATIONS) {
+            TextDecoration.State state = style.decoration(decoration);
+            if (state != TextDecoration.State.NOT_SET) {
+                writer.writeEntry(NBTType.BYTE, decoration.toString());
+                writer.writeByte(state == TextDecoration.State.TRUE ? 1 : 0);
+            }
+        }
+
+        String insertion = style.insertion();
+        if (insertion != null) writeString(writer, "insertion", insertion);
+
+        ClickEvent clickEvent = style.clickEvent();
+        if (clickEvent != null) {
+            writer.writeEntry(NBTType.COMPOUND, "clickEvent");
+            writeString(writer, "action", clickEvent.action().toString());
+            writeString(writer, "value", clickEvent.value());
+            writer.writeEnd();
+        }
+
+        HoverEvent<?> hoverEvent = style.hoverEvent();
+        if (hoverEvent != null) {
+            writer.writeEntry(NBTType.COMPOUND, "hoverEvent");
+            if (hoverEvent.action() == HoverEvent.Action.SHOW_TEXT) {
+                writeString(writer, "action", hoverEvent.action().toString());
+                this.writeComponent(writer, "contents", (Component) hoverEvent.value());
+                writer.writeEnd();
+            } else {
+                // Everything else is left to the reference implementation
+                NBT hoverTag = this.reference.serializeStyle(Style.style().hoverEvent(hoverEvent).build())
+                        .getTagOrThrow("hoverEvent");
+                writer.writePayload(hoverTag);
+            }
+        }
+    }
+
+    private static void writeString(ByteBufNBTWriter writer, String name, String value) {
+        writer.writeEntry(NBTType.STRING, name);
+        writer.writeString(value);
+    }
+
+    private static boolean isPlainText(Component component) {
+        return component instanceof TextComponent && !component.hasStyling() && component.children().isEmpty();
+    }
+    // -------------------------------------------------
+}
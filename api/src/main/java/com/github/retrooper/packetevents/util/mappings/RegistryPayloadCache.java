@@ -0,0 +1,138 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.mappings;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Remembers the registries built from the raw content of registry packets, so identical packets
+ * sent to every joining player only have to be decoded once.
+ * <p>
+ * Entries are identified by a hash of the packet content, but the content itself is compared on lookup,
+ * a hash collision can never hand out the wrong registries.
+ * Once a backend server changes its datapacks, its packets won't match the cached content anymore;
+ * the outdated entries are evicted as the least recently used ones once the cache is full.
+ */
+@ApiStatus.Internal
+public final class RegistryPayloadCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private final int maxEntries;
+    private final Map<PayloadKey, List<SimpleRegistry<?>>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long cachedBytes;
+
+    public RegistryPayloadCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true);
+    }
+
+    /**
+     * @param version The version the payload was encoded for
+     * @param payload The raw packet content
+     * @return The registries built from the same payload before, or null if it hasn't been seen yet
+     */
+    public @Nullable List<SimpleRegistry<?>> get(ClientVersion version, byte[] payload) {
+        List<SimpleRegistry<?>> registries;
+        synchronized (this) {
+            registries = this.entries.get(new PayloadKey(version, payload));
+        }
+        (registries == null ? this.misses : this.hits).incrementAndGet();
+        return registries;
+    }
+
+    public synchronized void put(ClientVersion version, byte[] payload, List<SimpleRegistry<?>> registries) {
+        List<SimpleRegistry<?>> previous = this.entries.put(new PayloadKey(version, payload),
+                Collections.unmodifiableList(registries));
+        if (previous == null) {
+            this.cachedBytes += payload.length;
+        }
+        if (this.entries.size() > this.maxEntries) {
+            Iterator<PayloadKey> eldest = this.entries.keySet().iterator();
+            this.cachedBytes -= eldest.next().payload.length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.cachedBytes = 0L;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return The summed up size of all cached payloads
+     */
+    public synchronized long getCachedBytes() {
+        return this.cachedBytes;
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    private static final class PayloadKey {
+
+        private final ClientVersion version;
+        private final byte[] payload;
+        private final int hash;
+
+        private PayloadKey(ClientVersion version, byte[] payload) {
+            this.version = version;
+            this.payload = payload;
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, payload.length);
+            this.hash = 31 * version.hashCode() + (int) crc.getValue();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof PayloadKey)) return false;
+            PayloadKey that = (PayloadKey) obj;
+            return this.hash == that.hash && this.version == that.version
+                    && Arrays.equals(this.payload, that.payload);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
@@ -56,10 +56,12 @@ import com.github.retrooper.packetevents.wrapper.configuration.server.WrapperCon
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -68,6 +70,7 @@ public final class SynchronizedRegistriesHandler {
 
     private static final boolean FORCE_PER_USER_REGISTRIES = Boolean.getBoolean("packetevents.force-per-user-registries");
     private static final Map<ResourceLocation, RegistryEntry<?>> REGISTRY_KEYS = new HashMap<>();
+    private static final RegistryPayloadCache PAYLOAD_CACHE = new RegistryPayloadCache(RegistryPayloadCache.DEFAULT_MAX_ENTRIES);
 
     static {
         Stream.of(
@@ -93,6 +96,99 @@ public final class SynchronizedRegistriesHandler {
         return REGISTRY_KEYS.get(registryKey);
     }
 
+    public static RegistryPayloadCache getPayloadCache() {
+        return PAYLOAD_CACHE;
+    }
+
+    /**
+     * Applies the registries built from an identical registry payload before,
+     * without decoding the payload again.
+     *
+     * @param payload The raw content of the packet carrying the registries
+     * @return false if the payload hasn't been seen before, it has to be decoded and passed to
+     * {@link #handleRegistryPayload} or {@link #handleLegacyRegistryPayload}
+     */
+    public static boolean handleCachedPayload(User user, ClientVersion version, byte[] payload) {
+        Object cacheKey = getPayloadCacheKey(user, version);
+        if (cacheKey == null) {
+            return false;
+        }
+        List<SimpleRegistry<?>> registries = PAYLOAD_CACHE.get(version, payload);
+        if (registries == null) {
+            return false;
+        }
+        applyRegistries(user, cacheKey, registries);
+        return true;
+    }
+
+    /**
+     * Handles a decoded registry and remembers it for the payload it was decoded from.
+     *
+     * @param payload The raw content of the packet, null if it isn't known
+     */
+    public static void handleRegistryPayload(
+            User user, ClientVersion version, @Nullable byte[] payload,
+            ResourceLocation registryName,
+            List<RegistryElement> elements
+    ) {
+        RegistryEntry<?> registryData = REGISTRY_KEYS.get(registryName);
+        List<SimpleRegistry<?>> registries = new ArrayList<>(1);
+        if (registryData != null) {
+            registries.add(registryData.createFromElements(elements, version));
+        }
+        handleDecodedPayload(user, version, payload, registries);
+    }
+
+    /**
+     * Handles decoded legacy registries and remembers them for the payload they were decoded from.
+     *
+     * @param payload The raw content of the registry data, null if it isn't known
+     */
+    public static void handleLegacyRegistryPayload(
+            User user, ClientVersion version, @Nullable byte[] payload,
+            NBTCompound registryData
+    ) {
+        List<SimpleRegistry<?>> registries = new ArrayList<>();
+        forEachLegacyRegistry(registryData, (registryName, elements) -> {
+            RegistryEntry<?> entry = REGISTRY_KEYS.get(registryName);
+            if (entry != null) {
+                registries.add(entry.createFromElements(elements, version));
+            }
+        });
+        handleDecodedPayload(user, version, payload, registries);
+    }
+
+    private static void handleDecodedPayload(
+            User user, ClientVersion version, @Nullable byte[] payload,
+            List<SimpleRegistry<?>> registries
+    ) {
+        Object cacheKey = getPayloadCacheKey(user, version);
+        if (cacheKey == null) {
+            for (SimpleRegistry<?> registry : registries) {
+                user.putRegistry(registry); // no caching
+            }
+            return;
+        }
+        applyRegistries(user, cacheKey, registries);
+        if (payload != null) {
+            PAYLOAD_CACHE.put(version, payload, registries);
+        }
+    }
+
+    private static @Nullable Object getPayloadCacheKey(User user, ClientVersion version) {
+        return FORCE_PER_USER_REGISTRIES ? null
+                : PacketEvents.getAPI().getServerManager().getRegistryCacheKey(user, version);
+    }
+
+    private static void applyRegistries(User user, Object cacheKey, List<SimpleRegistry<?>> registries) {
+        for (SimpleRegistry<?> registry : registries) {
+            // the payload decides what the synced registry looks like, this replaces
+            // registries of a backend server which has changed its datapacks since
+            REGISTRY_KEYS.get(registry.getRegistryKey()).replaceSyncedRegistry(cacheKey, registry);
+            user.putRegistry(registry);
+        }
+    }
+
     public static void handleRegistry(
             User user, ClientVersion version,
             ResourceLocation registryName,
@@ -127,13 +223,19 @@ public final class SynchronizedRegistriesHandler {
             NBTCompound registryData
     ) {
         Object cacheKey = PacketEvents.getAPI().getServerManager().getRegistryCacheKey(user, version);
+        forEachLegacyRegistry(registryData, (registryName, elements) ->
+                handleRegistry(user, version, registryName, elements, cacheKey));
+    }
+
+    private static void forEachLegacyRegistry(
+            NBTCompound registryData,
+            BiConsumer<ResourceLocation, List<RegistryElement>> consumer
+    ) {
         for (NBT tag : registryData.getTags().values()) {
             //On 1.16 they send an NBTList for dimension.
             if (tag instanceof NBTList) {
                 NBTList<NBTCompound> list = (NBTList<NBTCompound>) tag;
-                handleRegistry(user, version, DimensionTypes.getRegistry().getRegistryKey(),
-                        RegistryElement.convertNbt(list), cacheKey);
-
+                consumer.accept(DimensionTypes.getRegistry().getRegistryKey(), RegistryElement.convertNbt(list));
             }
             //Newer versions
             else {
@@ -144,8 +246,7 @@ public final class SynchronizedRegistriesHandler {
                 NBTList<NBTCompound> nbtElements = compound.getCompoundListTagOrNull("value");
                 if (nbtElements != null) {
                     // store registry elements
-                    handleRegistry(user, version, registryName,
-                            RegistryElement.convertNbt(nbtElements), cacheKey);
+                    consumer.accept(registryName, RegistryElement.convertNbt(nbtElements));
                 }
             }
         }
@@ -188,6 +289,11 @@ public final class SynchronizedRegistriesHandler {
                     $ -> (SimpleRegistry<T>) registry.get());
         }
 
+        @SuppressWarnings("unchecked")
+        public void replaceSyncedRegistry(Object key, SimpleRegistry<?> registry) {
+            this.syncedRegistries.put(key, (SimpleRegistry<T>) registry);
+        }
+
         private void handleElement(
                 SimpleRegistry<T> registry,
                 RegistryElement element,
@@ -0,0 +1,104 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.reflection;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Binds reflected members to method handles, for members which are accessed too often for {@link Method#invoke}.
+ * <p>
+ * All handles are adapted to a generic type, where every parameter and the return value is an {@link Object},
+ * so they can be called with {@link MethodHandle#invokeExact} without knowing the real types at compile time.
+ * Instance members take the instance as first parameter.
+ * Handles stored in static final fields are inlined by the JIT just like direct calls.
+ * Every method returns null if the member is null or can't be accessed,
+ * just like the lookups in {@link Reflection}, any other failure is thrown.
+ */
+public final class ReflectionAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private ReflectionAccessor() {
+    }
+
+    public static @Nullable MethodHandle method(@Nullable Method method) {
+        if (method == null) {
+            return null;
+        }
+        try {
+            method.setAccessible(true);
+            return generic(LOOKUP.unreflect(method));
+        } catch (IllegalAccessException exception) {
+            exception.printStackTrace();
+            return null;
+        }
+    }
+
+    public static @Nullable MethodHandle getter(@Nullable Field field) {
+        if (field == null) {
+            return null;
+        }
+        try {
+            field.setAccessible(true);
+            return generic(LOOKUP.unreflectGetter(field));
+        } catch (IllegalAccessException exception) {
+            exception.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Looks up a field the same way {@link ReflectionObject} does, by its exact type among the fields declared in a class.
+     */
+    public static @Nullable MethodHandle getter(@Nullable Class<?> owner, @Nullable Class<?> type, int index) {
+        if (owner == null || type == null) {
+            return null;
+        }
+        int currentIndex = 0;
+        for (Field field : owner.getDeclaredFields()) {
+            if (field.getType().equals(type) && currentIndex++ == index) {
+                return getter(field);
+            }
+        }
+        return null;
+    }
+
+    public static @Nullable MethodHandle constructor(@Nullable Constructor<?> constructor) {
+        if (constructor == null) {
+            return null;
+        }
+        try {
+            constructor.setAccessible(true);
+            return generic(LOOKUP.unreflectConstructor(constructor));
+        } catch (IllegalAccessException exception) {
+            exception.printStackTrace();
+            return null;
+        }
+    }
+
+    private static MethodHandle generic(MethodHandle handle) {
+        return handle.asType(handle.type().generic());
+    }
+}
@@ -49,6 +49,7 @@ import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.manager.server.VersionComparison;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.chat.ChatType;
@@ -62,6 +63,7 @@ import com.github.retrooper.packetevents.protocol.chat.RemoteChatSession;
 import com.github.retrooper.packetevents.protocol.chat.SignedCommandArgument;
 import com.github.retrooper.packetevents.protocol.chat.filter.FilterMask;
 import com.github.retrooper.packetevents.protocol.chat.filter.FilterMaskType;
+import com.github.retrooper.packetevents.protocol.component.ComponentPatchMap;
 import com.github.retrooper.packetevents.protocol.component.ComponentType;
 import com.github.retrooper.packetevents.protocol.component.ComponentTypes;
 import com.github.retrooper.packetevents.protocol.component.PatchableComponentMap;
@@ -71,6 +73,7 @@ import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityMetadataProvider;
 import com.github.retrooper.packetevents.protocol.entity.villager.VillagerData;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.ItemStackView;
 import com.github.retrooper.packetevents.protocol.item.type.ItemType;
 import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
 import com.github.retrooper.packetevents.protocol.mapper.MappedEntity;
@@ -78,6 +81,7 @@ import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
 import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTReader;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
@@ -139,6 +143,9 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     // For sending chunk data packets, which need this data
     @Nullable
     protected User user;
+    // Fields which can be copied from the buffer they were read from, see #readRaw
+    @Nullable
+    private List<RawField> rawFields;
 
     private static final int MODERN_MESSAGE_LENGTH = 262144;
     private static final int LEGACY_MESSAGE_LENGTH = 32767;
@@ -279,6 +286,94 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         event.setLastUsedWrapper(this);
     }
 
+    /**
+     * Whether expensive fields should be kept encoded until they are accessed.
+     *
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#lazyPacketDecoding(boolean)
+     */
+    protected boolean isLazyDecoding() {
+        return PacketEvents.getAPI().getSettings().isLazyPacketDecoding();
+    }
+
+    /**
+     * Decodes fields which were kept encoded while reading.
+     * The buffer of this wrapper is swapped out while the reader runs, so the regular read methods can be used.
+     *
+     * @param encoded The encoded fields
+     * @param reader  Reads the fields from this wrapper
+     */
+    protected final void decodeLazily(byte[] encoded, Runnable reader) {
+        Object buffer = this.buffer;
+        this.buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(encoded);
+        try {
+            reader.run();
+        } finally {
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Remembers where a field which has just been read is located in the buffer.
+     * As long as the field isn't modified, {@link #writeRaw(RawField)} copies it instead of encoding it again.
+     *
+     * @param start The reader index at which the field started
+     * @return The location of the field
+     */
+    protected final RawField readRaw(int start) {
+        int length = ByteBufHelper.readerIndex(this.buffer) - start;
+        return this.trackRaw(new RawField(this.buffer, start, length, this.clientVersion, this.serverVersion));
+    }
+
+    /**
+     * Makes sure a field read by another wrapper is copied out of the buffer before this wrapper overwrites it.
+     * Has to be used when copying raw fields from another wrapper.
+     */
+    protected final @Nullable RawField trackRaw(@Nullable RawField field) {
+        if (field != null) {
+            if (this.rawFields == null) {
+                this.rawFields = new ArrayList<>(2);
+            }
+            this.rawFields.add(field);
+        }
+        return field;
+    }
+
+    /**
+     * Writes a field exactly as it was read.
+     *
+     * @param field The field, null if it has been modified
+     * @return false if the field couldn't be copied, so it has to be encoded instead
+     */
+    protected final boolean writeRaw(@Nullable RawField field) {
+        return field != null && field.write(this);
+    }
+
+    /**
+     * Copies all raw fields out of the buffer, before it is cleared to write this wrapper into it again.
+     */
+    @ApiStatus.Internal
+    public final void detachRawFields() {
+        if (this.rawFields != null) {
+            for (RawField field : this.rawFields) {
+                field.detach();
+            }
+        }
+    }
+
+    /**
+     * Forgets the buffer of all raw fields which haven't been copied,
+     * once it may be released or reused. These fields are encoded again if this wrapper is written later on.
+     */
+    @ApiStatus.Internal
+    public final void releaseRawFields() {
+        if (this.rawFields != null) {
+            for (RawField field : this.rawFields) {
+                field.release();
+            }
+            this.rawFields = null;
+        }
+    }
+
     public ClientVersion getClientVersion() {
         return clientVersion;
     }
@@ -343,10 +438,12 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     @Deprecated
     public void resetByteBuf() {
+        this.detachRawFields();
         ByteBufHelper.clear(buffer);
     }
 
     public void resetBuffer() {
+        this.detachRawFields();
         ByteBufHelper.clear(buffer);
     }
 
@@ -473,11 +570,14 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         int presentCount = this.readVarInt();
         int absentCount = this.readVarInt();
         if (presentCount == 0 && absentCount == 0) {
+            if (PacketEvents.getAPI().getSettings().isInternItemStacks()) {
+                return ItemStack.interned(itemType, count);
+            }
             return ItemStack.builder().type(itemType).amount(count).build();
         }
 
         PatchableComponentMap components = new PatchableComponentMap(
-                itemType.getComponents(), new HashMap<>(4));
+                itemType.getComponents(), new ComponentPatchMap(presentCount + absentCount));
         for (int i = 0; i < presentCount; i++) {
             ComponentType<?> type = this.readMappedEntity(ComponentTypes.getRegistry());
             components.set((ComponentType<Object>) type, type.read(this));
@@ -489,6 +589,19 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         return ItemStack.builder().type(itemType).amount(count).components(components).build();
     }
 
+    /**
+     * Reads an item stack without decoding its nbt or components.
+     *
+     * @see ItemStackView
+     */
+    public ItemStackView readItemStackView() {
+        return ItemStackView.read(this);
+    }
+
+    public void writeItemStackView(ItemStackView view) {
+        ItemStackView.write(this, view);
+    }
+
     public ItemStack readPresentItemStack() {
         ItemStack itemStack = this.readItemStack();
         if (itemStack.isEmpty()) {
@@ -617,6 +730,18 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         return NBTCodec.readNBTFromBuffer(buffer, serverVersion);
     }
 
+    public void skipNBT() {
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
+            ByteBufNBTReader.skipTag(NBTLimiter.forBuffer(buffer), buffer, named);
+        } else {
+            short length = readShort();
+            if (length > 0) {
+                skipBytes(length);
+            }
+        }
+    }
+
     public NBTCompound readUnlimitedNBT() {
         return (NBTCompound) this.readUnlimitedNBTRaw();
     }
@@ -693,7 +818,30 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
                 ? this.readComponentAsNBT() : this.readComponentAsJSON();
     }
 
+    /**
+     * Moves the reader index past a string, without decoding it.
+     */
+    public void skipString() {
+        this.skipBytes(this.readVarInt());
+    }
+
+    /**
+     * Moves the reader index past a component, without decoding it.
+     */
+    public void skipComponent() {
+        if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_20_3)) {
+            ByteBufNBTReader.skipTag(NBTLimiter.forBuffer(this.buffer), this.buffer, false);
+        } else {
+            this.skipString();
+        }
+    }
+
     public Component readComponentAsNBT() {
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            // Decode straight from the buffer, without building the nbt tree first
+            boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
+            return AdventureSerializer.getNBTStreamCodec().read(NBTLimiter.forBuffer(buffer), buffer, named);
+        }
         return AdventureSerializer.fromNbt(readNBTRaw());
     }
 
@@ -711,6 +859,11 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public void writeComponentAsNBT(Component component) {
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
+            AdventureSerializer.getNBTStreamCodec().write(buffer, component, named);
+            return;
+        }
         writeNBTRaw(AdventureSerializer.toNbt(component));
     }
 
@@ -820,6 +973,10 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         ByteBufHelper.writeDouble(buffer, value);
     }
 
+    public void skipBytes(int length) {
+        ByteBufHelper.skipBytes(buffer, length);
+    }
+
     public byte[] readRemainingBytes() {
         return readBytes(ByteBufHelper.readableBytes(buffer));
     }
@@ -957,27 +1114,44 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public List<EntityData> readEntityMetadata() {
+        return this.readEntityMetadata(null);
+    }
+
+    /**
+     * Reads entity metadata, only decoding the entries with the given indices.
+     * All other entries are skipped.
+     *
+     * @param indices The indices of the entries to decode, or null to decode all entries
+     * @return The decoded entries
+     */
+    public List<EntityData> readEntityMetadata(@Nullable BitSet indices) {
         List<EntityData> list = new ArrayList<>();
+        ClientVersion version = serverVersion.toClientVersion();
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             boolean v1_10 = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_10);
             short index;
             while ((index = readUnsignedByte()) != 255) {
                 int typeID = v1_10 ? readVarInt() : readUnsignedByte();
-                EntityDataType<?> type = EntityDataTypes.getById(serverVersion.toClientVersion(), typeID);
+                EntityDataType<?> type = EntityDataTypes.getById(version, typeID);
                 if (type == null) {
-                    throw new IllegalStateException("Unknown entity metadata type id: " + typeID + " version " + serverVersion.toClientVersion());
+                    throw new IllegalStateException("Unknown entity metadata type id: " + typeID + " version " + version);
+                }
+                if (indices == null || indices.get(index)) {
+                    list.add(EntityData.read(index, type, this));
+                } else {
+                    type.skip(this);
                 }
-                Object value = type.getDataDeserializer().apply(this);
-                list.add(new EntityData(index, type, value));
             }
         } else {
             for (byte data = readByte(); data != Byte.MAX_VALUE; data = readByte()) {
                 int typeID = (data & 0xE0) >> 5;
                 int index = data & 0x1F;
-                EntityDataType<?> type = EntityDataTypes.getById(serverVersion.toClientVersion(), typeID);
-                Object value = type.getDataDeserializer().apply(this);
-                EntityData entityData = new EntityData(index, type, value);
-                list.add(entityData);
+                EntityDataType<?> type = EntityDataTypes.getById(version, typeID);
+                if (indices == null || indices.get(index)) {
+                    list.add(EntityData.read(index, type, this));
+                } else {
+                    type.skip(this);
+                }
             }
         }
         return list;
@@ -996,7 +1170,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
                 } else {
                     writeByte(entityData.getType().getId(serverVersion.toClientVersion()));
                 }
-                entityData.getType().getDataSerializer().accept(this, entityData.getValue());
+                entityData.writeValue(this);
             }
             writeByte(255); // End of metadata array
         } else {
@@ -1005,7 +1179,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
                 int index = entityData.getIndex();
                 int data = (typeID << 5 | index & 31) & 255;
                 writeByte(data);
-                entityData.getType().getDataSerializer().accept(this, entityData.getValue());
+                entityData.writeValue(this);
             }
             writeByte(127); // End of metadata array
         }
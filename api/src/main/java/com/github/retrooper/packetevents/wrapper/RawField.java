@@ -0,0 +1,100 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.wrapper;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The location of a field in the buffer a wrapper was read from.
+ * As long as the field hasn't been modified, it can be copied when the wrapper is written again
+ * instead of encoding it from scratch.
+ * <p>
+ * The field is only copied out of the buffer if the buffer is about to be overwritten,
+ * and forgotten once the buffer is no longer owned by the event, see {@link PacketWrapper#releaseRawFields()}.
+ */
+@ApiStatus.Internal
+public final class RawField {
+    // Null once the buffer may have been released or reused
+    private @Nullable Object buffer;
+    private final int start;
+    private final int length;
+    private final ClientVersion clientVersion;
+    private final ServerVersion serverVersion;
+    // Set once the field was copied out of the buffer
+    private @Nullable byte[] bytes;
+
+    RawField(Object buffer, int start, int length, ClientVersion clientVersion, ServerVersion serverVersion) {
+        this.buffer = buffer;
+        this.start = start;
+        this.length = length;
+        this.clientVersion = clientVersion;
+        this.serverVersion = serverVersion;
+    }
+
+    /**
+     * Copies the field out of the buffer, has to happen before the buffer is overwritten.
+     */
+    void detach() {
+        if (this.bytes == null && this.buffer != null) {
+            byte[] bytes = new byte[this.length];
+            ByteBufHelper.getBytes(this.buffer, this.start, bytes);
+            this.bytes = bytes;
+            this.buffer = null;
+        }
+    }
+
+    /**
+     * Forgets the buffer, the field has to be encoded again if it hasn't been copied yet.
+     */
+    void release() {
+        this.buffer = null;
+    }
+
+    /**
+     * Writes the field as it was read.
+     *
+     * @return false if the field can't be copied, so it has to be encoded instead
+     */
+    boolean write(PacketWrapper<?> wrapper) {
+        // The encoding may differ between versions
+        if (wrapper.clientVersion != this.clientVersion || wrapper.serverVersion != this.serverVersion) {
+            return false;
+        }
+        if (this.bytes == null && this.buffer == wrapper.buffer) {
+            // Written into the buffer it was read from
+            this.detach();
+        }
+        if (this.bytes != null) {
+            wrapper.writeBytes(this.bytes);
+        } else if (this.buffer != null) {
+            // The buffer is still intact, copy straight from it
+            Object field = ByteBufHelper.duplicate(this.buffer);
+            ByteBufHelper.readerIndex(field, this.start);
+            ByteBufHelper.writerIndex(field, this.start + this.length);
+            ByteBufHelper.writeBytes(wrapper.buffer, field);
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
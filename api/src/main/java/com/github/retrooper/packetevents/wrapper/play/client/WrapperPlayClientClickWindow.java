@@ -21,9 +21,11 @@ package com.github.retrooper.packetevents.wrapper.play.client;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.ItemStackView;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -37,6 +39,9 @@ public class WrapperPlayClientClickWindow extends PacketWrapper<WrapperPlayClien
     private WindowClickType windowClickType;
     private Optional<Map<Integer, ItemStack>> slots;
     private ItemStack carriedItemStack;
+    // Set instead of the slots and the carried item if they were read lazily
+    private Map<Integer, ItemStackView> slotViews;
+    private ItemStackView carriedItemView;
 
     public WrapperPlayClientClickWindow(PacketReceiveEvent event) {
         super(event);
@@ -73,6 +78,16 @@ public class WrapperPlayClientClickWindow extends PacketWrapper<WrapperPlayClien
         }
         int clickTypeIndex = readVarInt();
         this.windowClickType = WindowClickType.getById(clickTypeIndex);
+        if (isLazyDecoding()) {
+            if (v1_17) {
+                this.slotViews = readMap(
+                        packetWrapper -> Math.toIntExact(packetWrapper.readShort()),
+                        PacketWrapper::readItemStackView
+                );
+            }
+            this.carriedItemView = readItemStackView();
+            return;
+        }
         if (v1_17) {
             this.slots = Optional.of(readMap(
                     packetWrapper -> Math.toIntExact(packetWrapper.readShort()),
@@ -94,6 +109,8 @@ public class WrapperPlayClientClickWindow extends PacketWrapper<WrapperPlayClien
         this.windowClickType = wrapper.windowClickType;
         this.slots = wrapper.slots;
         this.carriedItemStack = wrapper.carriedItemStack;
+        this.slotViews = wrapper.slotViews;
+        this.carriedItemView = wrapper.carriedItemView;
     }
 
     @Override
@@ -110,9 +127,18 @@ public class WrapperPlayClientClickWindow extends PacketWrapper<WrapperPlayClien
         }
         writeVarInt(windowClickType.ordinal());
         if (v1_17) {
-            writeMap(slots.orElse(new HashMap<>()), PacketWrapper::writeShort, PacketWrapper::writeItemStack);
+            if (slots != null) {
+                writeMap(slots.orElse(new HashMap<>()), PacketWrapper::writeShort, PacketWrapper::writeItemStack);
+            } else {
+                writeMap(slotViews != null ? slotViews : new HashMap<>(),
+                        PacketWrapper::writeShort, PacketWrapper::writeItemStackView);
+            }
+        }
+        if (carriedItemView != null) {
+            writeItemStackView(carriedItemView);
+        } else {
+            writeItemStack(carriedItemStack);
         }
-        writeItemStack(carriedItemStack);
     }
 
     public int getWindowId() {
@@ -164,19 +190,59 @@ public class WrapperPlayClientClickWindow extends PacketWrapper<WrapperPlayClien
     }
 
     public Optional<Map<Integer, ItemStack>> getSlots() {
+        if (slots == null) {
+            if (slotViews == null) {
+                slots = Optional.empty();
+            } else {
+                Map<Integer, ItemStack> decoded = new HashMap<>(slotViews.size());
+                for (Map.Entry<Integer, ItemStackView> entry : slotViews.entrySet()) {
+                    decoded.put(entry.getKey(), entry.getValue().decode());
+                }
+                slots = Optional.of(decoded);
+            }
+            slotViews = null;
+        }
         return slots;
     }
 
+    /**
+     * Only decodes the type and amount of the items, if they were read lazily.
+     *
+     * @return An unmodifiable view of the changed slots
+     */
+    public Optional<Map<Integer, ItemStackView>> getSlotViews() {
+        if (slots == null) {
+            return Optional.ofNullable(slotViews).map(Collections::unmodifiableMap);
+        }
+        return slots.map(map -> {
+            Map<Integer, ItemStackView> views = new HashMap<>(map.size());
+            for (Map.Entry<Integer, ItemStack> entry : map.entrySet()) {
+                views.put(entry.getKey(), ItemStackView.of(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(views);
+        });
+    }
+
     public void setSlots(Optional<Map<Integer, ItemStack>> slots) {
         this.slots = slots;
+        this.slotViews = null;
     }
 
     public ItemStack getCarriedItemStack() {
+        if (carriedItemStack == null && carriedItemView != null) {
+            carriedItemStack = carriedItemView.decode();
+            carriedItemView = null;
+        }
         return carriedItemStack;
     }
 
+    public ItemStackView getCarriedItemView() {
+        return carriedItemStack == null ? carriedItemView : ItemStackView.of(carriedItemStack);
+    }
+
     public void setCarriedItemStack(ItemStack carriedItemStack) {
         this.carriedItemStack = carriedItemStack;
+        this.carriedItemView = null;
     }
 
     public enum WindowClickType {
@@ -18,9 +18,13 @@
 
 package com.github.retrooper.packetevents.wrapper.play.server;
 
+import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTReader;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
@@ -98,9 +102,17 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
         // There is no bitset on 1.18 and above, instead the SingletonPalette is used to represent a chunk with all air
         BitSet chunkMask = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18) ? null : ChunkBitMask.readChunkMask(this);
+        // Lazy decoding is only supported for the 1.18+ format
+        boolean lazy = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)
+                && PacketEvents.getAPI().getSettings().isLazyChunkDecoding();
+        boolean namedNBT = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
+
         boolean hasHeightMaps = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_14);
         NBTCompound heightMaps = null;
-        if (hasHeightMaps) {
+        byte[] encodedHeightMaps = null;
+        if (lazy) {
+            encodedHeightMaps = ByteBufNBTReader.readTagBytes(NBTLimiter.forBuffer(buffer), buffer, namedNBT);
+        } else if (hasHeightMaps) {
             heightMaps = readNBT();
         }
 
@@ -145,19 +157,31 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             }
         }
 
-        byte[] data = readByteArray();
-        data = deflate(data, chunkMask, fullChunk);
-
-        boolean hasBlocklight = (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16) || serverVersion.isOlderThan(ServerVersion.V_1_14))
-                && !serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8);
-        boolean checkForSky = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16)
-                || this.serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8)
-                || this.user != null && this.user.getDimensionType().equals(DimensionTypes.OVERWORLD)
-                && this.serverVersion.isOlderThan(ServerVersion.V_1_14);
-
-        // 1.7/1.8 don't use this NetStreamInput
-        NetStreamInput dataIn = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9) ? new NetStreamInput(new ByteArrayInputStream(data)) : null;
-        BaseChunk[] chunks = getChunkReader().read(this.user.getDimensionType(), chunkMask, secondaryChunkMask, fullChunk, hasBlocklight, checkForSky, chunkSize, data, dataIn);
+        BaseChunk[] chunks;
+        byte[] data = null;
+        NetStreamInput dataIn = null;
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
+            // Decode the sections straight from the packet buffer, there is no need to copy them into a byte array first
+            int dataLength = readVarInt();
+            int dataStart = ByteBufHelper.readerIndex(buffer);
+            chunks = chunkReader_v1_18.read(this, chunkSize, lazy);
+            // The declared length is authoritative, skip anything the sections didn't consume
+            ByteBufHelper.readerIndex(buffer, dataStart + dataLength);
+        } else {
+            data = readByteArray();
+            data = deflate(data, chunkMask, fullChunk);
+
+            boolean hasBlocklight = (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16) || serverVersion.isOlderThan(ServerVersion.V_1_14))
+                    && !serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8);
+            boolean checkForSky = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16)
+                    || this.serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8)
+                    || this.user != null && this.user.getDimensionType().equals(DimensionTypes.OVERWORLD)
+                    && this.serverVersion.isOlderThan(ServerVersion.V_1_14);
+
+            // 1.7/1.8 don't use this NetStreamInput
+            dataIn = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9) ? new NetStreamInput(new ByteArrayInputStream(data)) : null;
+            chunks = getChunkReader().read(this.user.getDimensionType(), chunkMask, secondaryChunkMask, fullChunk, hasBlocklight, checkForSky, chunkSize, data, dataIn);
+        }
 
         if (hasBiomeData && serverVersion.isOlderThan(ServerVersion.V_1_15)) {
             if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_13)) { // Uses ints
@@ -184,7 +208,15 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         int tileEntityCount = serverVersion.isOlderThan(ServerVersion.V_1_9) ? 0 : readVarInt();
         TileEntity[] tileEntities = new TileEntity[tileEntityCount];
 
-        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
+        if (lazy) {
+            for (int i = 0; i < tileEntities.length; i++) {
+                byte packedByte = readByte();
+                short y = readShort();
+                int type = readVarInt();
+                byte[] encodedData = ByteBufNBTReader.readTagBytes(NBTLimiter.forBuffer(buffer), buffer, namedNBT);
+                tileEntities[i] = TileEntity.createEncoded(packedByte, y, type, encodedData, serverVersion);
+            }
+        } else if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
             for (int i = 0; i < tileEntities.length; i++) {
                 tileEntities[i] = new TileEntity(readByte(), readShort(), readVarInt(), readNBT());
             }
@@ -213,7 +245,9 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
                 }
             }
         } else {
-            if (hasHeightMaps) {
+            if (encodedHeightMaps != null) {
+                column = Column.createWithEncodedHeightMaps(chunkX, chunkZ, fullChunk, chunks, tileEntities, encodedHeightMaps, serverVersion);
+            } else if (hasHeightMaps) {
                 column = new Column(chunkX, chunkZ, fullChunk, chunks, tileEntities, heightMaps);
             } else {
                 column = new Column(chunkX, chunkZ, fullChunk, chunks, tileEntities);
@@ -343,7 +377,12 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
         boolean hasHeightMaps = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_14);
         if (hasHeightMaps) {
-            writeNBT(column.getHeightMaps());
+            byte[] encodedHeightMaps = column.getEncodedHeightMaps(serverVersion);
+            if (encodedHeightMaps != null) {
+                writeBytes(encodedHeightMaps);
+            } else {
+                writeNBT(column.getHeightMaps());
+            }
         }
 
         if (column.hasBiomeData() && serverVersion.isNewerThanOrEquals(ServerVersion.V_1_15) && !v1_18) {
@@ -386,7 +425,12 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
                 writeByte(tileEntity.getPackedByte());
                 writeShort(tileEntity.getYShort());
                 writeVarInt(tileEntity.getType());
-                writeNBT(tileEntity.getNBT());
+                byte[] encodedData = tileEntity.getEncodedNBT(serverVersion);
+                if (encodedData != null) {
+                    writeBytes(encodedData);
+                } else {
+                    writeNBT(tileEntity.getNBT());
+                }
             }
         } else if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             TileEntity[] tileEntities = column.getTileEntities();
@@ -51,6 +51,9 @@ public class WrapperPlayServerDeclareRecipes extends PacketWrapper<WrapperPlaySe
      */
     private List<SingleInputOptionDisplay> stonecutterRecipes;
 
+    // The recipes as they were received, until they are accessed
+    private byte[] encodedRecipes;
+
     public WrapperPlayServerDeclareRecipes(PacketSendEvent event) {
         super(event);
     }
@@ -75,6 +78,14 @@ public class WrapperPlayServerDeclareRecipes extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void read() {
+        if (this.isLazyDecoding()) {
+            this.encodedRecipes = this.readRemainingBytes();
+        } else {
+            this.readRecipes();
+        }
+    }
+
+    private void readRecipes() {
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
             this.itemSets = this.readMap(
                     PacketWrapper::readIdentifier,
@@ -88,6 +99,10 @@ public class WrapperPlayServerDeclareRecipes extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void write() {
+        if (this.encodedRecipes != null) {
+            this.writeBytes(this.encodedRecipes);
+            return;
+        }
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
             this.writeMap(this.itemSets,
                     PacketWrapper::writeIdentifier,
@@ -103,6 +118,15 @@ public class WrapperPlayServerDeclareRecipes extends PacketWrapper<WrapperPlaySe
         this.recipes = wrapper.recipes;
         this.itemSets = wrapper.itemSets;
         this.stonecutterRecipes = wrapper.stonecutterRecipes;
+        this.encodedRecipes = wrapper.encodedRecipes;
+    }
+
+    private void decodeRecipes() {
+        if (this.encodedRecipes != null) {
+            // The recipes are mutable, so they can't be written back as they were received after this
+            this.decodeLazily(this.encodedRecipes, this::readRecipes);
+            this.encodedRecipes = null;
+        }
     }
 
     /**
@@ -110,6 +134,7 @@ public class WrapperPlayServerDeclareRecipes extends PacketWrapper<WrapperPlaySe
      */
     @ApiStatus.Obsolete
     public Recipe<?>[] getRecipes() {
+        this.decodeRecipes();
         return this.recipes;
     }
 
@@ -118,22 +143,27 @@ public class WrapperPlayServerDeclareRecipes extends PacketWrapper<WrapperPlaySe
      */
     @ApiStatus.Obsolete
     public void setRecipes(Recipe<?>[] recipes) {
+        this.decodeRecipes();
         this.recipes = recipes;
     }
 
     public Map<ResourceLocation, RecipePropertySet> getItemSets() {
+        this.decodeRecipes();
         return this.itemSets;
     }
 
     public void setItemSets(Map<ResourceLocation, RecipePropertySet> itemSets) {
+        this.decodeRecipes();
         this.itemSets = itemSets;
     }
 
     public List<SingleInputOptionDisplay> getStonecutterRecipes() {
+        this.decodeRecipes();
         return this.stonecutterRecipes;
     }
 
     public void setStonecutterRecipes(List<SingleInputOptionDisplay> stonecutterRecipes) {
+        this.decodeRecipes();
         this.stonecutterRecipes = stonecutterRecipes;
     }
 }
@@ -21,21 +21,34 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityMetadataProvider;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.RawField;
 
+import java.util.BitSet;
 import java.util.List;
 
 public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlayServerEntityMetadata> {
     private int entityID;
     private List<EntityData> entityMetadata;
+    // The metadata as it was read, until it is accessed
+    private RawField rawEntityMetadata;
 
     public WrapperPlayServerEntityMetadata(PacketSendEvent event) {
         super(event);
     }
 
+    private WrapperPlayServerEntityMetadata(PacketSendEvent event, BitSet indices) {
+        super(event, false);
+        int readerIndex = ByteBufHelper.readerIndex(this.buffer);
+        this.entityID = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? readVarInt() : readInt();
+        this.entityMetadata = this.readEntityMetadata(indices);
+        ByteBufHelper.readerIndex(this.buffer, readerIndex);
+    }
+
     public WrapperPlayServerEntityMetadata(int entityID, List<EntityData> entityMetadata) {
         super(PacketType.Play.Server.ENTITY_METADATA);
         this.entityID = entityID;
@@ -46,10 +59,29 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
         this(entityID, metadata.entityData(PacketEvents.getAPI().getServerManager().getVersion().toClientVersion()));
     }
 
+    /**
+     * Reads only the entity data entries with the given indices, all other entries are skipped without decoding them.
+     * Unlike creating a wrapper from the event, the packet won't be re-encoded,
+     * so the returned wrapper is only meant to inspect the packet.
+     *
+     * @param event   The event of the packet
+     * @param indices The indices of the entries to read
+     * @return A wrapper only containing the requested entries
+     */
+    public static WrapperPlayServerEntityMetadata readPartially(PacketSendEvent event, int... indices) {
+        BitSet set = new BitSet(256);
+        for (int index : indices) {
+            set.set(index);
+        }
+        return new WrapperPlayServerEntityMetadata(event, set);
+    }
+
     @Override
     public void read() {
         entityID = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? readVarInt() : readInt();
+        int metadataStart = ByteBufHelper.readerIndex(buffer);
         entityMetadata = readEntityMetadata();
+        rawEntityMetadata = readRaw(metadataStart);
     }
 
     @Override
@@ -59,13 +91,16 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
         } else {
             writeInt(entityID);
         }
-        writeEntityMetadata(entityMetadata);
+        if (!writeRaw(rawEntityMetadata)) {
+            writeEntityMetadata(entityMetadata);
+        }
     }
 
     @Override
     public void copy(WrapperPlayServerEntityMetadata wrapper) {
         entityID = wrapper.entityID;
         entityMetadata = wrapper.entityMetadata;
+        rawEntityMetadata = trackRaw(wrapper.rawEntityMetadata);
     }
 
     public int getEntityId() {
@@ -77,14 +112,18 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
     }
 
     public List<EntityData> getEntityMetadata() {
+        // The list is mutable, we can't tell if it will be modified
+        this.rawEntityMetadata = null;
         return entityMetadata;
     }
 
     public void setEntityMetadata(List<EntityData> entityMetadata) {
+        this.rawEntityMetadata = null;
         this.entityMetadata = entityMetadata;
     }
 
     public void setEntityMetadata(EntityMetadataProvider metadata) {
+        this.rawEntityMetadata = null;
         this.entityMetadata = metadata.entityData(serverVersion.toClientVersion());
     }
 }
@@ -21,6 +21,8 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTReader;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.player.GameMode;
 import com.github.retrooper.packetevents.protocol.world.Difficulty;
@@ -32,6 +34,7 @@ import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypeR
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypes;
 import com.github.retrooper.packetevents.util.mappings.IRegistry;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -50,6 +53,8 @@ public class WrapperPlayServerJoinGame extends PacketWrapper<WrapperPlayServerJo
 
     private List<String> worldNames;
     private NBTCompound dimensionCodec;
+    // The dimension codec as it was received, until it is accessed
+    private byte[] encodedDimensionCodec;
     private DimensionTypeRef dimensionTypeRef;
     private Difficulty difficulty;
     private String worldName;
@@ -299,7 +304,13 @@ public class WrapperPlayServerJoinGame extends PacketWrapper<WrapperPlayServerJo
                 worldNames.add(readString());
             }
             if (!v1_20_2) {
-                dimensionCodec = readNBT();
+                if (this.isLazyDecoding()) {
+                    // Only sent before 1.20.2, so the root tag is always named
+                    this.encodedDimensionCodec = ByteBufNBTReader.readTagBytes(
+                            NBTLimiter.forBuffer(this.buffer), this.buffer, true);
+                } else {
+                    dimensionCodec = readNBT();
+                }
                 this.dimensionTypeRef = DimensionTypeRef.read(this);
                 worldName = readString();
             }
@@ -393,7 +404,11 @@ public class WrapperPlayServerJoinGame extends PacketWrapper<WrapperPlayServerJo
                 writeString(name);
             }
             if (!v1_20_2) {
-                writeNBT(dimensionCodec);
+                if (this.encodedDimensionCodec != null) {
+                    writeBytes(this.encodedDimensionCodec);
+                } else {
+                    writeNBT(dimensionCodec);
+                }
                 DimensionTypeRef.write(this, this.dimensionTypeRef);
                 writeString(worldName);
             }
@@ -472,6 +487,7 @@ public class WrapperPlayServerJoinGame extends PacketWrapper<WrapperPlayServerJo
         previousGameMode = wrapper.previousGameMode;
         worldNames = wrapper.worldNames;
         dimensionCodec = wrapper.dimensionCodec;
+        encodedDimensionCodec = wrapper.encodedDimensionCodec;
         dimensionTypeRef = wrapper.dimensionTypeRef;
         difficulty = wrapper.difficulty;
         worldName = wrapper.worldName;
@@ -531,11 +547,25 @@ public class WrapperPlayServerJoinGame extends PacketWrapper<WrapperPlayServerJo
         this.worldNames = worldNames;
     }
 
+    /**
+     * @return the dimension codec exactly as it was received, or null if it has been decoded
+     */
+    @ApiStatus.Internal
+    public @Nullable byte[] getEncodedDimensionCodec() {
+        return this.encodedDimensionCodec;
+    }
+
     public NBTCompound getDimensionCodec() {
+        if (this.encodedDimensionCodec != null) {
+            // The codec is mutable, so it can't be written back as it was received after this
+            this.decodeLazily(this.encodedDimensionCodec, () -> this.dimensionCodec = this.readNBT());
+            this.encodedDimensionCodec = null;
+        }
         return dimensionCodec;
     }
 
     public void setDimensionCodec(NBTCompound dimensionCodec) {
+        this.encodedDimensionCodec = null;
         this.dimensionCodec = dimensionCodec;
     }
 
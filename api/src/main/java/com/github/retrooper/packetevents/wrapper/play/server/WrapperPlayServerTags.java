@@ -32,6 +32,8 @@ import java.util.Map;
 public class WrapperPlayServerTags extends PacketWrapper<WrapperPlayServerTags> {
 
     private Map<ResourceLocation, List<Tag>> tags;
+    // The tags as they were received, until they are accessed
+    private byte[] encodedTags;
 
     public WrapperPlayServerTags(PacketSendEvent event) {
         super(event);
@@ -44,6 +46,14 @@ public class WrapperPlayServerTags extends PacketWrapper<WrapperPlayServerTags>
 
     @Override
     public void read() {
+        if (this.isLazyDecoding()) {
+            this.encodedTags = this.readRemainingBytes();
+        } else {
+            this.readTags();
+        }
+    }
+
+    private void readTags() {
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17)) {
             this.tags = this.readMap(
                     PacketWrapper::readIdentifier,
@@ -59,6 +69,10 @@ public class WrapperPlayServerTags extends PacketWrapper<WrapperPlayServerTags>
 
     @Override
     public void write() {
+        if (this.encodedTags != null) {
+            this.writeBytes(this.encodedTags);
+            return;
+        }
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17)) {
             this.writeMap(this.tags,
                     PacketWrapper::writeIdentifier,
@@ -74,18 +88,30 @@ public class WrapperPlayServerTags extends PacketWrapper<WrapperPlayServerTags>
     @Override
     public void copy(WrapperPlayServerTags wrapper) {
         this.tags = wrapper.tags;
+        this.encodedTags = wrapper.encodedTags;
+    }
+
+    private void decodeTags() {
+        if (this.encodedTags != null) {
+            // The tags are mutable, so they can't be written back as they were received after this
+            this.decodeLazily(this.encodedTags, this::readTags);
+            this.encodedTags = null;
+        }
     }
 
     public Map<ResourceLocation, List<Tag>> getTagMap() {
+        this.decodeTags();
         return this.tags;
     }
 
     public void setTagMap(Map<ResourceLocation, List<Tag>> tags) {
+        this.encodedTags = null;
         this.tags = tags;
     }
 
     @Deprecated
     public Map<String, List<Tag>> getTags() {
+        this.decodeTags();
         if (this.tags == null) {
             return null;
         }
@@ -98,6 +124,7 @@ public class WrapperPlayServerTags extends PacketWrapper<WrapperPlayServerTags>
 
     @Deprecated
     public void setTags(HashMap<String, List<Tag>> tags) {
+        this.encodedTags = null;
         if (tags == null) {
             this.tags = null;
         } else {
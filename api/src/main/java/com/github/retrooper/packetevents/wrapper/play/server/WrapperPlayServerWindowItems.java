@@ -20,12 +20,16 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.ItemStackView;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.RawField;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,7 +37,12 @@ public class WrapperPlayServerWindowItems extends PacketWrapper<WrapperPlayServe
     private int windowID;
     private int stateID;
     private List<ItemStack> items;
+    // Set instead of the items if they were read lazily
+    private List<ItemStackView> itemViews;
     private Optional<ItemStack> carriedItem;
+    // The items and the carried item as they were read, until they are accessed
+    private RawField rawItems;
+    private RawField rawCarriedItem;
 
     public WrapperPlayServerWindowItems(PacketSendEvent event) {
         super(event);
@@ -55,14 +64,25 @@ public class WrapperPlayServerWindowItems extends PacketWrapper<WrapperPlayServe
             stateID = readVarInt();
         }
 
+        int itemsStart = ByteBufHelper.readerIndex(buffer);
         int count = v1_17_1 ? readVarInt() : readShort();
-        items = new ArrayList<>(count);
-        for (int i = 0; i < count; i++) {
-            items.add(readItemStack());
+        if (isLazyDecoding()) {
+            itemViews = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                itemViews.add(readItemStackView());
+            }
+        } else {
+            items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(readItemStack());
+            }
         }
+        rawItems = readRaw(itemsStart);
 
-        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17_1)) {
+        if (v1_17_1) {
+            int carriedItemStart = ByteBufHelper.readerIndex(buffer);
             carriedItem = Optional.of(readItemStack());
+            rawCarriedItem = readRaw(carriedItemStart);
         } else {
             carriedItem = Optional.empty();
         }
@@ -75,15 +95,24 @@ public class WrapperPlayServerWindowItems extends PacketWrapper<WrapperPlayServe
         if (v1_17_1) {
             writeVarInt(stateID);
         }
-        if (v1_17_1) {
-            writeVarInt(items.size());
-        } else {
-            writeShort(items.size());
-        }
-        for (ItemStack item : items) {
-            writeItemStack(item);
+        if (!writeRaw(rawItems)) {
+            int count = items != null ? items.size() : itemViews.size();
+            if (v1_17_1) {
+                writeVarInt(count);
+            } else {
+                writeShort(count);
+            }
+            if (items != null) {
+                for (ItemStack item : items) {
+                    writeItemStack(item);
+                }
+            } else {
+                for (ItemStackView view : itemViews) {
+                    writeItemStackView(view);
+                }
+            }
         }
-        if (v1_17_1) {
+        if (v1_17_1 && !writeRaw(rawCarriedItem)) {
             writeItemStack(carriedItem.orElse(ItemStack.EMPTY));
         }
     }
@@ -93,7 +122,10 @@ public class WrapperPlayServerWindowItems extends PacketWrapper<WrapperPlayServe
         windowID = wrapper.windowID;
         stateID = wrapper.stateID;
         items = wrapper.items;
+        itemViews = wrapper.itemViews;
         carriedItem = wrapper.carriedItem;
+        rawItems = trackRaw(wrapper.rawItems);
+        rawCarriedItem = trackRaw(wrapper.rawCarriedItem);
     }
 
     public int getWindowId() {
@@ -113,18 +145,48 @@ public class WrapperPlayServerWindowItems extends PacketWrapper<WrapperPlayServe
     }
 
     public List<ItemStack> getItems() {
+        // The list and the items are mutable, we can't tell if they will be modified
+        this.rawItems = null;
+        if (this.items == null && this.itemViews != null) {
+            this.items = new ArrayList<>(this.itemViews.size());
+            for (ItemStackView view : this.itemViews) {
+                this.items.add(view.decode());
+            }
+            this.itemViews = null;
+        }
         return items;
     }
 
+    /**
+     * Only decodes the type and amount of the items, if they were read lazily.
+     * The views are immutable, use {@link #setItems(List)} to modify the items.
+     *
+     * @return An unmodifiable list of the items
+     */
+    public List<ItemStackView> getItemViews() {
+        if (this.items == null) {
+            return this.itemViews != null ? Collections.unmodifiableList(this.itemViews) : null;
+        }
+        List<ItemStackView> views = new ArrayList<>(this.items.size());
+        for (ItemStack item : this.items) {
+            views.add(ItemStackView.of(item));
+        }
+        return Collections.unmodifiableList(views);
+    }
+
     public void setItems(List<ItemStack> items) {
+        this.rawItems = null;
         this.items = items;
+        this.itemViews = null;
     }
 
     public Optional<ItemStack> getCarriedItem() {
+        this.rawCarriedItem = null;
         return carriedItem;
     }
 
     public void setCarriedItem(@Nullable ItemStack carriedItem) {
+        this.rawCarriedItem = null;
         this.carriedItem = Optional.ofNullable(carriedItem);
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.adventure.AdventureNBTSerializer;
+import com.github.retrooper.packetevents.util.adventure.AdventureNBTStreamCodec;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.ShadowColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.BackwardCompatUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class AdventureNBTStreamCodecTest extends BaseDummyAPITest {
+
+    private static List<Component> createComponents() {
+        List<Component> components = new ArrayList<>();
+        components.add(Component.text("plain"));
+        components.add(Component.text("styled", NamedTextColor.GOLD, TextDecoration.BOLD)
+                .decoration(TextDecoration.ITALIC, false)
+                .font(Key.key("uniform"))
+                .insertion("insert"));
+        components.add(Component.text("hex", TextColor.color(0x12AB34)));
+        components.add(Component.translatable("chat.type.text",
+                Component.text("player"), Component.text("message", NamedTextColor.GRAY)));
+        components.add(Component.text("hover").hoverEvent(
+                HoverEvent.showText(Component.text("tooltip", NamedTextColor.RED))));
+        components.add(Component.text("entity").hoverEvent(HoverEvent.showEntity(
+                Key.key("zombie"), new UUID(1L, 2L), Component.text("name"))));
+        components.add(Component.text("item").hoverEvent(HoverEvent.showItem(Key.key("stone"), 3)));
+        components.add(Component.text("click").clickEvent(ClickEvent.runCommand("/help")));
+        components.add(Component.score("player", "objective"));
+        components.add(Component.selector("@a", Component.text(", ", NamedTextColor.GRAY)));
+        components.add(Component.keybind("key.jump"));
+        components.add(Component.storageNBT().nbtPath("path").interpret(true)
+                .storage(Key.key("storage")).build());
+        components.add(Component.blockNBT().nbtPath("path")
+                .localPos(1, 2, 3).separator(Component.text("|")).build());
+        components.add(Component.text()
+                .append(Component.text("first"))
+                .append(Component.text("second", Style.style(TextDecoration.UNDERLINED))
+                        .append(Component.translatable("nested")))
+                .build());
+        if (BackwardCompatUtil.IS_4_18_0_OR_NEWER) {
+            components.add(Component.text("shadow").shadowColor(ShadowColor.shadowColor(0x80FF0000)));
+        }
+        return components;
+    }
+
+    private static byte[] getBytes(Object buffer) {
+        byte[] bytes = new byte[ByteBufHelper.readableBytes(buffer)];
+        ByteBufHelper.getBytes(buffer, ByteBufHelper.readerIndex(buffer), bytes);
+        return bytes;
+    }
+
+    @Test
+    @DisplayName("Verify components are streamed the same way as with the nbt serializer")
+    public void testRoundTrip() {
+        AdventureNBTSerializer reference = new AdventureNBTSerializer(false);
+        AdventureNBTStreamCodec codec = new AdventureNBTStreamCodec(reference);
+        for (ServerVersion version : new ServerVersion[]{ServerVersion.V_1_20_1, ServerVersion.V_1_21}) {
+            boolean named = version.isOlderThan(ServerVersion.V_1_20_2);
+            for (Component component : createComponents()) {
+                Object expected = UnpooledByteBufAllocationHelper.buffer();
+                NBTCodec.writeNBTToBuffer(expected, version, reference.serialize(component));
+                Object actual = UnpooledByteBufAllocationHelper.buffer();
+                codec.write(actual, component, named);
+                assertArrayEquals(getBytes(expected), getBytes(actual), component::toString);
+
+                Component read = codec.read(NBTLimiter.noop(), actual, named);
+                assertEquals(reference.deserialize(reference.serialize(component)), read);
+                assertFalse(ByteBufHelper.isReadable(actual));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Verify hand-written component trees are read like with the nbt serializer")
+    public void testReadTree() {
+        AdventureNBTSerializer reference = new AdventureNBTSerializer(false);
+        AdventureNBTStreamCodec codec = new AdventureNBTStreamCodec(reference);
+
+        NBTCompound unnamedText = new NBTCompound();
+        unnamedText.setTag("", new NBTString("unnamed"));
+        unnamedText.setTag("bold", new NBTInt(1));
+
+        NBTCompound numericText = new NBTCompound();
+        numericText.setTag("text", new NBTInt(7));
+        numericText.setTag("unknown", new NBTString("ignored"));
+
+        NBTCompound arrayArguments = new NBTCompound();
+        arrayArguments.setTag("translate", new NBTString("numbers"));
+        arrayArguments.setTag("with", new NBTIntArray(new int[]{1, 2, 3}));
+
+        NBTCompound hover = new NBTCompound();
+        // Contents before the action can't be streamed
+        hover.setTag("contents", new NBTString("tooltip"));
+        hover.setTag("action", new NBTString("show_text"));
+        NBTCompound reorderedHover = new NBTCompound();
+        reorderedHover.setTag("text", new NBTString("hover"));
+        reorderedHover.setTag("hoverEvent", hover);
+
+        for (NBT tag : new NBT[]{unnamedText, numericText, arrayArguments, reorderedHover, new NBTByte((byte) 1)}) {
+            Object buffer = UnpooledByteBufAllocationHelper.buffer();
+            NBTCodec.writeNBTToBuffer(buffer, ServerVersion.V_1_21, tag);
+            assertEquals(reference.deserialize(tag), codec.read(NBTLimiter.noop(), buffer, false));
+            assertFalse(ByteBufHelper.isReadable(buffer));
+        }
+    }
+}
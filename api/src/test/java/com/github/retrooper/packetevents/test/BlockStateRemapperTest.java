@@ -0,0 +1,107 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.states.BlockStateRemapper;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockStateRemapperTest extends BaseDummyAPITest {
+
+    private static final ClientVersion[][] VERSION_PAIRS = {
+            {ClientVersion.V_1_13, ClientVersion.V_1_21},
+            {ClientVersion.V_1_16, ClientVersion.V_1_20},
+            {ClientVersion.V_1_20, ClientVersion.V_1_21},
+            {ClientVersion.V_1_21, ClientVersion.V_1_13},
+    };
+
+    @Test
+    @DisplayName("Verify remapped states round trip between versions")
+    public void testRoundTrip() {
+        for (ClientVersion[] pair : VERSION_PAIRS) {
+            ClientVersion from = pair[0];
+            ClientVersion to = pair[1];
+            BlockStateRemapper remapper = BlockStateRemapper.create(from, to);
+            BlockStateRemapper back = BlockStateRemapper.create(to, from);
+
+            int stateCount = WrappedBlockState.getTranslationTable(from, to).length;
+            int roundTrips = 0;
+            for (int id = 1; id < stateCount; id++) {
+                WrappedBlockState state = WrappedBlockState.getByGlobalId(from, id, false);
+                if (state.getType() == StateTypes.AIR) {
+                    continue;
+                }
+                int targetId = remapper.remap(id);
+                WrappedBlockState target = WrappedBlockState.getByGlobalId(to, targetId, false);
+                if (target.equals(state)) {
+                    // The same state exists on both versions, so it has to map back to itself
+                    assertEquals(id, back.remap(targetId), () -> state + " doesn't map back from " + to + " to " + from);
+                    roundTrips++;
+                } else if (target.getType() != StateTypes.AIR) {
+                    // Missing states fall back to the default state of their type
+                    assertEquals(state.getType(), target.getType());
+                    assertEquals(WrappedBlockState.getDefaultState(to, target.getType()), target);
+                }
+            }
+            // Most states exist on every version
+            assertTrue(roundTrips > stateCount / 2, () -> "Only " + roundTrips + " of " + stateCount
+                    + " states round trip from " + from + " to " + to);
+
+            int stone = WrappedBlockState.getDefaultState(from, StateTypes.STONE).getGlobalId();
+            assertEquals(WrappedBlockState.getDefaultState(to, StateTypes.STONE).getGlobalId(), remapper.remap(stone));
+            assertEquals(0, remapper.remap(0));
+            assertEquals(0, remapper.remap(-1));
+            assertEquals(0, remapper.remap(stateCount));
+        }
+    }
+
+    @Test
+    @DisplayName("Verify bulk remapping matches single id remapping")
+    public void testBulkRemap() {
+        BlockStateRemapper remapper = BlockStateRemapper.create(ClientVersion.V_1_13, ClientVersion.V_1_21);
+        int stateCount = WrappedBlockState.getTranslationTable(ClientVersion.V_1_13, ClientVersion.V_1_21).length;
+
+        int[] ids = new int[stateCount];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        remapper.remap(ids);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(remapper.remap(i), ids[i]);
+        }
+
+        // Enough distinct states to use the global palette
+        DataPalette palette = DataPalette.createForChunk();
+        for (int i = 0; i < 16 * 16 * 16; i++) {
+            palette.set(i & 15, i >> 8, (i >> 4) & 15, (i * 7) % stateCount);
+        }
+        remapper.remap(palette);
+        for (int i = 0; i < 16 * 16 * 16; i++) {
+            assertEquals(remapper.remap((i * 7) % stateCount), palette.get(i & 15, i >> 8, (i >> 4) & 15));
+        }
+    }
+}
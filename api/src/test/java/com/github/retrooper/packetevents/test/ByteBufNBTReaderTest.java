@@ -0,0 +1,149 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTReader;
+import com.github.retrooper.packetevents.protocol.world.chunk.TileEntity;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ByteBufNBTReaderTest extends BaseDummyAPITest {
+
+    private static NBTCompound createCompound() {
+        NBTCompound nested = new NBTCompound();
+        nested.setTag("name", new NBTString("nested"));
+        nested.setTag("data", new NBTLongArray(new long[]{1L, 2L, 3L}));
+
+        NBTList<NBTInt> ints = new NBTList<>(NBTType.INT);
+        ints.addTag(new NBTInt(1));
+        ints.addTag(new NBTInt(2));
+        NBTList<NBTCompound> compounds = new NBTList<>(NBTType.COMPOUND);
+        compounds.addTag(nested.copy());
+
+        NBTCompound compound = new NBTCompound();
+        compound.setTag("nested", nested);
+        compound.setTag("ints", ints);
+        compound.setTag("compounds", compounds);
+        compound.setTag("été", new NBTString("unicode"));
+        compound.setTag("last", new NBTInt(42));
+        return compound;
+    }
+
+    @Test
+    @DisplayName("Verify skipping and looking up tags in a buffer")
+    public void testBufferReader() {
+        for (ServerVersion version : new ServerVersion[]{ServerVersion.V_1_18, ServerVersion.V_1_20_2}) {
+            boolean named = version.isOlderThan(ServerVersion.V_1_20_2);
+            NBTCompound compound = createCompound();
+            Object buffer = UnpooledByteBufAllocationHelper.buffer();
+            NBTCodec.writeNBTToBuffer(buffer, version, compound);
+            int length = ByteBufHelper.readableBytes(buffer);
+
+            assertEquals(length, ByteBufNBTReader.skipTag(NBTLimiter.noop(), buffer, named));
+            assertFalse(ByteBufHelper.isReadable(buffer));
+
+            ByteBufHelper.readerIndex(buffer, 0);
+            assertEquals(new NBTInt(42), ByteBufNBTReader.readTag(NBTLimiter.noop(), buffer, named, "last"));
+            assertFalse(ByteBufHelper.isReadable(buffer));
+
+            ByteBufHelper.readerIndex(buffer, 0);
+            assertEquals(new NBTString("unicode"), ByteBufNBTReader.readTag(NBTLimiter.noop(), buffer, named, "été"));
+
+            ByteBufHelper.readerIndex(buffer, 0);
+            assertNull(ByteBufNBTReader.readTag(NBTLimiter.noop(), buffer, named, "missing"));
+
+            ByteBufHelper.readerIndex(buffer, 0);
+            ByteBufNBTReader.Compound cursor = ByteBufNBTReader.readCompound(NBTLimiter.noop(), buffer, named);
+            for (String name : compound.getTagNames()) {
+                assertTrue(cursor.next());
+                assertTrue(cursor.isName(name));
+                assertEquals(name, cursor.getName());
+                if (name.equals("nested")) {
+                    assertEquals(compound.getTagOrNull(name), cursor.read());
+                }
+            }
+            assertFalse(cursor.next());
+            assertFalse(ByteBufHelper.isReadable(buffer));
+
+            ByteBufHelper.readerIndex(buffer, 0);
+            byte[] bytes = ByteBufNBTReader.readTagBytes(NBTLimiter.noop(), buffer, named);
+            assertEquals(compound, NBTCodec.readNBTFromBytes(bytes, version));
+            ByteBufHelper.release(buffer);
+        }
+    }
+
+    @Test
+    @DisplayName("Verify lazily read tile entities are decoded with the version they were read with")
+    public void testEncodedTileEntity() {
+        // Older than the server version of the test api, like a legacy client on a proxy
+        ServerVersion version = ServerVersion.V_1_18;
+        NBTCompound compound = createCompound();
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        NBTCodec.writeNBTToBuffer(buffer, version, compound);
+        byte[] bytes = ByteBufNBTReader.readTagBytes(NBTLimiter.noop(), buffer, true);
+        ByteBufHelper.release(buffer);
+
+        TileEntity tileEntity = TileEntity.createEncoded((byte) 0x12, (short) 64, 1, bytes, version);
+        assertSame(bytes, tileEntity.getEncodedNBT(ServerVersion.V_1_20_1));
+        // Nameless nbt can't reuse the named bytes
+        assertNull(tileEntity.getEncodedNBT(ServerVersion.V_1_20_2));
+        assertEquals(1, tileEntity.getX());
+        assertEquals(2, tileEntity.getZ());
+        assertEquals(compound, tileEntity.getNBT());
+        assertNull(tileEntity.getEncodedNBT(ServerVersion.V_1_20_1));
+    }
+
+    @Test
+    @DisplayName("Verify array lengths which overflow or are negative are rejected")
+    public void testInvalidArrayLength() {
+        // 0x40000000 ints overflow to a byte count of 0, which would skip nothing
+        for (int length : new int[]{0x40000000, -1}) {
+            Object buffer = UnpooledByteBufAllocationHelper.buffer();
+            ByteBufHelper.writeByte(buffer, 10); // compound
+            ByteBufHelper.writeByte(buffer, 11); // int array
+            ByteBufHelper.writeShort(buffer, 1);
+            ByteBufHelper.writeByte(buffer, 'a');
+            ByteBufHelper.writeInt(buffer, length);
+            ByteBufHelper.writeByte(buffer, 0); // end
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> ByteBufNBTReader.skipTag(NBTLimiter.forBuffer(buffer), buffer, false));
+            ByteBufHelper.release(buffer);
+        }
+    }
+}
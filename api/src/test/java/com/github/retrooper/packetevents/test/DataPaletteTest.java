@@ -0,0 +1,87 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.GlobalPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.MapPalette;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public class DataPaletteTest {
+
+    private static int stateAt(int x, int y, int z, int states) {
+        return 1 + ((x * 31 + y * 17 + z) % states);
+    }
+
+    private static DataPalette createFilled(int states) {
+        DataPalette palette = DataPalette.createForChunk();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    palette.set(x, y, z, stateAt(x, y, z, states));
+                }
+            }
+        }
+        return palette;
+    }
+
+    private static void assertStates(DataPalette palette, int states, int offset) {
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    assertEquals(stateAt(x, y, z, states) + offset, palette.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Verify palettes keep their states when resizing")
+    public void testResize() {
+        DataPalette map = createFilled(200);
+        assertInstanceOf(MapPalette.class, map.palette);
+        assertStates(map, 200, 0);
+
+        DataPalette global = createFilled(1000);
+        assertInstanceOf(GlobalPalette.class, global.palette);
+        assertStates(global, 1000, 0);
+    }
+
+    @Test
+    @DisplayName("Verify bulk palette operations")
+    public void testBulkOperations() {
+        for (int states : new int[]{10, 200, 1000}) {
+            DataPalette palette = createFilled(states);
+            palette.replaceAll(state -> state + 5000);
+            assertStates(palette, states, 5000);
+
+            palette.replace(5001, 42);
+            assertEquals(42, palette.get(0, 0, 0));
+
+            palette.fill(7);
+            for (int i = 0; i < 16; i++) {
+                assertEquals(7, palette.get(i, 15 - i, i));
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.ProtocolVersion;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.test.base.TestPacketEventsBuilder;
+import com.github.retrooper.packetevents.util.EncodedPacketCache;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import io.github.retrooper.packetevents.impl.netty.manager.protocol.ProtocolManagerAbstract;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class EncodedPacketCacheTest extends BaseDummyAPITest {
+
+    private static final Object CHANNEL = new Object();
+    private static final Supplier<PacketWrapper<?>> WRAPPER = () -> new WrapperPlayServerKeepAlive(1L);
+
+    /**
+     * Records encoded and sent buffers instead of writing them to a channel.
+     */
+    private static final class RecordingProtocolManager extends ProtocolManagerAbstract {
+
+        private final List<Object> encoded = new ArrayList<>();
+        private final List<Object> sent = new ArrayList<>();
+
+        @Override
+        public ProtocolVersion getPlatformVersion() {
+            return ProtocolVersion.UNKNOWN;
+        }
+
+        @Override
+        public Object[] transformWrappers(PacketWrapper<?> wrapper, Object channel, boolean outgoing) {
+            Object buffer = UnpooledByteBufAllocationHelper.buffer();
+            ByteBufHelper.writeByte(buffer, this.encoded.size());
+            this.encoded.add(buffer);
+            return new Object[]{buffer};
+        }
+
+        @Override
+        public void sendPacket(Object channel, Object byteBuf) {
+            this.sent.add(byteBuf);
+        }
+
+        @Override
+        public void sendPacketSilently(Object channel, Object byteBuf) {
+            this.sent.add(byteBuf);
+        }
+
+        // The channel releases the buffers once they have been written
+        private void flush() {
+            for (Object buffer : this.sent) {
+                ByteBufHelper.release(buffer);
+            }
+            this.sent.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("Verify silently sent packets share the cached buffer")
+    public void testSilentSend() {
+        EncodedPacketCache cache = new EncodedPacketCache(EncodedPacketCache.DEFAULT_MAX_ENTRIES);
+        RecordingProtocolManager protocolManager = new RecordingProtocolManager();
+        cache.send(protocolManager, CHANNEL, "a", WRAPPER, true);
+        cache.send(protocolManager, CHANNEL, "a", WRAPPER, true);
+        assertEquals(1, protocolManager.encoded.size());
+        Object cached = protocolManager.encoded.get(0);
+        // One reference for the cache, one for each send
+        assertEquals(3, ByteBufHelper.refCnt(cached));
+        protocolManager.flush();
+        assertEquals(1, ByteBufHelper.refCnt(cached));
+        cache.clear();
+        assertEquals(0, ByteBufHelper.refCnt(cached));
+    }
+
+    @Test
+    @DisplayName("Verify packets processed by listeners get their own copy")
+    public void testSend() {
+        EncodedPacketCache cache = new EncodedPacketCache(EncodedPacketCache.DEFAULT_MAX_ENTRIES);
+        RecordingProtocolManager protocolManager = new RecordingProtocolManager();
+        cache.send(protocolManager, CHANNEL, "a", WRAPPER, false);
+        cache.send(protocolManager, CHANNEL, "a", WRAPPER, false);
+        assertEquals(1, protocolManager.encoded.size());
+        Object cached = protocolManager.encoded.get(0);
+        assertEquals(1, ByteBufHelper.refCnt(cached));
+        for (Object buffer : protocolManager.sent) {
+            assertNotSame(cached, buffer);
+            assertEquals(1, ByteBufHelper.refCnt(buffer));
+            assertEquals(cached, buffer);
+        }
+        protocolManager.flush();
+        assertEquals(1, ByteBufHelper.refCnt(cached));
+        cache.clear();
+        assertEquals(0, ByteBufHelper.refCnt(cached));
+    }
+
+    @Test
+    @DisplayName("Verify evicting the least recently used entry releases it")
+    public void testEviction() {
+        EncodedPacketCache cache = new EncodedPacketCache(2);
+        RecordingProtocolManager protocolManager = new RecordingProtocolManager();
+        cache.send(protocolManager, CHANNEL, "a", WRAPPER, true);
+        cache.send(protocolManager, CHANNEL, "b", WRAPPER, true);
+        // Makes b the least recently used entry
+        cache.send(protocolManager, CHANNEL, "a", WRAPPER, true);
+        cache.send(protocolManager, CHANNEL, "c", WRAPPER, true);
+        protocolManager.flush();
+        assertEquals(2, cache.size());
+        assertEquals(1, ByteBufHelper.refCnt(protocolManager.encoded.get(0)));
+        assertEquals(0, ByteBufHelper.refCnt(protocolManager.encoded.get(1)));
+        assertEquals(1, ByteBufHelper.refCnt(protocolManager.encoded.get(2)));
+
+        cache.send(protocolManager, CHANNEL, "b", WRAPPER, true);
+        protocolManager.flush();
+        assertEquals(4, protocolManager.encoded.size());
+        cache.clear();
+        for (Object buffer : protocolManager.encoded) {
+            assertEquals(0, ByteBufHelper.refCnt(buffer));
+        }
+    }
+
+    @Test
+    @DisplayName("Verify invalidating an entry releases it")
+    public void testInvalidate() {
+        EncodedPacketCache cache = new EncodedPacketCache(EncodedPacketCache.DEFAULT_MAX_ENTRIES);
+        RecordingProtocolManager protocolManager = new RecordingProtocolManager();
+        cache.send(protocolManager, CHANNEL, "a", WRAPPER, true);
+        cache.send(protocolManager, CHANNEL, "b", WRAPPER, true);
+        protocolManager.flush();
+        cache.invalidate("a");
+        assertEquals(1, cache.size());
+        assertEquals(0, ByteBufHelper.refCnt(protocolManager.encoded.get(0)));
+        assertEquals(1, ByteBufHelper.refCnt(protocolManager.encoded.get(1)));
+
+        cache.send(protocolManager, CHANNEL, "a", WRAPPER, true);
+        protocolManager.flush();
+        assertEquals(3, protocolManager.encoded.size());
+        cache.clear();
+    }
+
+    @Test
+    @DisplayName("Verify terminating releases all cached packets")
+    public void testTerminate() {
+        RecordingProtocolManager protocolManager = new RecordingProtocolManager();
+        ProtocolManager.ENCODED_PACKETS.send(protocolManager, CHANNEL, "a", WRAPPER, true);
+        protocolManager.flush();
+
+        PacketEventsAPI<Plugin> api = TestPacketEventsBuilder.buildNoCache(MockBukkit.createMockPlugin("packetevents"));
+        api.init();
+        api.terminate();
+        assertEquals(0, ProtocolManager.ENCODED_PACKETS.size());
+        assertEquals(0, ByteBufHelper.refCnt(protocolManager.encoded.get(0)));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.entity.data.ByteEntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.data.FloatEntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.IntEntityData;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public class EntityMetadataReadTest extends BaseDummyAPITest {
+
+    private static PacketWrapper<?> createWrapper(Object buffer) {
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(buffer);
+        wrapper.setServerVersion(ServerVersion.V_1_21);
+        return wrapper;
+    }
+
+    @Test
+    @DisplayName("Verify reading entity metadata selectively")
+    public void testFilteredRead() {
+        List<EntityData> metadata = Arrays.asList(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x20),
+                new EntityData(1, EntityDataTypes.INT, 300),
+                new EntityData(2, EntityDataTypes.OPTIONAL_ADV_COMPONENT, Optional.of(Component.text("Name"))),
+                new EntityData(3, EntityDataTypes.STRING, "skipped"),
+                new EntityData(4, EntityDataTypes.FLOAT, 2.5F));
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        createWrapper(buffer).writeEntityMetadata(metadata);
+        int length = ByteBufHelper.readableBytes(buffer);
+
+        BitSet indices = new BitSet();
+        indices.set(0);
+        indices.set(4);
+        List<EntityData> filtered = createWrapper(buffer).readEntityMetadata(indices);
+        assertFalse(ByteBufHelper.isReadable(buffer));
+        assertEquals(2, filtered.size());
+        assertInstanceOf(ByteEntityData.class, filtered.get(0));
+        assertEquals((byte) 0x20, filtered.get(0).getByteValue());
+        assertInstanceOf(FloatEntityData.class, filtered.get(1));
+        assertEquals(2.5F, filtered.get(1).getFloatValue());
+
+        ByteBufHelper.readerIndex(buffer, 0);
+        List<EntityData> all = createWrapper(buffer).readEntityMetadata();
+        assertEquals(metadata.size(), all.size());
+        assertInstanceOf(IntEntityData.class, all.get(1));
+        assertEquals(300, all.get(1).getIntValue());
+        for (int i = 0; i < metadata.size(); i++) {
+            assertEquals(metadata.get(i).getValue(), all.get(i).getValue());
+        }
+
+        // The primitive entries have to be written exactly like the boxed ones
+        Object rewritten = UnpooledByteBufAllocationHelper.buffer();
+        createWrapper(rewritten).writeEntityMetadata(all);
+        assertEquals(length, ByteBufHelper.readableBytes(rewritten));
+        ByteBufHelper.release(buffer);
+        ByteBufHelper.release(rewritten);
+    }
+
+    @Test
+    @DisplayName("Verify primitive entries can be retyped")
+    public void testRetypedValues() {
+        List<EntityData> retyped = Arrays.asList(
+                new ByteEntityData(0, (byte) 1),
+                new IntEntityData(1, 2),
+                new FloatEntityData(2, 3F));
+        for (EntityData data : retyped) {
+            data.setType(EntityDataTypes.BOOLEAN);
+            data.setValue(true);
+            assertEquals(true, data.getValue());
+        }
+        List<EntityData> expected = Arrays.asList(
+                new EntityData(0, EntityDataTypes.BOOLEAN, true),
+                new EntityData(1, EntityDataTypes.BOOLEAN, true),
+                new EntityData(2, EntityDataTypes.BOOLEAN, true));
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        Object expectedBuffer = UnpooledByteBufAllocationHelper.buffer();
+        createWrapper(buffer).writeEntityMetadata(retyped);
+        createWrapper(expectedBuffer).writeEntityMetadata(expected);
+        assertEquals(expectedBuffer, buffer);
+
+        // Going back to the primitive type stores the value unboxed again
+        IntEntityData data = (IntEntityData) retyped.get(1);
+        data.setType(EntityDataTypes.INT);
+        data.setValue(5);
+        assertEquals(5, data.getIntValue());
+        assertEquals(5, data.getValue());
+        ByteBufHelper.release(buffer);
+        ByteBufHelper.release(expectedBuffer);
+    }
+}
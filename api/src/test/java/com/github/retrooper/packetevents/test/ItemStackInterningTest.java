@@ -0,0 +1,82 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.component.ComponentPatchMap;
+import com.github.retrooper.packetevents.protocol.component.ComponentType;
+import com.github.retrooper.packetevents.protocol.component.ComponentTypes;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemStackInterningTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test sharing of unpatched item stacks")
+    public void testInterning() {
+        ItemStack stone = ItemStack.interned(ItemTypes.STONE, 32);
+        assertSame(stone, ItemStack.interned(ItemTypes.STONE, 32));
+        assertEquals(ItemStack.builder().type(ItemTypes.STONE).amount(32).build(), stone);
+        assertSame(ItemStack.EMPTY, ItemStack.interned(ItemTypes.STONE, 0));
+
+        assertThrows(UnsupportedOperationException.class, () -> stone.setAmount(1));
+        assertThrows(UnsupportedOperationException.class, () -> stone.setComponent(ComponentTypes.DAMAGE, 1));
+        assertThrows(UnsupportedOperationException.class, stone::getOrCreateTag);
+
+        ItemStack copy = stone.copy();
+        assertFalse(copy.isInterned());
+        copy.setAmount(1);
+        assertEquals(32, stone.getAmount());
+    }
+
+    @Test
+    @DisplayName("Test compact component patch map")
+    public void testPatchMap() {
+        Map<ComponentType<?>, Optional<?>> expected = new HashMap<>();
+        ComponentPatchMap patches = new ComponentPatchMap();
+        for (Map<ComponentType<?>, Optional<?>> map : new Map[]{expected, patches}) {
+            map.put(ComponentTypes.DAMAGE, Optional.of(3));
+            map.put(ComponentTypes.MAX_STACK_SIZE, Optional.empty());
+            map.put(ComponentTypes.REPAIR_COST, Optional.of(1));
+            map.put(ComponentTypes.DAMAGE, Optional.of(4));
+            map.remove(ComponentTypes.MAX_STACK_SIZE);
+        }
+        assertEquals(expected, patches);
+        assertEquals(expected.hashCode(), patches.hashCode());
+        assertEquals(Optional.of(4), patches.get(ComponentTypes.DAMAGE));
+        assertNull(patches.get(ComponentTypes.MAX_STACK_SIZE));
+
+        patches.entrySet().removeIf(entry -> entry.getKey() == ComponentTypes.DAMAGE);
+        assertEquals(1, patches.size());
+        assertTrue(patches.containsKey(ComponentTypes.REPAIR_COST));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.component.ComponentTypes;
+import com.github.retrooper.packetevents.protocol.component.builtin.item.ItemEnchantments;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.ItemStackView;
+import com.github.retrooper.packetevents.protocol.item.enchantment.type.EnchantmentType;
+import com.github.retrooper.packetevents.protocol.item.enchantment.type.EnchantmentTypes;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.SimpleRegistry;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ItemStackViewTest extends BaseDummyAPITest {
+
+    private static final ServerVersion VERSION = ServerVersion.V_1_21;
+
+    /**
+     * A wrapper of a connection, like the ones created for packet events.
+     */
+    private static final class UserWrapper extends PacketWrapper<UserWrapper> {
+
+        private UserWrapper(Object buffer, User user) {
+            super(ClientVersion.V_1_21, VERSION, -2);
+            this.buffer = buffer;
+            this.user = user;
+        }
+    }
+
+    @Test
+    @DisplayName("Verify views decode registry-backed components with the registries of their connection")
+    public void testSynchronizedRegistry() {
+        ItemStack item = ItemStack.builder()
+                .type(ItemTypes.DIAMOND_SWORD)
+                .amount(1)
+                .component(ComponentTypes.ENCHANTMENTS, new ItemEnchantments(
+                        Collections.singletonMap(EnchantmentTypes.SHARPNESS, 5), true))
+                .build();
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        PacketWrapper<?> writer = PacketWrapper.createUniversalPacketWrapper(buffer);
+        writer.setServerVersion(VERSION);
+        writer.writeItemStack(item);
+
+        // The server sent its own enchantments, which reuse the id of sharpness
+        int id = EnchantmentTypes.SHARPNESS.getId(VERSION.toClientVersion());
+        SimpleRegistry<EnchantmentType> registry = new SimpleRegistry<>(EnchantmentTypes.getRegistry().getRegistryKey());
+        registry.define("protection", id, EnchantmentTypes.ALL_DAMAGE_PROTECTION);
+        User user = new User(null, ConnectionState.PLAY, ClientVersion.V_1_21,
+                new UserProfile(UUID.randomUUID(), "viewer"));
+        user.putRegistry(registry);
+
+        ItemStackView view = new UserWrapper(ByteBufHelper.duplicate(buffer), user).readItemStackView();
+        ItemStack eager = new UserWrapper(ByteBufHelper.duplicate(buffer), user).readItemStack();
+        ItemEnchantments expected = eager.getComponent(ComponentTypes.ENCHANTMENTS).get();
+        assertEquals(5, expected.getEnchantmentLevel(EnchantmentTypes.ALL_DAMAGE_PROTECTION));
+
+        ItemEnchantments decoded = view.decode().getComponent(ComponentTypes.ENCHANTMENTS).get();
+        assertEquals(expected.getEnchantments(), decoded.getEnchantments());
+        ByteBufHelper.release(buffer);
+    }
+}
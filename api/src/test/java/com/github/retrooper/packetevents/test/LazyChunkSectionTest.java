@@ -0,0 +1,103 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyChunkSectionTest extends BaseDummyAPITest {
+
+    private static byte[] createSection(int states) {
+        DataPalette chunkData = DataPalette.createForChunk();
+        int blockCount = 0;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    int state = (x * 31 + y * 17 + z) % states;
+                    chunkData.set(x, y, z, state);
+                    if (state != 0) blockCount++;
+                }
+            }
+        }
+        DataPalette biomeData = DataPalette.createForBiome();
+        biomeData.set(1, 2, 3, 7);
+        return write(new Chunk_v1_18(blockCount, chunkData, biomeData));
+    }
+
+    private static byte[] write(Chunk_v1_18 section) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Chunk_v1_18.write(new NetStreamOutput(bytes), section);
+        return bytes.toByteArray();
+    }
+
+    private static PacketWrapper<?> wrap(byte[] bytes) {
+        return PacketWrapper.createUniversalPacketWrapper(UnpooledByteBufAllocationHelper.wrappedBuffer(bytes));
+    }
+
+    @Test
+    @DisplayName("Verify lazily read sections match eagerly read sections")
+    public void testLazyDecoding() {
+        for (int states : new int[]{1, 10, 200, 1000}) {
+            byte[] encoded = createSection(states);
+
+            PacketWrapper<?> eagerWrapper = wrap(encoded);
+            Chunk_v1_18 eager = Chunk_v1_18.read(eagerWrapper);
+            PacketWrapper<?> lazyWrapper = wrap(encoded);
+            Chunk_v1_18 lazy = Chunk_v1_18.readLazily(lazyWrapper);
+            // Both leave the reader index after the section
+            assertFalse(ByteBufHelper.isReadable(eagerWrapper.buffer));
+            assertFalse(ByteBufHelper.isReadable(lazyWrapper.buffer));
+
+            assertFalse(lazy.isDecoded());
+            assertEquals(eager.getBlockCount(), lazy.getBlockCount());
+            // Unaccessed sections are written back as they were read
+            assertArrayEquals(encoded, write(lazy));
+
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        assertEquals(eager.getBlockId(x, y, z), lazy.getBlockId(x, y, z));
+                    }
+                }
+            }
+            assertTrue(lazy.isDecoded());
+            assertArrayEquals(write(eager), write(lazy));
+
+            // Modified sections are encoded again
+            eager.set(0, 0, 0, 4242);
+            lazy.set(0, 0, 0, 4242);
+            assertEquals(eager.getBlockCount(), lazy.getBlockCount());
+            assertArrayEquals(write(eager), write(lazy));
+        }
+    }
+}
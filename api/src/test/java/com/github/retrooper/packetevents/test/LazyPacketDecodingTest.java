@@ -0,0 +1,169 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.protocol.recipe.RecipePropertySet;
+import com.github.retrooper.packetevents.protocol.world.Difficulty;
+import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypeRef;
+import com.github.retrooper.packetevents.resources.ResourceLocation;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDeclareRecipes;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerJoinGame;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerTags;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LazyPacketDecodingTest extends BaseDummyAPITest {
+
+    private static byte[] write(PacketWrapper<?> wrapper, ServerVersion version) {
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        wrapper.buffer = buffer;
+        wrapper.setServerVersion(version);
+        wrapper.write();
+        byte[] bytes = new byte[ByteBufHelper.readableBytes(buffer)];
+        ByteBufHelper.readBytes(buffer, bytes);
+        ByteBufHelper.release(buffer);
+        return bytes;
+    }
+
+    private static <T extends PacketWrapper<?>> T read(Supplier<T> factory, ServerVersion version,
+                                                        byte[] bytes, boolean lazy) {
+        PacketEvents.getAPI().getSettings().lazyPacketDecoding(lazy);
+        try {
+            T wrapper = factory.get();
+            wrapper.buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(bytes);
+            wrapper.setServerVersion(version);
+            wrapper.read();
+            assertFalse(ByteBufHelper.isReadable(wrapper.buffer));
+            return wrapper;
+        } finally {
+            PacketEvents.getAPI().getSettings().lazyPacketDecoding(false);
+        }
+    }
+
+    @Test
+    @DisplayName("Verify lazily read tags match eagerly read tags")
+    public void testTags() {
+        ServerVersion version = ServerVersion.V_1_21;
+        Map<ResourceLocation, List<WrapperPlayServerTags.Tag>> tags = new HashMap<>();
+        tags.put(new ResourceLocation("block"), Arrays.asList(
+                new WrapperPlayServerTags.Tag("logs", Arrays.asList(1, 2, 3)),
+                new WrapperPlayServerTags.Tag("leaves", Collections.singletonList(4))));
+        byte[] bytes = write(new WrapperPlayServerTags(tags), version);
+        Supplier<WrapperPlayServerTags> factory = () -> new WrapperPlayServerTags(new HashMap<>());
+
+        WrapperPlayServerTags lazy = read(factory, version, bytes, true);
+        assertArrayEquals(bytes, write(lazy, version));
+
+        WrapperPlayServerTags eager = read(factory, version, bytes, false);
+        Map<ResourceLocation, List<WrapperPlayServerTags.Tag>> lazyTags = lazy.getTagMap();
+        assertEquals(eager.getTagMap().keySet(), lazyTags.keySet());
+        for (Map.Entry<ResourceLocation, List<WrapperPlayServerTags.Tag>> entry : eager.getTagMap().entrySet()) {
+            List<WrapperPlayServerTags.Tag> lazyList = lazyTags.get(entry.getKey());
+            assertEquals(entry.getValue().size(), lazyList.size());
+            for (int i = 0; i < lazyList.size(); i++) {
+                assertEquals(entry.getValue().get(i).getKey(), lazyList.get(i).getKey());
+                assertEquals(entry.getValue().get(i).getValues(), lazyList.get(i).getValues());
+            }
+        }
+        // Accessed tags are encoded again
+        assertArrayEquals(write(eager, version), write(lazy, version));
+    }
+
+    @Test
+    @DisplayName("Verify lazily read recipes match eagerly read recipes")
+    public void testRecipes() {
+        ServerVersion version = ServerVersion.V_1_21_2;
+        Map<ResourceLocation, RecipePropertySet> itemSets = new HashMap<>();
+        itemSets.put(new ResourceLocation("smithing_base"),
+                new RecipePropertySet(new HashSet<>(Arrays.asList(ItemTypes.STONE, ItemTypes.DIRT))));
+        byte[] bytes = write(new WrapperPlayServerDeclareRecipes(itemSets, Collections.emptyList()), version);
+        Supplier<WrapperPlayServerDeclareRecipes> factory = () ->
+                new WrapperPlayServerDeclareRecipes(new HashMap<>(), Collections.emptyList());
+
+        WrapperPlayServerDeclareRecipes lazy = read(factory, version, bytes, true);
+        assertArrayEquals(bytes, write(lazy, version));
+
+        WrapperPlayServerDeclareRecipes eager = read(factory, version, bytes, false);
+        assertEquals(eager.getItemSets().keySet(), lazy.getItemSets().keySet());
+        for (Map.Entry<ResourceLocation, RecipePropertySet> entry : eager.getItemSets().entrySet()) {
+            assertEquals(entry.getValue().getItems(), lazy.getItemSets().get(entry.getKey()).getItems());
+        }
+        assertEquals(eager.getStonecutterRecipes().size(), lazy.getStonecutterRecipes().size());
+        assertArrayEquals(write(eager, version), write(lazy, version));
+    }
+
+    @Test
+    @DisplayName("Verify a lazily read dimension codec matches an eagerly read one")
+    public void testJoinGame() {
+        ServerVersion version = ServerVersion.V_1_19;
+        NBTCompound codec = new NBTCompound();
+        codec.setTag("name", new NBTString("minecraft:overworld"));
+        codec.setTag("id", new NBTInt(0));
+        Supplier<WrapperPlayServerJoinGame> factory = () -> new WrapperPlayServerJoinGame(
+                0, false, GameMode.SURVIVAL, null, Collections.emptyList(),
+                new NBTCompound(), new DimensionTypeRef.NameRef(new ResourceLocation("overworld")),
+                Difficulty.NORMAL, "world", 0L, 0, 0, 0,
+                false, false, false, false, false, null, null);
+        WrapperPlayServerJoinGame original = new WrapperPlayServerJoinGame(
+                42, true, GameMode.CREATIVE, GameMode.SURVIVAL, Arrays.asList("world", "world_nether"),
+                codec, new DimensionTypeRef.NameRef(new ResourceLocation("overworld")),
+                Difficulty.HARD, "world", 1234L, 20, 10, 8,
+                false, true, false, false, true, null, null);
+        byte[] bytes = write(original, version);
+
+        WrapperPlayServerJoinGame lazy = read(factory, version, bytes, true);
+        assertNotNull(lazy.getEncodedDimensionCodec());
+        // Everything else is read as usual
+        assertEquals(42, lazy.getEntityId());
+        assertEquals(Arrays.asList("world", "world_nether"), lazy.getWorldNames());
+        assertEquals(1234L, lazy.getHashedSeed());
+        assertArrayEquals(bytes, write(lazy, version));
+
+        WrapperPlayServerJoinGame eager = read(factory, version, bytes, false);
+        assertNull(eager.getEncodedDimensionCodec());
+        assertEquals(eager.getDimensionCodec(), lazy.getDimensionCodec());
+        assertNull(lazy.getEncodedDimensionCodec());
+        assertArrayEquals(write(eager, version), write(lazy, version));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.npc.NPC;
+import com.github.retrooper.packetevents.protocol.npc.NPCRegistry;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.protocol.world.Location;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NPCRegistryTest extends BaseDummyAPITest {
+
+    private static NPC createNPC(double x, double z) {
+        NPC npc = new NPC(new UserProfile(UUID.randomUUID(), "npc"), 1000);
+        npc.setLocation(new Location(x, 64, z, 0F, 0F));
+        return npc;
+    }
+
+    // Chunk coordinates to the center of the chunk
+    private static double center(int chunk) {
+        return (chunk << 4) + 8;
+    }
+
+    @Test
+    @DisplayName("Verify NPCs are spawned for viewers in range when added and despawned when removed")
+    public void testAddRemove() {
+        NPCRegistry registry = new NPCRegistry(2);
+        EmbeddedChannel near = new EmbeddedChannel();
+        EmbeddedChannel far = new EmbeddedChannel();
+        try {
+            registry.addViewer(near);
+            registry.addViewer(far);
+            registry.updateViewer(near, center(1), center(-2));
+            registry.updateViewer(far, center(3), center(0));
+
+            NPC npc = createNPC(center(0), center(0));
+            registry.addNPC(npc);
+            assertTrue(npc.hasSpawned(near));
+            assertFalse(npc.hasSpawned(far));
+            assertTrue(registry.getNPCs().contains(npc));
+
+            registry.removeNPC(npc);
+            assertTrue(npc.getChannels().isEmpty());
+            assertTrue(registry.getNPCs().isEmpty());
+            // Spawning and destroying the NPC
+            assertFalse(near.outboundMessages().isEmpty());
+            assertTrue(far.outboundMessages().isEmpty());
+        } finally {
+            near.finishAndReleaseAll();
+            far.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    @DisplayName("Verify viewers moving across the view distance spawn and despawn NPCs")
+    public void testViewerMovement() {
+        NPCRegistry registry = new NPCRegistry(2);
+        EmbeddedChannel viewer = new EmbeddedChannel();
+        try {
+            NPC npc = createNPC(center(0), center(0));
+            registry.addNPC(npc);
+
+            // Players have to be added as viewers first
+            registry.updateViewer(viewer, center(0), center(0));
+            assertFalse(npc.hasSpawned(viewer));
+            registry.addViewer(viewer);
+            assertTrue(registry.isViewer(viewer));
+            registry.updateViewer(viewer, center(3), center(0));
+            assertFalse(npc.hasSpawned(viewer));
+            registry.updateViewer(viewer, center(2), center(2));
+            assertTrue(npc.hasSpawned(viewer));
+            // Moving within the view distance keeps it spawned
+            registry.updateViewer(viewer, center(-2), center(1));
+            assertTrue(npc.hasSpawned(viewer));
+            registry.updateViewer(viewer, center(-2), center(3));
+            assertFalse(npc.hasSpawned(viewer));
+            registry.updateViewer(viewer, center(0), center(0));
+            assertTrue(npc.hasSpawned(viewer));
+
+            registry.removeViewer(viewer);
+            assertFalse(npc.hasSpawned(viewer));
+            assertFalse(registry.isViewer(viewer));
+            // Removed viewers are ignored, like players of other worlds
+            registry.updateViewer(viewer, center(0), center(0));
+            assertFalse(npc.hasSpawned(viewer));
+            registry.removeViewer(viewer);
+        } finally {
+            viewer.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    @DisplayName("Verify moving NPCs are spawned and despawned for the viewers they move towards or away from")
+    public void testNPCMovement() {
+        NPCRegistry registry = new NPCRegistry(2);
+        EmbeddedChannel first = new EmbeddedChannel();
+        EmbeddedChannel second = new EmbeddedChannel();
+        try {
+            registry.addViewer(first);
+            registry.addViewer(second);
+            registry.updateViewer(first, center(0), center(0));
+            registry.updateViewer(second, center(5), center(0));
+            NPC npc = createNPC(center(0), center(0));
+            registry.addNPC(npc);
+            assertTrue(npc.hasSpawned(first));
+            assertFalse(npc.hasSpawned(second));
+
+            // Within range of both
+            registry.updateLocation(npc, new Location(center(2), 64, center(0), 0F, 0F));
+            assertTrue(npc.hasSpawned(first));
+            assertTrue(npc.hasSpawned(second));
+
+            registry.teleport(npc, new Location(center(7), 64, center(1), 0F, 0F));
+            assertFalse(npc.hasSpawned(first));
+            assertTrue(npc.hasSpawned(second));
+            assertEquals(1, npc.getChannels().size());
+
+            registry.teleport(npc, new Location(center(20), 64, center(20), 0F, 0F));
+            assertTrue(npc.getChannels().isEmpty());
+        } finally {
+            first.finishAndReleaseAll();
+            second.finishAndReleaseAll();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.EventCreationUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PacketEventPoolTest extends BaseDummyAPITest {
+
+    private static Object createKeepAlive(long id) {
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        ByteBufHelper.writeVarInt(buffer, PacketType.Play.Client.KEEP_ALIVE.getId(ClientVersion.V_1_21));
+        ByteBufHelper.writeLong(buffer, id);
+        return buffer;
+    }
+
+    @Test
+    @DisplayName("Verify pooled events are reset when reused")
+    public void testReuse() throws Exception {
+        PacketType.prepare();
+        PacketEvents.getAPI().getSettings().reuseEvents(true);
+        try {
+            User user = new User(null, ConnectionState.PLAY, ClientVersion.V_1_21, null);
+
+            Object firstBuffer = createKeepAlive(1L);
+            PacketReceiveEvent first = EventCreationUtil.createReceiveEvent(null, user, null, firstBuffer, false);
+            first.setCancelled(true);
+            first.getPostTasks().add(() -> {
+            });
+            EventCreationUtil.releaseEvent(first);
+
+            Object secondBuffer = createKeepAlive(2L);
+            PacketReceiveEvent second = EventCreationUtil.createReceiveEvent(null, user, null, secondBuffer, false);
+            assertSame(first, second);
+            assertFalse(second.isCancelled());
+            assertFalse(second.hasPostTasks());
+            assertNull(second.getLastUsedWrapper());
+            assertSame(secondBuffer, second.getByteBuf());
+            assertEquals(PacketType.Play.Client.KEEP_ALIVE, second.getPacketType());
+
+            // Packets handled while the pooled event is still in use get their own event
+            PacketReceiveEvent nested = EventCreationUtil.createReceiveEvent(null, user, null, createKeepAlive(3L), false);
+            assertNotSame(second, nested);
+            EventCreationUtil.releaseEvent(nested);
+            EventCreationUtil.releaseEvent(second);
+
+            // Released again, so it's handed out once more
+            assertSame(first, EventCreationUtil.createReceiveEvent(null, user, null, createKeepAlive(4L), false));
+        } finally {
+            PacketEvents.getAPI().getSettings().reuseEvents(false);
+        }
+    }
+
+    @Test
+    @DisplayName("Verify events aren't reused without the setting")
+    public void testNoReuse() throws Exception {
+        PacketType.prepare();
+        assertFalse(PacketEvents.getAPI().getSettings().isReuseEvents());
+        User user = new User(null, ConnectionState.PLAY, ClientVersion.V_1_21, null);
+        PacketReceiveEvent first = EventCreationUtil.createReceiveEvent(null, user, null, createKeepAlive(1L), false);
+        EventCreationUtil.releaseEvent(first);
+        PacketReceiveEvent second = EventCreationUtil.createReceiveEvent(null, user, null, createKeepAlive(2L), false);
+        assertNotSame(first, second);
+        assertSame(PacketType.Play.Client.KEEP_ALIVE, second.getPacketType());
+    }
+}
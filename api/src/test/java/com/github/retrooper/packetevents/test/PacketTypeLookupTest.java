@@ -0,0 +1,58 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PacketTypeLookupTest {
+
+    @Test
+    @DisplayName("Verify packet id lookup tables match packet type ids")
+    public void testPacketIdLookup() {
+        PacketType.prepare();
+        for (ClientVersion version : ClientVersion.values()) {
+            if (!version.isRelease()) {
+                continue;
+            }
+            for (PacketSide side : PacketSide.values()) {
+                for (ConnectionState state : ConnectionState.values()) {
+                    for (PacketTypeCommon packetType : PacketType.getPacketTypes(side, state)) {
+                        int id = packetType.getId(version);
+                        if (id < 0) {
+                            continue;
+                        }
+                        assertSame(packetType, PacketType.getById(side, state, version, id),
+                                () -> packetType.getName() + " with id " + id + " doesn't map back on " + version);
+                    }
+                    assertNull(PacketType.getById(side, state, version, -1));
+                    assertNull(PacketType.getById(side, state, version, 0x1000));
+                }
+            }
+        }
+    }
+}
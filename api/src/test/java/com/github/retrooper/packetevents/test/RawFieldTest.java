@@ -0,0 +1,158 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerWindowItems;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RawFieldTest extends BaseDummyAPITest {
+
+    private static final ServerVersion VERSION = ServerVersion.V_1_21;
+
+    private static byte[] write(PacketWrapper<?> wrapper) {
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        wrapper.buffer = buffer;
+        wrapper.setServerVersion(VERSION);
+        wrapper.write();
+        byte[] bytes = new byte[ByteBufHelper.readableBytes(buffer)];
+        ByteBufHelper.readBytes(buffer, bytes);
+        ByteBufHelper.release(buffer);
+        return bytes;
+    }
+
+    private static <T extends PacketWrapper<?>> T read(T wrapper, byte[] bytes) {
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        ByteBufHelper.writeBytes(buffer, bytes);
+        wrapper.buffer = buffer;
+        wrapper.setServerVersion(VERSION);
+        wrapper.read();
+        return wrapper;
+    }
+
+    // Like the buffer of an event being passed on, fields which haven't been copied must not be read from it anymore
+    private static void overwriteAndRelease(Object buffer, PacketWrapper<?> wrapper) {
+        wrapper.releaseRawFields();
+        int length = ByteBufHelper.writerIndex(buffer);
+        ByteBufHelper.clear(buffer);
+        ByteBufHelper.writeBytes(buffer, new byte[length]);
+        ByteBufHelper.release(buffer);
+    }
+
+    private static List<EntityData> metadata() {
+        return new ArrayList<>(Arrays.asList(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x20),
+                new EntityData(1, EntityDataTypes.INT, 300),
+                new EntityData(2, EntityDataTypes.STRING, "raw")));
+    }
+
+    @Test
+    @DisplayName("Verify raw entity metadata is copied from the buffer it was read from")
+    public void testEntityMetadata() {
+        byte[] bytes = write(new WrapperPlayServerEntityMetadata(1, metadata()));
+        WrapperPlayServerEntityMetadata wrapper = read(
+                new WrapperPlayServerEntityMetadata(0, Collections.emptyList()), bytes);
+        Object source = wrapper.buffer;
+        assertArrayEquals(bytes, write(wrapper));
+
+        // Only the entity id is encoded again
+        wrapper.setEntityId(7);
+        byte[] expected = write(new WrapperPlayServerEntityMetadata(7, metadata()));
+        assertArrayEquals(expected, write(wrapper));
+
+        // Without the buffer, the metadata is encoded again
+        overwriteAndRelease(source, wrapper);
+        assertArrayEquals(expected, write(wrapper));
+    }
+
+    @Test
+    @DisplayName("Verify raw entity metadata is kept when the wrapper is written into the buffer it was read from")
+    public void testInPlace() {
+        byte[] bytes = write(new WrapperPlayServerEntityMetadata(1, metadata()));
+        WrapperPlayServerEntityMetadata wrapper = read(
+                new WrapperPlayServerEntityMetadata(0, Collections.emptyList()), bytes);
+        Object buffer = wrapper.buffer;
+        wrapper.setEntityId(7);
+        wrapper.detachRawFields();
+        ByteBufHelper.clear(buffer);
+        wrapper.write();
+        byte[] rewritten = new byte[ByteBufHelper.readableBytes(buffer)];
+        ByteBufHelper.getBytes(buffer, ByteBufHelper.readerIndex(buffer), rewritten);
+        byte[] expected = write(new WrapperPlayServerEntityMetadata(7, metadata()));
+        assertArrayEquals(expected, rewritten);
+
+        // The copied field outlives the buffer
+        overwriteAndRelease(buffer, wrapper);
+        assertArrayEquals(expected, write(wrapper));
+    }
+
+    @Test
+    @DisplayName("Verify accessed entity metadata is encoded again")
+    public void testModifiedEntityMetadata() {
+        byte[] bytes = write(new WrapperPlayServerEntityMetadata(1, metadata()));
+        WrapperPlayServerEntityMetadata wrapper = read(
+                new WrapperPlayServerEntityMetadata(0, Collections.emptyList()), bytes);
+        wrapper.getEntityMetadata().add(new EntityData(4, EntityDataTypes.FLOAT, 2.5F));
+
+        List<EntityData> expected = metadata();
+        expected.add(new EntityData(4, EntityDataTypes.FLOAT, 2.5F));
+        assertArrayEquals(write(new WrapperPlayServerEntityMetadata(1, expected)), write(wrapper));
+    }
+
+    @Test
+    @DisplayName("Verify raw window items are copied from the buffer they were read from")
+    public void testWindowItems() {
+        List<ItemStack> items = Arrays.asList(
+                ItemStack.builder().type(ItemTypes.STONE).amount(3).build(),
+                ItemStack.EMPTY,
+                ItemStack.builder().type(ItemTypes.DIAMOND).amount(1).build());
+        ItemStack carried = ItemStack.builder().type(ItemTypes.DIRT).amount(64).build();
+        byte[] bytes = write(new WrapperPlayServerWindowItems(0, 1, items, carried));
+        WrapperPlayServerWindowItems wrapper = read(
+                new WrapperPlayServerWindowItems(0, 0, Collections.emptyList(), null), bytes);
+        Object source = wrapper.buffer;
+        assertArrayEquals(bytes, write(wrapper));
+
+        wrapper.setStateId(2);
+        byte[] expected = write(new WrapperPlayServerWindowItems(0, 2, items, carried));
+        assertArrayEquals(expected, write(wrapper));
+        overwriteAndRelease(source, wrapper);
+        assertArrayEquals(expected, write(wrapper));
+        assertEquals(3, wrapper.getItems().size());
+        assertEquals(64, wrapper.getCarriedItem().get().getAmount());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.resources.ResourceLocation;
+import com.github.retrooper.packetevents.util.mappings.RegistryPayloadCache;
+import com.github.retrooper.packetevents.util.mappings.SimpleRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RegistryPayloadCacheTest {
+
+    @Test
+    @DisplayName("Test lookup of registries by payload content")
+    public void testLookup() {
+        RegistryPayloadCache cache = new RegistryPayloadCache(2);
+        SimpleRegistry<?> registry = new SimpleRegistry<>(new ResourceLocation("dimension_type"));
+        cache.put(ClientVersion.V_1_21, new byte[]{1, 2, 3}, Collections.singletonList(registry));
+
+        // Equal content, but not the same array
+        List<SimpleRegistry<?>> registries = cache.get(ClientVersion.V_1_21, new byte[]{1, 2, 3});
+        assertEquals(1, registries.size());
+        assertSame(registry, registries.get(0));
+        assertNull(cache.get(ClientVersion.V_1_21, new byte[]{1, 2, 4}));
+        assertNull(cache.get(ClientVersion.V_1_20_5, new byte[]{1, 2, 3}));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        cache.put(ClientVersion.V_1_21, new byte[]{4}, Collections.emptyList());
+        cache.get(ClientVersion.V_1_21, new byte[]{1, 2, 3});
+        // The least recently used entry is evicted
+        cache.put(ClientVersion.V_1_21, new byte[]{5, 6}, Collections.emptyList());
+        assertEquals(2, cache.size());
+        assertEquals(5, cache.getCachedBytes());
+        assertNull(cache.get(ClientVersion.V_1_21, new byte[]{4}));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerCommon;
+import com.github.retrooper.packetevents.manager.InternalPacketListener;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SkipUnhandledPacketsTest extends BaseDummyAPITest {
+
+    private static final ClientVersion VERSION = ClientVersion.V_1_21;
+
+    private static PacketListenerCommon createListener(PacketTypeCommon packetType) {
+        return new PacketListenerAbstract() {
+            @Override
+            public Collection<PacketTypeCommon> getPacketTypes() {
+                return packetType == null ? null : Collections.singletonList(packetType);
+            }
+        };
+    }
+
+    private static Object createPacket(PacketTypeCommon packetType) {
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        ByteBufHelper.writeVarInt(buffer, packetType.getId(VERSION));
+        ByteBufHelper.writeLong(buffer, 0L);
+        return buffer;
+    }
+
+    @Test
+    @DisplayName("Verify packet ids are only handled if a listener declared their type")
+    public void testHasListeners() {
+        PacketType.prepare();
+        EventManager eventManager = PacketEvents.getAPI().getEventManager();
+        eventManager.unregisterAllListeners();
+        try {
+            int keepAlive = PacketType.Play.Client.KEEP_ALIVE.getId(VERSION);
+            int chat = PacketType.Play.Client.CHAT_MESSAGE.getId(VERSION);
+            assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, keepAlive));
+
+            eventManager.registerListener(createListener(PacketType.Play.Client.KEEP_ALIVE));
+            assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, keepAlive));
+            assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, chat));
+            assertFalse(eventManager.hasListeners(PacketSide.SERVER, ConnectionState.PLAY, VERSION, keepAlive));
+            // Unknown ids still go through the event, to report them
+            assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, -1));
+            assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, 0x1000));
+
+            // The internal listener has to see the handshake, it sets up the user
+            int handshake = PacketType.Handshaking.Client.HANDSHAKE.getId(VERSION);
+            assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.HANDSHAKING, VERSION, handshake));
+            eventManager.registerListener(new InternalPacketListener());
+            assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.HANDSHAKING, VERSION, handshake));
+            assertFalse(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, chat));
+
+            // Listeners without declared types process everything
+            eventManager.registerListener(createListener(null));
+            assertTrue(eventManager.hasListeners(PacketSide.CLIENT, ConnectionState.PLAY, VERSION, chat));
+        } finally {
+            eventManager.unregisterAllListeners();
+        }
+    }
+
+    @Test
+    @DisplayName("Verify unhandled packets are skipped without moving the reader index")
+    public void testSkip() {
+        PacketType.prepare();
+        EventManager eventManager = PacketEvents.getAPI().getEventManager();
+        eventManager.unregisterAllListeners();
+        User user = new User(null, ConnectionState.PLAY, VERSION, null);
+        Object keepAlive = createPacket(PacketType.Play.Client.KEEP_ALIVE);
+        Object chat = createPacket(PacketType.Play.Client.CHAT_MESSAGE);
+        try {
+            eventManager.registerListener(createListener(PacketType.Play.Client.KEEP_ALIVE));
+            // Disabled by default
+            assertFalse(PacketEventsImplHelper.isUnhandled(user, chat, PacketSide.CLIENT, false));
+
+            PacketEvents.getAPI().getSettings().skipUnhandledPackets(true);
+            assertTrue(PacketEventsImplHelper.isUnhandled(user, chat, PacketSide.CLIENT, false));
+            assertFalse(PacketEventsImplHelper.isUnhandled(user, keepAlive, PacketSide.CLIENT, false));
+            assertEquals(0, ByteBufHelper.readerIndex(chat));
+            assertEquals(0, ByteBufHelper.readerIndex(keepAlive));
+        } finally {
+            PacketEvents.getAPI().getSettings().skipUnhandledPackets(false);
+            eventManager.unregisterAllListeners();
+            ByteBufHelper.release(keepAlive);
+            ByteBufHelper.release(chat);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.BlockFace;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateValue;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WrappedBlockStateInternTest extends BaseDummyAPITest {
+
+    private static final ClientVersion VERSION = ClientVersion.V_1_21;
+
+    private static WrappedBlockState getInternedStairs() {
+        int id = WrappedBlockState.getDefaultState(VERSION, StateTypes.OAK_STAIRS).getGlobalId();
+        return WrappedBlockState.getByGlobalId(VERSION, id, false);
+    }
+
+    @Test
+    @DisplayName("Verify interned states are shared and immutable, and not modified by their clones")
+    public void testInternedStates() {
+        WrappedBlockState interned = getInternedStairs();
+        int id = interned.getGlobalId();
+        BlockFace facing = interned.getFacing();
+        assertSame(interned, WrappedBlockState.getByGlobalId(VERSION, id, false));
+
+        WrappedBlockState clone = WrappedBlockState.getByGlobalId(VERSION, id, true);
+        assertNotSame(interned, clone);
+        assertEquals(interned, clone);
+
+        BlockFace target = facing == BlockFace.EAST ? BlockFace.WEST : BlockFace.EAST;
+        assertTrue(interned.isInterned());
+        assertFalse(clone.isInterned());
+        assertThrows(UnsupportedOperationException.class, () -> interned.setFacing(target));
+        clone.setFacing(target);
+        assertEquals(target, clone.getFacing());
+        assertNotEquals(id, clone.getGlobalId());
+        // The clone copies the shared data before modifying it
+        assertEquals(facing, interned.getFacing());
+        assertEquals(id, interned.getGlobalId());
+        assertSame(interned, WrappedBlockState.getByGlobalId(VERSION, id, false));
+        assertEquals(interned, WrappedBlockState.getByGlobalId(VERSION, id, true));
+    }
+
+    @Test
+    @DisplayName("Verify state transitions return interned states")
+    public void testTransitions() {
+        WrappedBlockState interned = getInternedStairs();
+        int id = interned.getGlobalId();
+        BlockFace facing = interned.getFacing();
+        BlockFace target = facing == BlockFace.EAST ? BlockFace.WEST : BlockFace.EAST;
+
+        WrappedBlockState expected = WrappedBlockState.getByGlobalId(VERSION, id, true);
+        expected.setFacing(target);
+
+        WrappedBlockState turned = interned.with(StateValue.FACING, target);
+        assertSame(WrappedBlockState.getByGlobalId(VERSION, expected.getGlobalId(), false), turned);
+        assertEquals(expected, turned);
+        // Remembered transitions, also when starting from a clone
+        assertSame(turned, interned.with(StateValue.FACING, target));
+        assertSame(turned, interned.clone().with(StateValue.FACING, target));
+        assertSame(interned, turned.with(StateValue.FACING, facing));
+        // Invalid transitions keep the state
+        assertSame(interned, interned.with(StateValue.FACING, BlockFace.UP));
+
+        assertEquals(facing, interned.getFacing());
+        assertEquals(id, interned.getGlobalId());
+    }
+
+    @Test
+    @DisplayName("Verify translation tables are cached and keep ids on the same version")
+    public void testTranslationCache() {
+        int[] table = WrappedBlockState.getTranslationTable(ClientVersion.V_1_20, VERSION);
+        assertSame(table, WrappedBlockState.getTranslationTable(ClientVersion.V_1_20, VERSION));
+
+        int id = getInternedStairs().getGlobalId();
+        assertEquals(id, WrappedBlockState.translateGlobalId(VERSION, VERSION, id));
+        assertEquals(0, WrappedBlockState.translateGlobalId(VERSION, VERSION, -1));
+        assertEquals(0, WrappedBlockState.translateGlobalId(VERSION, VERSION, Integer.MAX_VALUE));
+    }
+}
@@ -10,6 +10,7 @@ import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.NettyManager;
 import com.github.retrooper.packetevents.protocol.ProtocolVersion;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
 import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
@@ -67,6 +68,29 @@ public class TestPacketEventsBuilder {
                 }
             };
 
+            private final ChannelInjector injector = new ChannelInjector() {
+                @Override
+                public void inject() {
+                }
+
+                @Override
+                public void uninject() {
+                }
+
+                @Override
+                public void updateUser(Object channel, User user) {
+                }
+
+                @Override
+                public void setPlayer(Object channel, Object player) {
+                }
+
+                @Override
+                public boolean isProxy() {
+                    return false;
+                }
+            };
+
             private final NettyManager nettyManager = new NettyManagerImpl();
             private final LogManager logManager = new LogManager() {
                 @Override
@@ -127,6 +151,7 @@ public class TestPacketEventsBuilder {
             @Override
             public void terminate() {
                 if (initialized) {
+                    ProtocolManager.ENCODED_PACKETS.clear();
                     initialized = false;
                     terminated = true;
                 }
@@ -169,7 +194,7 @@ public class TestPacketEventsBuilder {
 
             @Override
             public ChannelInjector getInjector() {
-                return null;
+                return injector;
             }
 
             @Override
@@ -246,6 +246,7 @@ public class BungeePacketEventsBuilder {
                     injector.uninject();
                     // Unregister all our listeners
                     getEventManager().unregisterAllListeners();
+                    ProtocolManager.ENCODED_PACKETS.clear();
                     initialized = false;
                     terminated = true;
                 }
@@ -20,9 +20,11 @@ package io.github.retrooper.packetevents.handlers;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -43,23 +45,35 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
 
     public void read(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> output) throws Exception {
-        ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
+        if (PacketEventsImplHelper.isUnhandled(user, byteBuf, PacketSide.CLIENT, false)) {
+            output.add(byteBuf.retain());
+            return;
+        }
+        int firstReaderIndex = byteBuf.readerIndex();
+        PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(ctx.channel(),
+                user, player, byteBuf, false);
         try {
-            int firstReaderIndex = transformed.readerIndex();
-            PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(ctx.channel(),
-                    user, player, transformed, false);
-            int readerIndex = transformed.readerIndex();
-            PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> transformed.readerIndex(readerIndex));
+            int readerIndex = byteBuf.readerIndex();
+            PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, byteBuf, readerIndex);
             if (!packetReceiveEvent.isCancelled()) {
-                if (packetReceiveEvent.getLastUsedWrapper() != null) {
-                    ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
-                    packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
-                    packetReceiveEvent.getLastUsedWrapper().write();
-                }
-                else {
-                    transformed.readerIndex(firstReaderIndex);
+                PacketWrapper<?> wrapper = packetReceiveEvent.getLastUsedWrapper();
+                if (wrapper != null) {
+                    // The incoming buffer is a fixed-size slice of the frame, re-encode into a fresh one
+                    ByteBuf encoded = ctx.alloc().buffer();
+                    try {
+                        wrapper.setBuffer(encoded);
+                        wrapper.writeVarInt(packetReceiveEvent.getPacketId());
+                        wrapper.write();
+                    } catch (Exception ex) {
+                        encoded.release();
+                        throw ex;
+                    }
+                    output.add(encoded);
+                } else {
+                    // Nobody modified the packet, forward it as it is
+                    byteBuf.readerIndex(firstReaderIndex);
+                    output.add(byteBuf.retain());
                 }
-                output.add(transformed.retain());
             }
             if (packetReceiveEvent.hasPostTasks()) {
                 for (Runnable task : packetReceiveEvent.getPostTasks()) {
@@ -67,7 +81,7 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
                 }
             }
         } finally {
-            transformed.release();
+            EventCreationUtil.releaseEvent(packetReceiveEvent);
         }
     }
 
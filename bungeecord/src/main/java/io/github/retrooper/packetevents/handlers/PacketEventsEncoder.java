@@ -20,9 +20,11 @@ package io.github.retrooper.packetevents.handlers;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import io.github.retrooper.packetevents.injector.CustomPipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -61,31 +63,54 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
 
     public void read(ChannelHandlerContext ctx, ByteBuf buffer, ChannelPromise promise) throws Exception {
         boolean doCompression = handleCompressionOrder(ctx, buffer);
-        int firstReaderIndex = buffer.readerIndex();
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player,
-                buffer, false);
-        int readerIndex = buffer.readerIndex();
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
-        if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                ByteBufHelper.clear(packetSendEvent.getByteBuf());
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
-            } else {
-                buffer.readerIndex(firstReaderIndex);
-            }
+        if (PacketEventsImplHelper.isUnhandled(user, buffer, PacketSide.SERVER, false)) {
             if (doCompression) {
                 this.recompress(ctx, buffer, promise);
             } else {
                 ctx.write(buffer, promise);
             }
-        } else {
-            ReferenceCountUtil.release(packetSendEvent.getByteBuf());
+            return;
         }
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
+        int firstReaderIndex = buffer.readerIndex();
+        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player,
+                buffer, false);
+        try {
+            int readerIndex = buffer.readerIndex();
+            PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, buffer, readerIndex);
+            if (!packetSendEvent.isCancelled()) {
+                PacketWrapper<?> wrapper = packetSendEvent.getLastUsedWrapper();
+                if (wrapper != null) {
+                    // Forwarded packets are fixed-size slices of their frame, re-encode into a fresh buffer
+                    ByteBuf encoded = ctx.alloc().buffer();
+                    try {
+                        wrapper.setBuffer(encoded);
+                        wrapper.writeVarInt(packetSendEvent.getPacketId());
+                        wrapper.write();
+                    } catch (Exception ex) {
+                        encoded.release();
+                        throw ex;
+                    }
+                    buffer.release();
+                    buffer = encoded;
+                } else {
+                    // Nobody modified the packet, forward it as it is
+                    buffer.readerIndex(firstReaderIndex);
+                }
+                if (doCompression) {
+                    this.recompress(ctx, buffer, promise);
+                } else {
+                    ctx.write(buffer, promise);
+                }
+            } else {
+                ReferenceCountUtil.release(buffer);
+            }
+            if (packetSendEvent.hasPostTasks()) {
+                for (Runnable task : packetSendEvent.getPostTasks()) {
+                    task.run();
+                }
             }
+        } finally {
+            EventCreationUtil.releaseEvent(packetSendEvent);
         }
     }
 
@@ -133,6 +133,7 @@ public class FabricPacketEventsAPI extends PacketEventsAPI<FabricLoader> {
             return;
         }
         this.getEventManager().unregisterAllListeners();
+        ProtocolManager.ENCODED_PACKETS.clear();
         this.initialized = false;
         this.terminated = true;
     }
@@ -19,6 +19,7 @@
 package io.github.retrooper.packetevents.impl.netty.channel;
 
 import com.github.retrooper.packetevents.netty.channel.ChannelOperator;
+import com.github.retrooper.packetevents.protocol.player.User;
 import io.netty.channel.Channel;
 
 import java.net.SocketAddress;
@@ -114,4 +115,14 @@ public class ChannelOperatorImpl implements ChannelOperator {
     public Object pooledByteBuf(Object channel) {
         return ((Channel) channel).alloc().buffer();
     }
+
+    @Override
+    public User getAttachedUser(Object channel) {
+        return UserAttribute.get(channel);
+    }
+
+    @Override
+    public void attachUser(Object channel, User user) {
+        UserAttribute.set(channel, user);
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.impl.netty.channel;
+
+import com.github.retrooper.packetevents.protocol.player.User;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stores the user of a connection directly on its netty channel, shared by the channel operators of all platforms.
+ */
+public final class UserAttribute {
+
+    // Every packetevents instance loads its own User class, the name has to be unique per class to not mix them up
+    private static final AttributeKey<User> USER_KEY = AttributeKey.valueOf(
+            "packetevents_user_" + User.class.getName() + "@" + Integer.toHexString(System.identityHashCode(User.class)));
+
+    private UserAttribute() {
+    }
+
+    public static @Nullable User get(Object channel) {
+        return ((Channel) channel).attr(USER_KEY).get();
+    }
+
+    /**
+     * Attaches a user to the channel, null detaches the current one.
+     * All users have to be detached on termination, as channels outliving this instance would keep its classes loaded.
+     */
+    public static void set(Object channel, @Nullable User user) {
+        ((Channel) channel).attr(USER_KEY).set(user);
+    }
+}
@@ -26,6 +26,7 @@ import com.github.retrooper.packetevents.manager.player.PlayerManager;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.manager.server.ServerManager;
 import com.github.retrooper.packetevents.netty.NettyManager;
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import io.github.retrooper.packetevents.impl.netty.BuildData;
@@ -136,6 +137,8 @@ public class NettyPacketEventsBuilder {
                     injector.uninject();
                     //Unregister all our listeners
                     getEventManager().unregisterAllListeners();
+                    ProtocolManager.ENCODED_PACKETS.clear();
+                    ChannelHelper.detachUsers();
                     initialized = false;
                     terminated = true;
                 }
@@ -19,6 +19,8 @@
 package io.github.retrooper.packetevents.netty.channel;
 
 import com.github.retrooper.packetevents.netty.channel.ChannelOperator;
+import com.github.retrooper.packetevents.protocol.player.User;
+import io.github.retrooper.packetevents.impl.netty.channel.UserAttribute;
 import io.netty.channel.Channel;
 
 import java.net.SocketAddress;
@@ -114,4 +116,14 @@ public class ChannelOperatorModernImpl implements ChannelOperator {
     public Object pooledByteBuf(Object o) {
         return ((Channel) o).alloc().buffer();
     }
+
+    @Override
+    public User getAttachedUser(Object channel) {
+        return UserAttribute.get(channel);
+    }
+
+    @Override
+    public void attachUser(Object channel, User user) {
+        UserAttribute.set(channel, user);
+    }
 }
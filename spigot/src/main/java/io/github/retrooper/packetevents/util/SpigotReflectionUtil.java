@@ -28,6 +28,7 @@ import com.github.retrooper.packetevents.protocol.particle.type.ParticleTypes;
 import com.github.retrooper.packetevents.protocol.player.TextureProperty;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.reflection.Reflection;
+import com.github.retrooper.packetevents.util.reflection.ReflectionAccessor;
 import com.github.retrooper.packetevents.util.reflection.ReflectionObject;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.google.common.collect.BiMap;
@@ -54,6 +55,7 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -142,9 +144,66 @@ public final class SpigotReflectionUtil {
 
     private static boolean IS_OBFUSCATED;
 
+    private static volatile boolean INITIALIZED;
+
     //Cache entities right after we request/find them for faster search.
     public static Map<Integer, Entity> ENTITY_ID_CACHE = new MapMaker().weakValues().makeMap();
 
+    // Method handles for the members used on hot paths, bound on first use, which must be after init() found the members.
+    // Unlike Method#invoke, calls to static final method handles are inlined by the JIT.
+    private static final class Handles {
+        static {
+            // The handles can't be bound again, they would stay null for good
+            if (!INITIALIZED) {
+                throw new IllegalStateException("SpigotReflectionUtil was used before it was initialized");
+            }
+        }
+
+        static final MethodHandle GET_BUKKIT_ENTITY = ReflectionAccessor.method(GET_BUKKIT_ENTITY_METHOD);
+        static final MethodHandle GET_CRAFT_ENTITY_HANDLE = ReflectionAccessor.method(GET_CRAFT_ENTITY_HANDLE_METHOD);
+        static final MethodHandle GET_CRAFT_PLAYER_HANDLE = ReflectionAccessor.method(GET_CRAFT_PLAYER_HANDLE_METHOD);
+        static final MethodHandle GET_CRAFT_WORLD_HANDLE = ReflectionAccessor.method(GET_CRAFT_WORLD_HANDLE_METHOD);
+        static final MethodHandle ENTITY_PLAYER_PING = ReflectionAccessor.getter(ENTITY_PLAYER_PING_FIELD);
+
+        static final MethodHandle PAPER_ENTITY_LOOKUP = ReflectionAccessor.getter(
+                entityLookupOwner(), PAPER_ENTITY_LOOKUP_CLASS, 0);
+        static final MethodHandle PERSISTENT_ENTITY_SECTION_MANAGER = ReflectionAccessor.getter(
+                entityLookupOwner(), PERSISTENT_ENTITY_SECTION_MANAGER_CLASS, 0);
+        static final MethodHandle LEVEL_ENTITY_GETTER = ReflectionAccessor.getter(
+                PERSISTENT_ENTITY_SECTION_MANAGER_CLASS, LEVEL_ENTITY_GETTER_CLASS, 0);
+        static final MethodHandle GET_ENTITY_BY_ID_LEVEL_ENTITY_GETTER = ReflectionAccessor.method(GET_ENTITY_BY_ID_LEVEL_ENTITY_GETTER_METHOD);
+        static final MethodHandle GET_ENTITY_BY_ID = ReflectionAccessor.method(GET_ENTITY_BY_ID_METHOD);
+
+        static final MethodHandle GET_MOB_EFFECT_LIST_ID = ReflectionAccessor.method(GET_MOB_EFFECT_LIST_ID_METHOD);
+        static final MethodHandle GET_MOB_EFFECT_LIST_BY_ID = ReflectionAccessor.method(GET_MOB_EFFECT_LIST_BY_ID_METHOD);
+        static final MethodHandle GET_ITEM_ID = ReflectionAccessor.method(GET_ITEM_ID_METHOD);
+        static final MethodHandle GET_ITEM_BY_ID = ReflectionAccessor.method(GET_ITEM_BY_ID_METHOD);
+
+        static final MethodHandle NMS_ITEM_STACK_CONSTRUCTOR = ReflectionAccessor.constructor(
+                SpigotReflectionUtil.NMS_ITEM_STACK_CONSTRUCTOR);
+        static final MethodHandle NMS_PACKET_DATA_SERIALIZER_CONSTRUCTOR = ReflectionAccessor.constructor(
+                SpigotReflectionUtil.NMS_PACKET_DATA_SERIALIZER_CONSTRUCTOR);
+        static final MethodHandle REGISTRY_FRIENDLY_BYTE_BUF_CONSTRUCTOR = ReflectionAccessor.constructor(
+                SpigotReflectionUtil.REGISTRY_FRIENDLY_BYTE_BUF_CONSTRUCTOR);
+        static final MethodHandle CRAFT_ITEM_STACK_AS_BUKKIT_COPY = ReflectionAccessor.method(
+                SpigotReflectionUtil.CRAFT_ITEM_STACK_AS_BUKKIT_COPY);
+        static final MethodHandle CRAFT_ITEM_STACK_AS_NMS_COPY = ReflectionAccessor.method(
+                SpigotReflectionUtil.CRAFT_ITEM_STACK_AS_NMS_COPY);
+        static final MethodHandle READ_ITEM_STACK_IN_PACKET_DATA_SERIALIZER = ReflectionAccessor.method(
+                READ_ITEM_STACK_IN_PACKET_DATA_SERIALIZER_METHOD);
+        static final MethodHandle WRITE_ITEM_STACK_IN_PACKET_DATA_SERIALIZER = ReflectionAccessor.method(
+                WRITE_ITEM_STACK_IN_PACKET_DATA_SERIALIZER_METHOD);
+        static final MethodHandle STREAM_DECODER_DECODE = ReflectionAccessor.method(
+                SpigotReflectionUtil.STREAM_DECODER_DECODE);
+        static final MethodHandle STREAM_ENCODER_ENCODE = ReflectionAccessor.method(
+                SpigotReflectionUtil.STREAM_ENCODER_ENCODE);
+
+        // The class declaring the entity lookup of a level
+        private static Class<?> entityLookupOwner() {
+            return PAPER_ENTITY_LOOKUP_LEGACY ? SERVER_LEVEL_CLASS : LEVEL_CLASS;
+        }
+    }
+
     private static void initConstructors() {
         Class<?> itemClass = NMS_IMATERIAL_CLASS != null ? NMS_IMATERIAL_CLASS : NMS_ITEM_CLASS;
         try {
@@ -420,6 +479,7 @@ public final class SpigotReflectionUtil {
         initMethods();
         initConstructors();
         initObjects();
+        INITIALIZED = true;
     }
 
     @Nullable
@@ -495,8 +555,8 @@ public final class SpigotReflectionUtil {
     public static Entity getBukkitEntity(Object nmsEntity) {
         Object craftEntity = null;
         try {
-            craftEntity = GET_BUKKIT_ENTITY_METHOD.invoke(nmsEntity);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            craftEntity = (Object) Handles.GET_BUKKIT_ENTITY.invokeExact(nmsEntity);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return (Entity) craftEntity;
@@ -505,8 +565,8 @@ public final class SpigotReflectionUtil {
     public static Object getNMSEntity(final Entity entity) {
         final Object craftEntity = CRAFT_ENTITY_CLASS.cast(entity);
         try {
-            return GET_CRAFT_ENTITY_HANDLE_METHOD.invoke(craftEntity);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.GET_CRAFT_ENTITY_HANDLE.invokeExact(craftEntity);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -528,8 +588,8 @@ public final class SpigotReflectionUtil {
     public static Object getEntityPlayer(Player player) {
         Object craftPlayer = getCraftPlayer(player);
         try {
-            return GET_CRAFT_PLAYER_HANDLE_METHOD.invoke(craftPlayer);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.GET_CRAFT_PLAYER_HANDLE.invokeExact(craftPlayer);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -626,8 +686,8 @@ public final class SpigotReflectionUtil {
         if (ENTITY_PLAYER_PING_FIELD != null) {
             Object entityPlayer = getEntityPlayer(player);
             try {
-                return ENTITY_PLAYER_PING_FIELD.getInt(entityPlayer);
-            } catch (IllegalAccessException e) {
+                return (int) (Object) Handles.ENTITY_PLAYER_PING.invokeExact(entityPlayer);
+            } catch (Throwable e) {
                 e.printStackTrace();
             }
         }
@@ -666,8 +726,8 @@ public final class SpigotReflectionUtil {
     public static Object convertBukkitWorldToWorldServer(World world) {
         Object craftWorld = CRAFT_WORLD_CLASS.cast(world);
         try {
-            return GET_CRAFT_WORLD_HANDLE_METHOD.invoke(craftWorld);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.GET_CRAFT_WORLD_HANDLE.invokeExact(craftWorld);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -755,8 +815,8 @@ public final class SpigotReflectionUtil {
 
     public static int getEffectId(Object nmsMobEffectList) {
         try {
-            return (int) GET_MOB_EFFECT_LIST_ID_METHOD.invoke(null, nmsMobEffectList);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (int) (Object) Handles.GET_MOB_EFFECT_LIST_ID.invokeExact(nmsMobEffectList);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return -1;
@@ -764,8 +824,8 @@ public final class SpigotReflectionUtil {
 
     public static Object getMobEffectListById(int effectID) {
         try {
-            return GET_MOB_EFFECT_LIST_BY_ID_METHOD.invoke(null, effectID);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.GET_MOB_EFFECT_LIST_BY_ID.invokeExact((Object) effectID);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -773,8 +833,8 @@ public final class SpigotReflectionUtil {
 
     public static int getNMSItemId(Object nmsItem) {
         try {
-            return (int) GET_ITEM_ID_METHOD.invoke(null, nmsItem);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (int) (Object) Handles.GET_ITEM_ID.invokeExact(nmsItem);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return -1;
@@ -782,8 +842,8 @@ public final class SpigotReflectionUtil {
 
     public static Object getNMSItemById(int id) {
         try {
-            return GET_ITEM_BY_ID_METHOD.invoke(null, id);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.GET_ITEM_BY_ID.invokeExact((Object) id);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -791,8 +851,8 @@ public final class SpigotReflectionUtil {
 
     public static Object createNMSItemStack(Object nmsItem, int count) {
         try {
-            return NMS_ITEM_STACK_CONSTRUCTOR.newInstance(nmsItem, count);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.NMS_ITEM_STACK_CONSTRUCTOR.invokeExact(nmsItem, (Object) count);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -874,8 +934,8 @@ public final class SpigotReflectionUtil {
     public static Object createNMSItemStack(int itemID, int count) {
         try {
             Object nmsItem = getNMSItemById(itemID);
-            return NMS_ITEM_STACK_CONSTRUCTOR.newInstance(nmsItem, count);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.NMS_ITEM_STACK_CONSTRUCTOR.invokeExact(nmsItem, (Object) count);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -883,11 +943,11 @@ public final class SpigotReflectionUtil {
 
     public static Object createPacketDataSerializer(Object byteBuf) {
         try {
-            if (REGISTRY_FRIENDLY_BYTE_BUF_CONSTRUCTOR != null) {
-                return REGISTRY_FRIENDLY_BYTE_BUF_CONSTRUCTOR.newInstance(byteBuf, getFrozenRegistryAccess());
+            if (Handles.REGISTRY_FRIENDLY_BYTE_BUF_CONSTRUCTOR != null) {
+                return (Object) Handles.REGISTRY_FRIENDLY_BYTE_BUF_CONSTRUCTOR.invokeExact(byteBuf, getFrozenRegistryAccess());
             }
-            return NMS_PACKET_DATA_SERIALIZER_CONSTRUCTOR.newInstance(byteBuf);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.NMS_PACKET_DATA_SERIALIZER_CONSTRUCTOR.invokeExact(byteBuf);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -925,8 +985,8 @@ public final class SpigotReflectionUtil {
 
     public static ItemStack toBukkitItemStack(Object nmsItemStack) {
         try {
-            return (ItemStack) CRAFT_ITEM_STACK_AS_BUKKIT_COPY.invoke(null, nmsItemStack);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (ItemStack) (Object) Handles.CRAFT_ITEM_STACK_AS_BUKKIT_COPY.invokeExact(nmsItemStack);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -934,8 +994,8 @@ public final class SpigotReflectionUtil {
 
     public static Object toNMSItemStack(ItemStack itemStack) {
         try {
-            return CRAFT_ITEM_STACK_AS_NMS_COPY.invoke(null, itemStack);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.CRAFT_ITEM_STACK_AS_NMS_COPY.invokeExact((Object) itemStack);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -944,11 +1004,11 @@ public final class SpigotReflectionUtil {
 
     public static Object readNMSItemStackPacketDataSerializer(Object packetDataSerializer) {
         try {
-            if (READ_ITEM_STACK_IN_PACKET_DATA_SERIALIZER_METHOD != null) {
-                return READ_ITEM_STACK_IN_PACKET_DATA_SERIALIZER_METHOD.invoke(packetDataSerializer);
+            if (Handles.READ_ITEM_STACK_IN_PACKET_DATA_SERIALIZER != null) {
+                return (Object) Handles.READ_ITEM_STACK_IN_PACKET_DATA_SERIALIZER.invokeExact(packetDataSerializer);
             }
-            return STREAM_DECODER_DECODE.invoke(ITEM_STACK_OPTIONAL_STREAM_CODEC, packetDataSerializer);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.STREAM_DECODER_DECODE.invokeExact(ITEM_STACK_OPTIONAL_STREAM_CODEC, packetDataSerializer);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -956,11 +1016,11 @@ public final class SpigotReflectionUtil {
 
     public static Object writeNMSItemStackPacketDataSerializer(Object packetDataSerializer, Object nmsItemStack) {
         try {
-            if (WRITE_ITEM_STACK_IN_PACKET_DATA_SERIALIZER_METHOD != null) {
-                return WRITE_ITEM_STACK_IN_PACKET_DATA_SERIALIZER_METHOD.invoke(packetDataSerializer, nmsItemStack);
+            if (Handles.WRITE_ITEM_STACK_IN_PACKET_DATA_SERIALIZER != null) {
+                return (Object) Handles.WRITE_ITEM_STACK_IN_PACKET_DATA_SERIALIZER.invokeExact(packetDataSerializer, nmsItemStack);
             }
-            return STREAM_ENCODER_ENCODE.invoke(ITEM_STACK_OPTIONAL_STREAM_CODEC, packetDataSerializer, nmsItemStack);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Object) Handles.STREAM_ENCODER_ENCODE.invokeExact(ITEM_STACK_OPTIONAL_STREAM_CODEC, packetDataSerializer, nmsItemStack);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return null;
@@ -1034,35 +1094,31 @@ public final class SpigotReflectionUtil {
         if (cachedEntity != null) {
             return cachedEntity;
         }
+        Object nmsEntity;
         try {
-            Object serverLevel = GET_CRAFT_WORLD_HANDLE_METHOD.invoke(world);
-            Object nmsEntity;
+            Object serverLevel = (Object) Handles.GET_CRAFT_WORLD_HANDLE.invokeExact((Object) world);
             //On 1.17 we need this to bypass
-            if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_17)) {
-                ReflectionObject reflectObj = PAPER_ENTITY_LOOKUP_LEGACY
-                        ? new ReflectionObject(serverLevel, SERVER_LEVEL_CLASS)
-                        : new ReflectionObject(serverLevel, LEVEL_CLASS);
+            if (V_1_17_OR_HIGHER) {
                 Object levelEntityGetter;
                 if (PAPER_ENTITY_LOOKUP_EXISTS) {
-                    levelEntityGetter = reflectObj.readObject(0, PAPER_ENTITY_LOOKUP_CLASS);
+                    levelEntityGetter = (Object) Handles.PAPER_ENTITY_LOOKUP.invokeExact(serverLevel);
                 } else {
-                    Object entitySectionManager = reflectObj.readObject(0, PERSISTENT_ENTITY_SECTION_MANAGER_CLASS);
-                    ReflectionObject reflectEntitySectionManager = new ReflectionObject(entitySectionManager);
-                    levelEntityGetter = reflectEntitySectionManager.readObject(0, LEVEL_ENTITY_GETTER_CLASS);
+                    Object entitySectionManager = (Object) Handles.PERSISTENT_ENTITY_SECTION_MANAGER.invokeExact(serverLevel);
+                    levelEntityGetter = (Object) Handles.LEVEL_ENTITY_GETTER.invokeExact(entitySectionManager);
                 }
-                nmsEntity = GET_ENTITY_BY_ID_LEVEL_ENTITY_GETTER_METHOD.invoke(levelEntityGetter, id);
+                nmsEntity = (Object) Handles.GET_ENTITY_BY_ID_LEVEL_ENTITY_GETTER.invokeExact(levelEntityGetter, (Object) id);
             } else {
-                nmsEntity = GET_ENTITY_BY_ID_METHOD.invoke(serverLevel, id);
+                nmsEntity = (Object) Handles.GET_ENTITY_BY_ID.invokeExact(serverLevel, (Object) id);
             }
-            if (nmsEntity == null) {
-                return null;
-            }
-            Entity entity = getBukkitEntity(nmsEntity);
-            ENTITY_ID_CACHE.put(id, entity);
-            return entity;
-        } catch (IllegalAccessException | InvocationTargetException exception) {
+        } catch (Throwable exception) {
             throw new RuntimeException("Error while looking up entity by id " + id + " in " + world, exception);
         }
+        if (nmsEntity == null) {
+            return null;
+        }
+        Entity entity = getBukkitEntity(nmsEntity);
+        ENTITY_ID_CACHE.put(id, entity);
+        return entity;
     }
 
     /**
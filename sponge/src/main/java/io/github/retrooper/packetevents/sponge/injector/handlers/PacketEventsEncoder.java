@@ -81,8 +81,10 @@ public class PacketEventsEncoder extends MessageToMessageEncoder<ByteBuf> {
     private @Nullable PacketSendEvent handleClientBoundPacket(Channel channel, User user, UUID player, ByteBuf buffer, ChannelPromise promise) throws Exception {
         PacketSendEvent packetSendEvent = PacketEventsImplHelper.handleClientBoundPacket(channel, user, player == null ? null : Sponge.server().player(player).orElse(null), buffer, true);
         if (packetSendEvent != null && packetSendEvent.hasTasksAfterSend()) {
+            // The event may be recycled before the promise completes, only keep the tasks
+            List<Runnable> tasksAfterSend = packetSendEvent.getTasksAfterSend();
             promise.addListener((p) -> {
-                for (Runnable task : packetSendEvent.getTasksAfterSend()) {
+                for (Runnable task : tasksAfterSend) {
                     task.run();
                 }
             });
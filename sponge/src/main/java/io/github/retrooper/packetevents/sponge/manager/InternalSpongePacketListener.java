@@ -13,33 +13,33 @@ import io.github.retrooper.packetevents.sponge.util.viaversion.ViaVersionUtil;
 
 public class InternalSpongePacketListener extends InternalPacketListener {
 
-    @Override
-    public void onPacketReceive(PacketReceiveEvent event) {
-        if (event.getPacketType() == PacketType.Handshaking.Client.HANDSHAKE) {
-            User user = event.getUser();
-            WrapperHandshakingClientHandshake packet = new WrapperHandshakingClientHandshake(event);
-            ClientVersion clientVersion = packet.getClientVersion();
-            ConnectionState state = packet.getNextConnectionState();
-
-            String feature;
-            if (ViaVersionUtil.isAvailable()) {
-                clientVersion = ClientVersion.getById(ViaVersionUtil.getProtocolVersion(user));
-                feature = "ViaVersion";
-            } else {
-                feature = null;
-            }
+    public InternalSpongePacketListener() {
+        // Replaces the default handler, the version may be changed by protocol translation plugins
+        this.registerReceiveHandler(PacketType.Handshaking.Client.HANDSHAKE, this::handleHandshake);
+    }
 
-            LogManager logger = PacketEvents.getAPI().getLogManager();
-            if (logger.isDebug()) {
-                logger.debug("Processed handshake for " + event.getAddress() + ": "
-                        + state.name() + " / " + packet.getClientVersion().getReleaseName()
-                        + (feature != null ? " (using " + feature + ")" : ""));
-            }
+    private void handleHandshake(PacketReceiveEvent event) {
+        User user = event.getUser();
+        WrapperHandshakingClientHandshake packet = new WrapperHandshakingClientHandshake(event);
+        ClientVersion clientVersion = packet.getClientVersion();
+        ConnectionState state = packet.getNextConnectionState();
 
-            user.setClientVersion(clientVersion);
-            user.setConnectionState(state);
+        String feature;
+        if (ViaVersionUtil.isAvailable()) {
+            clientVersion = ClientVersion.getById(ViaVersionUtil.getProtocolVersion(user));
+            feature = "ViaVersion";
         } else {
-            super.onPacketReceive(event);
+            feature = null;
         }
+
+        LogManager logger = PacketEvents.getAPI().getLogManager();
+        if (logger.isDebug()) {
+            logger.debug("Processed handshake for " + event.getAddress() + ": "
+                    + state.name() + " / " + packet.getClientVersion().getReleaseName()
+                    + (feature != null ? " (using " + feature + ")" : ""));
+        }
+
+        user.setClientVersion(clientVersion);
+        user.setConnectionState(state);
     }
 }
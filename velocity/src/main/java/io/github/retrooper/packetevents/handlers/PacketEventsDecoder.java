@@ -20,12 +20,14 @@ package io.github.retrooper.packetevents.handlers;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EnumUtil;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.github.retrooper.packetevents.util.reflection.Reflection;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.velocitypowered.api.proxy.Player;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
 import io.netty.buffer.ByteBuf;
@@ -48,21 +50,35 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
 
     public void read(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> output) throws Exception {
-        ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
+        if (PacketEventsImplHelper.isUnhandled(user, byteBuf, PacketSide.CLIENT, false)) {
+            output.add(byteBuf.retain());
+            return;
+        }
+        int firstReaderIndex = byteBuf.readerIndex();
+        PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(ctx.channel(), user, player,
+                byteBuf, false);
         try {
-            int firstReaderIndex = transformed.readerIndex();
-            PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(ctx.channel(), user, player,
-                    transformed, false);
-            int readerIndex = transformed.readerIndex();
-            PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> transformed.readerIndex(readerIndex));
+            int readerIndex = byteBuf.readerIndex();
+            PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, byteBuf, readerIndex);
             if (!packetReceiveEvent.isCancelled()) {
-                if (packetReceiveEvent.getLastUsedWrapper() != null) {
-                    ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
-                    packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
-                    packetReceiveEvent.getLastUsedWrapper().write();
+                PacketWrapper<?> wrapper = packetReceiveEvent.getLastUsedWrapper();
+                if (wrapper != null) {
+                    // The incoming buffer is a fixed-size slice of the frame, re-encode into a fresh one
+                    ByteBuf encoded = ctx.alloc().buffer();
+                    try {
+                        wrapper.setBuffer(encoded);
+                        wrapper.writeVarInt(packetReceiveEvent.getPacketId());
+                        wrapper.write();
+                    } catch (Exception ex) {
+                        encoded.release();
+                        throw ex;
+                    }
+                    output.add(encoded);
+                } else {
+                    // Nobody modified the packet, forward it as it is
+                    byteBuf.readerIndex(firstReaderIndex);
+                    output.add(byteBuf.retain());
                 }
-                transformed.readerIndex(firstReaderIndex);
-                output.add(transformed.retain());
             }
             if (packetReceiveEvent.hasPostTasks()) {
                 for (Runnable task : packetReceiveEvent.getPostTasks()) {
@@ -70,7 +86,7 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
                 }
             }
         } finally {
-            transformed.release();
+            EventCreationUtil.releaseEvent(packetReceiveEvent);
         }
     }
 
@@ -20,17 +20,22 @@ package io.github.retrooper.packetevents.handlers;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.velocitypowered.api.proxy.Player;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
 
 @ChannelHandler.Sharable
-public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
+public class PacketEventsEncoder extends MessageToMessageEncoder<ByteBuf> {
     public Player player;
     public User user;
 
@@ -38,40 +43,57 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         this.user = user;
     }
 
-    public void read(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
+    public void read(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> output) throws Exception {
+        if (PacketEventsImplHelper.isUnhandled(user, buffer, PacketSide.SERVER, false)) {
+            output.add(buffer.retain());
+            return;
+        }
         int firstReaderIndex = buffer.readerIndex();
         PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player, buffer,
                 false);
-        int readerIndex = buffer.readerIndex();
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
-        if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                ByteBufHelper.clear(packetSendEvent.getByteBuf());
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
+        try {
+            int readerIndex = buffer.readerIndex();
+            PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, buffer, readerIndex);
+            if (!packetSendEvent.isCancelled()) {
+                PacketWrapper<?> wrapper = packetSendEvent.getLastUsedWrapper();
+                if (wrapper != null) {
+                    // The original buffer may be a fixed-size slice, re-encode into a fresh one
+                    ByteBuf encoded = ctx.alloc().buffer();
+                    try {
+                        wrapper.setBuffer(encoded);
+                        wrapper.writeVarInt(packetSendEvent.getPacketId());
+                        wrapper.write();
+                    } catch (Exception ex) {
+                        encoded.release();
+                        throw ex;
+                    }
+                    output.add(encoded);
+                } else {
+                    // Nobody modified the packet, forward it as it is
+                    buffer.readerIndex(firstReaderIndex);
+                    output.add(buffer.retain());
+                }
+            } else {
+                // MessageToMessageEncoder requires at least one message
+                output.add(Unpooled.EMPTY_BUFFER);
             }
-            buffer.readerIndex(firstReaderIndex);
-        } else {
-            ByteBufHelper.clear(packetSendEvent.getByteBuf());
-        }
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
+            if (packetSendEvent.hasPostTasks()) {
+                for (Runnable task : packetSendEvent.getPostTasks()) {
+                    task.run();
+                }
             }
+        } finally {
+            EventCreationUtil.releaseEvent(packetSendEvent);
         }
     }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
-        if (!msg.isReadable()) return;
-
-        ByteBuf transformed = ctx.alloc().buffer().writeBytes(msg);
-        try {
-            read(ctx, transformed);
-            out.writeBytes(transformed);
-        } finally {
-            transformed.release();
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
+        if (!msg.isReadable()) {
+            out.add(msg.retain());
+            return;
         }
+        read(ctx, msg, out);
     }
 
     @Override
@@ -79,4 +101,3 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         super.exceptionCaught(ctx, cause);
     }
 }
-
@@ -234,6 +234,7 @@ public class VelocityPacketEventsBuilder {
                     injector.uninject();
                     // Unregister all our listeners
                     getEventManager().unregisterAllListeners();
+                    ProtocolManager.ENCODED_PACKETS.clear();
                     initialized = false;
                     terminated = true;
                 }